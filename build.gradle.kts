@@ -105,6 +105,24 @@ dependencies {
     shadow(project(":launch"))
 }
 
+// Benchmarks (https://github.com/openjdk/jmh)
+val jmh: SourceSet by sourceSets.creating {
+    compileClasspath += sourceSets.main.get().output + sourceSets.main.get().compileClasspath
+    runtimeClasspath += output + compileClasspath + sourceSets.main.get().runtimeClasspath
+}
+
+dependencies {
+    "jmhImplementation"("org.openjdk.jmh:jmh-core:${properties["jmh_version"] as String}")
+    "jmhAnnotationProcessor"("org.openjdk.jmh:jmh-generator-annprocess:${properties["jmh_version"] as String}")
+}
+
+// Tests, fabric-loader-junit runs them with Minecraft on the classpath
+dependencies {
+    testImplementation("net.fabricmc:fabric-loader-junit:${properties["loader_version"] as String}")
+    testImplementation("org.junit.jupiter:junit-jupiter:${properties["junit_version"] as String}")
+    testRuntimeOnly("org.junit.platform:junit-platform-launcher")
+}
+
 loom {
     accessWidenerPath = file("src/main/resources/meteor-client.accesswidener")
 }
@@ -191,6 +209,30 @@ tasks {
         }
     }
 
+    test {
+        useJUnitPlatform()
+    }
+
+    // Run with -Pjmh_includes=<regex> to only run some of the benchmarks
+    register<JavaExec>("jmh") {
+        group = "verification"
+        description = "Runs the JMH benchmarks and writes the results to build/reports/jmh/results.json."
+
+        classpath = jmh.runtimeClasspath
+        mainClass = "org.openjdk.jmh.Main"
+
+        val results = layout.buildDirectory.file("reports/jmh/results.json")
+        outputs.file(results)
+        outputs.upToDateWhen { false }
+
+        args("-rf", "json", "-rff", results.get().asFile.absolutePath)
+        project.findProperty("jmh_includes")?.let { args(it.toString()) }
+
+        doFirst {
+            results.get().asFile.parentFile.mkdirs()
+        }
+    }
+
     build {
         if (System.getenv("CI")?.toBoolean() == true) {
             dependsOn("javadocJar")
@@ -0,0 +1,114 @@
+/*
+ * This file is part of the Meteor Client distribution (https://github.com/MeteorDevelopment/meteor-client).
+ * Copyright (c) Meteor Development.
+ */
+
+package meteordevelopment.meteorclient.benchmarks;
+
+import meteordevelopment.meteorclient.renderer.ShapeMode;
+import meteordevelopment.meteorclient.settings.*;
+import meteordevelopment.meteorclient.systems.modules.Category;
+import meteordevelopment.meteorclient.systems.modules.Module;
+import meteordevelopment.meteorclient.systems.modules.Modules;
+import meteordevelopment.meteorclient.utils.render.color.SettingColor;
+import net.minecraft.block.Block;
+import net.minecraft.block.Blocks;
+
+import java.util.List;
+
+/**
+ * Module with one setting of each common type and a name made of words found in real module names. {@link Modules}
+ * stores modules by their class, so benchmarks adding many of them define this class again as a hidden class for each.
+ */
+public class BenchmarkModule extends Module {
+    private static final String[] WORDS = {
+        "auto", "crystal", "aura", "anchor", "block", "esp", "fast", "place", "break", "totem",
+        "elytra", "fly", "hole", "filler", "nuker", "search", "light", "overlay", "tracers", "trap"
+    };
+
+    private final Setting<Boolean> rotate;
+    private final Setting<Integer> delay;
+    private final Setting<Double> range;
+    private final Setting<String> message;
+    private final Setting<List<Block>> blocks;
+    private final Setting<ShapeMode> shapeMode;
+    private final Setting<SettingColor> sideColor;
+
+    public BenchmarkModule(Category category, int index) {
+        super(category, name(index), "Module " + index + " used by the benchmarks.");
+
+        SettingGroup sgGeneral = settings.getDefaultGroup();
+        SettingGroup sgRender = settings.createGroup("Render");
+
+        rotate = sgGeneral.add(new BoolSetting.Builder()
+            .name("rotate")
+            .description("Rotates towards the target.")
+            .defaultValue(true)
+            .build()
+        );
+
+        delay = sgGeneral.add(new IntSetting.Builder()
+            .name("delay")
+            .description("Delay in ticks between actions.")
+            .defaultValue(2)
+            .min(0)
+            .sliderMax(20)
+            .build()
+        );
+
+        range = sgGeneral.add(new DoubleSetting.Builder()
+            .name("range")
+            .description("Maximum range.")
+            .defaultValue(4.5)
+            .min(0)
+            .sliderMax(6)
+            .build()
+        );
+
+        message = sgGeneral.add(new StringSetting.Builder()
+            .name("message")
+            .description("Message sent when toggled.")
+            .defaultValue("")
+            .build()
+        );
+
+        blocks = sgGeneral.add(new BlockListSetting.Builder()
+            .name("blocks")
+            .description("Blocks to target.")
+            .defaultValue(Blocks.OBSIDIAN)
+            .build()
+        );
+
+        shapeMode = sgRender.add(new EnumSetting.Builder<ShapeMode>()
+            .name("shape-mode")
+            .description("How the shapes are rendered.")
+            .defaultValue(ShapeMode.Both)
+            .build()
+        );
+
+        sideColor = sgRender.add(new ColorSetting.Builder()
+            .name("side-color")
+            .description("The side color.")
+            .defaultValue(new SettingColor(255, 0, 0, 75))
+            .build()
+        );
+    }
+
+    /**
+     * Moves every setting away from its default, so all of them are saved.
+     */
+    public void change() {
+        rotate.set(false);
+        delay.set(5);
+        range.set(5.5);
+        message.set("Toggled " + name);
+        blocks.set(List.of(Blocks.OBSIDIAN, Blocks.CRYING_OBSIDIAN, Blocks.RESPAWN_ANCHOR));
+        shapeMode.set(ShapeMode.Lines);
+        sideColor.set(new SettingColor(0, 255, 0, 75));
+    }
+
+    private static String name(int index) {
+        String name = WORDS[index % WORDS.length] + "-" + WORDS[index / WORDS.length % WORDS.length];
+        return index < WORDS.length * WORDS.length ? name : name + "-" + index;
+    }
+}
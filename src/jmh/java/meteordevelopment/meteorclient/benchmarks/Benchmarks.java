@@ -0,0 +1,31 @@
+/*
+ * This file is part of the Meteor Client distribution (https://github.com/MeteorDevelopment/meteor-client).
+ * Copyright (c) Meteor Development.
+ */
+
+package meteordevelopment.meteorclient.benchmarks;
+
+import meteordevelopment.meteorclient.systems.modules.Categories;
+import net.minecraft.Bootstrap;
+import net.minecraft.SharedConstants;
+
+final class Benchmarks {
+    private static boolean initialized;
+
+    private Benchmarks() {
+    }
+
+    /**
+     * Loads the vanilla registries and registers the module categories, which is enough to use blocks, block states and
+     * modules without starting the game.
+     */
+    static synchronized void bootstrap() {
+        if (initialized) return;
+
+        SharedConstants.createGameVersion();
+        Bootstrap.initialize();
+        Categories.init();
+
+        initialized = true;
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * This file is part of the Meteor Client distribution (https://github.com/MeteorDevelopment/meteor-client).
+ * Copyright (c) Meteor Development.
+ */
+
+package meteordevelopment.meteorclient.benchmarks;
+
+import meteordevelopment.meteorclient.utils.world.BlockScanner;
+import net.minecraft.block.Block;
+import net.minecraft.block.BlockState;
+import net.minecraft.block.Blocks;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.chunk.ChunkSection;
+import net.minecraft.world.chunk.PalettedContainer;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Searching the sections of a chunk for ores the way BlockESP does, with {@link BlockScanner} compared to reading
+ * every block state of the section. Sections are underground stone with some dirt, gravel and the given amount of
+ * diamond ore.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BlockScannerBenchmark {
+    private static final int SECTIONS = 24;
+
+    // Ores per section, none lets the scanner skip sections by their palette
+    @Param({ "0", "8", "256" })
+    public int ores;
+
+    private ChunkSection[] sections;
+    private BlockScanner scanner;
+
+    @Setup
+    public void setup() {
+        Benchmarks.bootstrap();
+
+        Random random = new Random(1);
+        BlockState[] fillers = { Blocks.DIRT.getDefaultState(), Blocks.GRAVEL.getDefaultState(), Blocks.ANDESITE.getDefaultState() };
+
+        sections = new ChunkSection[SECTIONS];
+
+        for (int i = 0; i < SECTIONS; i++) {
+            ChunkSection section = new ChunkSection(new PalettedContainer<>(Block.STATE_IDS, Blocks.AIR.getDefaultState(), PalettedContainer.PaletteProvider.BLOCK_STATE), null);
+
+            for (int x = 0; x < 16; x++) {
+                for (int y = 0; y < 16; y++) {
+                    for (int z = 0; z < 16; z++) {
+                        BlockState state = random.nextInt(10) == 0 ? fillers[random.nextInt(fillers.length)] : Blocks.STONE.getDefaultState();
+                        section.setBlockState(x, y, z, state, false);
+                    }
+                }
+            }
+
+            for (int j = 0; j < ores; j++) {
+                section.setBlockState(random.nextInt(16), random.nextInt(16), random.nextInt(16), Blocks.DIAMOND_ORE.getDefaultState(), false);
+            }
+
+            sections[i] = section;
+        }
+
+        scanner = new BlockScanner(List.of(Blocks.DIAMOND_ORE, Blocks.DEEPSLATE_DIAMOND_ORE));
+    }
+
+    @Benchmark
+    public void scanner(Blackhole blackhole) {
+        for (int i = 0; i < SECTIONS; i++) {
+            scanner.scan(sections[i], 0, i * 16, 0, blackhole::consume);
+        }
+    }
+
+    @Benchmark
+    public void blockStates(Blackhole blackhole) {
+        for (int i = 0; i < SECTIONS; i++) {
+            ChunkSection section = sections[i];
+
+            for (int y = 0; y < 16; y++) {
+                for (int z = 0; z < 16; z++) {
+                    for (int x = 0; x < 16; x++) {
+                        if (scanner.matches(section.getBlockState(x, y, z))) blackhole.consume(BlockPos.asLong(x, i * 16 + y, z));
+                    }
+                }
+            }
+        }
+    }
+}
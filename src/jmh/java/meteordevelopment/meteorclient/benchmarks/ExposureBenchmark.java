@@ -0,0 +1,122 @@
+/*
+ * This file is part of the Meteor Client distribution (https://github.com/MeteorDevelopment/meteor-client).
+ * Copyright (c) Meteor Development.
+ */
+
+package meteordevelopment.meteorclient.benchmarks;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import meteordevelopment.meteorclient.utils.entity.DamageUtils;
+import meteordevelopment.meteorclient.utils.entity.ExposureRaycaster;
+import net.minecraft.block.BlockState;
+import net.minecraft.block.Blocks;
+import net.minecraft.block.entity.BlockEntity;
+import net.minecraft.fluid.FluidState;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Box;
+import net.minecraft.util.math.Vec3d;
+import net.minecraft.world.BlockView;
+import org.jetbrains.annotations.Nullable;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Explosion exposure of a player sized box over a random grid of obsidian, ender chests and stone, through
+ * {@link ExposureRaycaster} with {@link DamageUtils#HIT_FACTORY} compared to {@link BlockView#raycast} with a factory
+ * doing the same hit test.
+ * <p>
+ * Every invocation computes the exposure from all sources. A few sources are mostly answered by the ray cache, a lot of
+ * them don't fit in it.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExposureBenchmark {
+    private static final int SIZE = 16;
+
+    @Param({ "16", "1024" })
+    public int sources;
+
+    private GridWorld world;
+    private Vec3d[] sourcePositions;
+    private Box target;
+    private DamageUtils.RaycastFactory vanillaFactory;
+
+    @Setup
+    public void setup() {
+        Benchmarks.bootstrap();
+
+        world = new GridWorld();
+        Random random = new Random(1);
+
+        BlockState[] states = { Blocks.OBSIDIAN.getDefaultState(), Blocks.ENDER_CHEST.getDefaultState(), Blocks.STONE.getDefaultState() };
+
+        for (int x = 0; x < SIZE; x++) {
+            for (int y = 0; y < 4; y++) {
+                for (int z = 0; z < SIZE; z++) {
+                    if (random.nextInt(4) == 0) world.set(x, y, z, states[random.nextInt(states.length)]);
+                }
+            }
+        }
+
+        // Crystals placed on blocks around the target
+        sourcePositions = new Vec3d[sources];
+        for (int i = 0; i < sources; i++) {
+            sourcePositions[i] = new Vec3d(random.nextInt(SIZE) + 0.5, random.nextInt(4) + 1, random.nextInt(SIZE) + 0.5);
+        }
+
+        target = new Box(SIZE / 2.0 - 0.3, 1, SIZE / 2.0 - 0.3, SIZE / 2.0 + 0.3, 2.8, SIZE / 2.0 + 0.3);
+        vanillaFactory = (context, blockPos) -> DamageUtils.hit(world, context, blockPos, null, null);
+    }
+
+    @Benchmark
+    public void raycaster(Blackhole blackhole) {
+        for (Vec3d source : sourcePositions) blackhole.consume(DamageUtils.getExposure(world, source, target, DamageUtils.HIT_FACTORY));
+    }
+
+    @Benchmark
+    public void vanilla(Blackhole blackhole) {
+        for (Vec3d source : sourcePositions) blackhole.consume(DamageUtils.getExposure(world, source, target, vanillaFactory));
+    }
+
+    private static class GridWorld implements BlockView {
+        private final Long2ObjectMap<BlockState> states = new Long2ObjectOpenHashMap<>();
+
+        public void set(int x, int y, int z, BlockState state) {
+            states.put(BlockPos.asLong(x, y, z), state);
+        }
+
+        @Override
+        public BlockState getBlockState(BlockPos pos) {
+            BlockState state = states.get(pos.asLong());
+            return state != null ? state : Blocks.AIR.getDefaultState();
+        }
+
+        @Override
+        public FluidState getFluidState(BlockPos pos) {
+            return getBlockState(pos).getFluidState();
+        }
+
+        @Override
+        public @Nullable BlockEntity getBlockEntity(BlockPos pos) {
+            return null;
+        }
+
+        @Override
+        public int getHeight() {
+            return 384;
+        }
+
+        @Override
+        public int getBottomY() {
+            return -64;
+        }
+    }
+}
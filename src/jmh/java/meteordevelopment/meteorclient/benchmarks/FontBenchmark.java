@@ -0,0 +1,111 @@
+/*
+ * This file is part of the Meteor Client distribution (https://github.com/MeteorDevelopment/meteor-client).
+ * Copyright (c) Meteor Development.
+ */
+
+package meteordevelopment.meteorclient.benchmarks;
+
+import com.mojang.blaze3d.vertex.VertexFormat;
+import meteordevelopment.meteorclient.renderer.MeshBuilder;
+import meteordevelopment.meteorclient.renderer.MeteorVertexFormats;
+import meteordevelopment.meteorclient.renderer.text.Font;
+import meteordevelopment.meteorclient.renderer.text.GlyphAtlas;
+import meteordevelopment.meteorclient.utils.render.color.Color;
+import org.lwjgl.BufferUtils;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measuring and rendering GUI and HUD text with a {@link Font} of the builtin JetBrains Mono at the height used by the
+ * custom text renderer. Glyphs are rasterized during setup, the atlas texture is never created.
+ * <p>
+ * Static text is answered by the width cache, text changing every frame, like coordinates, has to be measured again.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FontBenchmark {
+    private static final String[] STATIC_TEXT = {
+        "Crystal Aura", "Anchor Aura", "Kill Aura", "Surround", "Hole ESP", "Light Overlay", "Block ESP", "Tracers",
+        "Nametags", "Auto Totem", "Elytra Fly", "Nuker", "Place Range", "Break Delay", "Shape Mode", "Side Color",
+        "Line Color", "Rotate", "Render", "General", "Targeting", "Pause", "Inventory", "Active Modules"
+    };
+
+    private static final int CHANGING_TEXT = 4096;
+
+    private GlyphAtlas atlas;
+    private Font font;
+    private MeshBuilder mesh;
+
+    private String[] changingText;
+    private int changingIndex;
+
+    private final Color color = new Color(255, 255, 255);
+
+    @Setup
+    public void setup() throws IOException {
+        byte[] bytes;
+        try (InputStream in = Font.class.getResourceAsStream("/assets/meteor-client/fonts/JetBrains Mono.ttf")) {
+            bytes = in.readAllBytes();
+        }
+
+        ByteBuffer buffer = BufferUtils.createByteBuffer(bytes.length).put(bytes).flip();
+
+        atlas = new GlyphAtlas(buffer);
+        font = new Font(atlas, 27);
+        mesh = new MeshBuilder(MeteorVertexFormats.POS2_TEXTURE_COLOR, VertexFormat.DrawMode.TRIANGLES);
+
+        // More distinct strings than the width cache holds
+        changingText = new String[CHANGING_TEXT];
+        for (int i = 0; i < CHANGING_TEXT; i++) {
+            changingText[i] = String.format(Locale.ROOT, "XYZ: %.1f, %.1f, %.1f", i * 1.7, 64 + i % 100 * 0.3, -i * 2.3);
+        }
+
+        for (String text : STATIC_TEXT) font.getWidth(text, text.length());
+        for (String text : changingText) font.getWidth(text, text.length());
+    }
+
+    @TearDown
+    public void tearDown() {
+        mesh.close();
+        atlas.close();
+    }
+
+    @Benchmark
+    public void widthCached(Blackhole blackhole) {
+        for (String text : STATIC_TEXT) blackhole.consume(font.getWidth(text, text.length()));
+    }
+
+    @Benchmark
+    public void widthUncached(Blackhole blackhole) {
+        for (int i = 0; i < STATIC_TEXT.length; i++) {
+            String text = changingText[changingIndex];
+            changingIndex = (changingIndex + 1) % CHANGING_TEXT;
+
+            blackhole.consume(font.getWidth(text, text.length()));
+        }
+    }
+
+    @Benchmark
+    public int render() {
+        mesh.begin(0, 0);
+
+        double y = 0;
+        for (String text : STATIC_TEXT) {
+            font.render(mesh, text, 0, y, color, 1);
+            y += font.getHeight();
+        }
+
+        mesh.end();
+        return mesh.getIndicesCount();
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * This file is part of the Meteor Client distribution (https://github.com/MeteorDevelopment/meteor-client).
+ * Copyright (c) Meteor Development.
+ */
+
+package meteordevelopment.meteorclient.benchmarks;
+
+import com.mojang.blaze3d.pipeline.RenderPipeline;
+import com.mojang.blaze3d.vertex.VertexFormat;
+import meteordevelopment.meteorclient.renderer.MeshBuilder;
+import meteordevelopment.meteorclient.renderer.Renderer3D;
+import meteordevelopment.meteorclient.renderer.ShapeMode;
+import meteordevelopment.meteorclient.utils.render.color.Color;
+import meteordevelopment.meteorclient.utils.world.Dir;
+import net.minecraft.client.render.VertexFormats;
+import net.minecraft.util.Identifier;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building ESP geometry into {@link MeshBuilder}s through {@link Renderer3D#box}, relative to an origin so no camera is
+ * needed. Nothing is uploaded. Enough boxes make the line mesh go over the vertex count of short indices.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MeshBuilderBenchmark {
+    @Param({ "1000", "20000" })
+    public int boxes;
+
+    @Param({ "Lines", "Sides", "Both" })
+    public ShapeMode mode;
+
+    private Renderer3D renderer;
+    private int[] positions;
+    private int[] excludeDirs;
+
+    private final Color sideColor = new Color(255, 0, 0, 75);
+    private final Color lineColor = new Color(255, 0, 0, 255);
+
+    @Setup
+    public void setup() {
+        renderer = new Renderer3D(
+            pipeline("lines", VertexFormat.DrawMode.DEBUG_LINES),
+            pipeline("triangles", VertexFormat.DrawMode.TRIANGLES)
+        );
+
+        Random random = new Random(1);
+        positions = new int[boxes * 3];
+        excludeDirs = new int[boxes];
+
+        for (int i = 0; i < boxes; i++) {
+            positions[i * 3] = random.nextInt(128) - 64;
+            positions[i * 3 + 1] = random.nextInt(64);
+            positions[i * 3 + 2] = random.nextInt(128) - 64;
+
+            // Some boxes are merged with a neighbour like in hole and block ESP
+            excludeDirs[i] = random.nextInt(4) == 0 ? Dir.UP | Dir.NORTH : 0;
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        renderer.lines.close();
+        renderer.triangles.close();
+    }
+
+    @Benchmark
+    public int box() {
+        renderer.begin(0, 0);
+
+        for (int i = 0; i < boxes; i++) {
+            int x = positions[i * 3], y = positions[i * 3 + 1], z = positions[i * 3 + 2];
+            renderer.box(x, y, z, x + 1, y + 1, z + 1, sideColor, lineColor, mode, excludeDirs[i]);
+        }
+
+        renderer.lines.end();
+        renderer.triangles.end();
+
+        return renderer.lines.getIndicesCount() + renderer.triangles.getIndicesCount();
+    }
+
+    private static RenderPipeline pipeline(String name, VertexFormat.DrawMode drawMode) {
+        return RenderPipeline.builder()
+            .withLocation(Identifier.of("meteor-client", "pipeline/benchmark_" + name))
+            .withVertexFormat(VertexFormats.POSITION_COLOR, drawMode)
+            .withVertexShader(Identifier.of("meteor-client", "shaders/pos_color.vert"))
+            .withFragmentShader(Identifier.of("meteor-client", "shaders/pos_color.frag"))
+            .build();
+    }
+}
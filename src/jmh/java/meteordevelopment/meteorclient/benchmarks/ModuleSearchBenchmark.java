@@ -0,0 +1,123 @@
+/*
+ * This file is part of the Meteor Client distribution (https://github.com/MeteorDevelopment/meteor-client).
+ * Copyright (c) Meteor Development.
+ */
+
+package meteordevelopment.meteorclient.benchmarks;
+
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import meteordevelopment.meteorclient.settings.Setting;
+import meteordevelopment.meteorclient.settings.SettingGroup;
+import meteordevelopment.meteorclient.systems.modules.Categories;
+import meteordevelopment.meteorclient.systems.modules.Module;
+import meteordevelopment.meteorclient.systems.modules.ModuleSearchIndex;
+import meteordevelopment.meteorclient.utils.Utils;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The module searches of the GUI through {@link ModuleSearchIndex} compared to scoring every module with
+ * {@link Utils#searchLevenshteinDefault(String, String, boolean)}, which the index replaced.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ModuleSearchBenchmark {
+    // Typed one character at a time, with typos
+    private static final String[] QUERIES = { "c", "cr", "cry", "crys", "crystl", "aura", "hole fil", "esp", "tracrs", "nuk", "shape", "side colr" };
+
+    // Amount of results shown by the GUI by default
+    private static final int LIMIT = 8;
+
+    @Param({ "100", "300" })
+    public int modules;
+
+    private List<Module> moduleList;
+    private ModuleSearchIndex index;
+
+    @Setup
+    public void setup() {
+        Benchmarks.bootstrap();
+
+        moduleList = new ArrayList<>(modules);
+        for (int i = 0; i < modules; i++) moduleList.add(new BenchmarkModule(Categories.Misc, i));
+
+        index = new ModuleSearchIndex(moduleList);
+        index.rebuild();
+    }
+
+    @Benchmark
+    public void indexTitles(Blackhole blackhole) {
+        for (String query : QUERIES) blackhole.consume(index.searchTitles(query, LIMIT, true));
+    }
+
+    @Benchmark
+    public void scanTitles(Blackhole blackhole) {
+        for (String query : QUERIES) {
+            Object2IntMap<Module> scores = new Object2IntOpenHashMap<>();
+
+            for (Module module : moduleList) {
+                int score = Utils.searchLevenshteinDefault(module.title, query, false);
+                for (String alias : module.aliases) score = Math.min(score, Utils.searchLevenshteinDefault(alias, query, false));
+
+                scores.put(module, score);
+            }
+
+            blackhole.consume(best(scores));
+        }
+    }
+
+    @Benchmark
+    public void indexSettingTitles(Blackhole blackhole) {
+        for (String query : QUERIES) blackhole.consume(index.searchSettingTitles(query, LIMIT));
+    }
+
+    @Benchmark
+    public void scanSettingTitles(Blackhole blackhole) {
+        for (String query : QUERIES) {
+            Object2IntMap<Module> scores = new Object2IntOpenHashMap<>();
+
+            for (Module module : moduleList) {
+                int lowest = Integer.MAX_VALUE;
+
+                for (SettingGroup group : module.settings) {
+                    for (Setting<?> setting : group) lowest = Math.min(lowest, Utils.searchLevenshteinDefault(setting.title, query, false));
+                }
+
+                scores.put(module, lowest);
+            }
+
+            blackhole.consume(best(scores));
+        }
+    }
+
+    @Benchmark
+    public void indexDistance(Blackhole blackhole) {
+        for (String query : QUERIES) {
+            for (Module module : moduleList) blackhole.consume(index.distance(query, module.name));
+        }
+    }
+
+    @Benchmark
+    public void utilsDistance(Blackhole blackhole) {
+        for (String query : QUERIES) {
+            for (Module module : moduleList) blackhole.consume(Utils.searchLevenshteinDefault(module.name, query, true));
+        }
+    }
+
+    private static List<Module> best(Object2IntMap<Module> scores) {
+        return scores.keySet().stream()
+            .sorted(Comparator.<Module>comparingInt(scores::getInt).thenComparing(Comparator.naturalOrder()))
+            .limit(LIMIT)
+            .toList();
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * This file is part of the Meteor Client distribution (https://github.com/MeteorDevelopment/meteor-client).
+ * Copyright (c) Meteor Development.
+ */
+
+package meteordevelopment.meteorclient.benchmarks;
+
+import meteordevelopment.meteorclient.systems.modules.Categories;
+import meteordevelopment.meteorclient.systems.modules.Category;
+import meteordevelopment.meteorclient.systems.modules.Module;
+import meteordevelopment.meteorclient.systems.modules.Modules;
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.nbt.NbtIo;
+import net.minecraft.nbt.NbtSizeTracker;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.*;
+import java.lang.invoke.MethodHandles;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Saving and loading {@link Modules} through {@link Modules#toTag()} and {@link Modules#fromTag(NbtCompound)}, with
+ * {@link BenchmarkModule}s of which some have all their settings changed.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ModulesNbtBenchmark {
+    @Param({ "100", "300" })
+    public int modules;
+
+    // Percentage of modules whose settings differ from the defaults
+    @Param({ "10", "100" })
+    public int changed;
+
+    private Modules system;
+    private byte[] bytes;
+
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream(64 * 1024);
+
+    @Setup
+    public void setup() throws Exception {
+        Benchmarks.bootstrap();
+
+        system = new Modules(Files.createTempDirectory("meteor-benchmark").toFile());
+
+        // Modules are stored by their class, every module needs its own
+        byte[] moduleClass;
+        try (InputStream in = BenchmarkModule.class.getResourceAsStream("BenchmarkModule.class")) {
+            moduleClass = in.readAllBytes();
+        }
+
+        Category category = Categories.Misc;
+        int changedModules = modules * changed / 100;
+
+        for (int i = 0; i < modules; i++) {
+            // Not a subclass of the loaded BenchmarkModule, only of Module
+            Class<?> klass = MethodHandles.lookup().defineHiddenClass(moduleClass, true).lookupClass();
+            Module module = (Module) klass.getConstructor(Category.class, int.class).newInstance(category, i);
+
+            if (i < changedModules) klass.getMethod("change").invoke(module);
+            system.add(module);
+        }
+
+        bytes = write(system.toTag());
+    }
+
+    @Benchmark
+    public NbtCompound toTag() {
+        return system.toTag();
+    }
+
+    @Benchmark
+    public byte[] save() throws IOException {
+        return write(system.toTag());
+    }
+
+    @Benchmark
+    public Modules load() throws IOException {
+        return system.fromTag(NbtIo.readCompound(new DataInputStream(new ByteArrayInputStream(bytes)), NbtSizeTracker.ofUnlimitedBytes()));
+    }
+
+    private byte[] write(NbtCompound tag) throws IOException {
+        out.reset();
+        NbtIo.write(tag, new DataOutputStream(out));
+
+        return out.toByteArray();
+    }
+}
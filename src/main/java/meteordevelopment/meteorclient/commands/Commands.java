@@ -62,6 +62,7 @@ public class Commands {
         add(new InputCommand());
         add(new WaspCommand());
         add(new LocateCommand());
+        add(new StashesCommand());
 
         COMMANDS.sort(Comparator.comparing(Command::getName));
     }
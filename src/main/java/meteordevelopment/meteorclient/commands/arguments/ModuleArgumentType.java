@@ -23,6 +23,7 @@ import java.util.stream.Collectors;
 
 public class ModuleArgumentType implements ArgumentType<Module> {
     private static final ModuleArgumentType INSTANCE = new ModuleArgumentType();
+    private static final int FUZZY_SUGGESTIONS = 10;
     private static final DynamicCommandExceptionType NO_SUCH_MODULE = new DynamicCommandExceptionType(name -> Text.literal("Module with name " + name + " doesn't exist."));
 
     private static final Collection<String> EXAMPLES = Modules.get().getAll()
@@ -52,6 +53,13 @@ public class ModuleArgumentType implements ArgumentType<Module> {
 
     @Override
     public <S> CompletableFuture<Suggestions> listSuggestions(CommandContext<S> context, SuggestionsBuilder builder) {
+        // Close names on top of the ones matching the start
+        if (!builder.getRemaining().isEmpty()) {
+            for (Module module : Modules.get().getSearchIndex().searchNames(builder.getRemaining(), FUZZY_SUGGESTIONS)) {
+                builder.suggest(module.name);
+            }
+        }
+
         return CommandSource.suggestMatching(Modules.get().getAll().stream().map(module -> module.name), builder);
     }
 
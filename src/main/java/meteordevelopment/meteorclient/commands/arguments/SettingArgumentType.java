@@ -15,6 +15,7 @@ import com.mojang.brigadier.suggestion.Suggestions;
 import com.mojang.brigadier.suggestion.SuggestionsBuilder;
 import meteordevelopment.meteorclient.settings.Setting;
 import meteordevelopment.meteorclient.systems.modules.Module;
+import meteordevelopment.meteorclient.systems.modules.Modules;
 import net.minecraft.command.CommandSource;
 import net.minecraft.text.Text;
 
@@ -23,6 +24,7 @@ import java.util.stream.Stream;
 
 public class SettingArgumentType implements ArgumentType<String> {
     private static final SettingArgumentType INSTANCE = new SettingArgumentType();
+    private static final int FUZZY_SUGGESTIONS = 10;
     private static final DynamicCommandExceptionType NO_SUCH_SETTING = new DynamicCommandExceptionType(name -> Text.literal("No such setting '" + name + "'."));
 
     public static SettingArgumentType create() {
@@ -48,7 +50,16 @@ public class SettingArgumentType implements ArgumentType<String> {
 
     @Override
     public <S> CompletableFuture<Suggestions> listSuggestions(CommandContext<S> context, SuggestionsBuilder builder) {
-        Stream<String> stream = Streams.stream(context.getArgument("module", Module.class).settings.iterator())
+        Module module = context.getArgument("module", Module.class);
+
+        // Close names on top of the ones matching the start
+        if (!builder.getRemaining().isEmpty()) {
+            for (Setting<?> setting : Modules.get().getSearchIndex().searchSettingNames(module, builder.getRemaining(), FUZZY_SUGGESTIONS)) {
+                builder.suggest(setting.name);
+            }
+        }
+
+        Stream<String> stream = Streams.stream(module.settings.iterator())
                 .flatMap(settings -> Streams.stream(settings.iterator()))
                 .map(setting -> setting.name);
 
@@ -0,0 +1,80 @@
+/*
+ * This file is part of the Meteor Client distribution (https://github.com/MeteorDevelopment/meteor-client).
+ * Copyright (c) Meteor Development.
+ */
+
+package meteordevelopment.meteorclient.commands.commands;
+
+import com.mojang.brigadier.arguments.IntegerArgumentType;
+import com.mojang.brigadier.builder.LiteralArgumentBuilder;
+import meteordevelopment.meteorclient.commands.Command;
+import meteordevelopment.meteorclient.systems.modules.Modules;
+import meteordevelopment.meteorclient.systems.modules.world.StashFinder;
+import meteordevelopment.meteorclient.systems.modules.world.StashStorage;
+import net.minecraft.command.CommandSource;
+import net.minecraft.util.Formatting;
+
+import java.io.File;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+public class StashesCommand extends Command {
+    public StashesCommand() {
+        super("stashes", "Lists and exports the stashes found by Stash Finder.");
+    }
+
+    @Override
+    public void build(LiteralArgumentBuilder<CommandSource> builder) {
+        builder.then(literal("top")
+            .executes(context -> top(10))
+            .then(argument("count", IntegerArgumentType.integer(1)).executes(context -> top(IntegerArgumentType.getInteger(context, "count"))))
+        );
+
+        builder.then(literal("near").then(argument("radius", IntegerArgumentType.integer(1)).executes(context -> {
+            int radius = IntegerArgumentType.getInteger(context, "radius");
+            List<StashFinder.Chunk> stashes = getStorage().within(mc.player.getBlockX(), mc.player.getBlockZ(), radius);
+
+            if (stashes.isEmpty()) error("No stashes within (highlight)%d(default) blocks.", radius);
+            else {
+                info(Formatting.WHITE + "Stashes within %d blocks:", radius);
+                for (StashFinder.Chunk chunk : stashes) printStash(chunk);
+            }
+
+            return SINGLE_SUCCESS;
+        })));
+
+        builder.then(literal("export")
+            .then(literal("json").executes(context -> export(getStorage().exportJson())))
+            .then(literal("csv").executes(context -> export(getStorage().exportCsv())))
+        );
+    }
+
+    private int top(int count) {
+        List<StashFinder.Chunk> stashes = getStorage().sortedByTotal();
+
+        if (stashes.isEmpty()) error("No stashes found in this world.");
+        else {
+            info(Formatting.WHITE + "Largest stashes:");
+            for (int i = 0; i < Math.min(count, stashes.size()); i++) printStash(stashes.get(i));
+        }
+
+        return SINGLE_SUCCESS;
+    }
+
+    private int export(CompletableFuture<File> future) {
+        future.whenComplete((file, ex) -> mc.execute(() -> {
+            if (ex != null) error("Failed to export stashes.");
+            else info("Exported stashes to (highlight)%s(default).", file.getName());
+        }));
+
+        return SINGLE_SUCCESS;
+    }
+
+    private void printStash(StashFinder.Chunk chunk) {
+        info("Pos: (highlight)%d, %d(default), Total: (highlight)%d", chunk.x, chunk.z, chunk.getTotal());
+    }
+
+    private static StashStorage getStorage() {
+        return Modules.get().get(StashFinder.class).getStorage();
+    }
+}
@@ -8,6 +8,7 @@ package meteordevelopment.meteorclient.events.render;
 import meteordevelopment.meteorclient.renderer.Renderer3D;
 import meteordevelopment.meteorclient.utils.Utils;
 import net.minecraft.client.util.math.MatrixStack;
+import org.joml.FrustumIntersection;
 
 public class Render3DEvent {
     private static final Render3DEvent INSTANCE = new Render3DEvent();
@@ -19,7 +20,13 @@ public class Render3DEvent {
     public float tickDelta;
     public double offsetX, offsetY, offsetZ;
 
-    public static Render3DEvent get(MatrixStack matrices, Renderer3D renderer, Renderer3D depthRenderer, float tickDelta, double offsetX, double offsetY, double offsetZ) {
+    /**
+     * Camera frustum, positions need to be relative to the camera position ({@link #offsetX}, {@link #offsetY},
+     * {@link #offsetZ}).
+     */
+    public FrustumIntersection frustum;
+
+    public static Render3DEvent get(MatrixStack matrices, Renderer3D renderer, Renderer3D depthRenderer, float tickDelta, double offsetX, double offsetY, double offsetZ, FrustumIntersection frustum) {
         INSTANCE.matrices = matrices;
         INSTANCE.renderer = renderer;
         INSTANCE.depthRenderer = depthRenderer;
@@ -28,6 +35,7 @@ public class Render3DEvent {
         INSTANCE.offsetX = offsetX;
         INSTANCE.offsetY = offsetY;
         INSTANCE.offsetZ = offsetZ;
+        INSTANCE.frustum = frustum;
         return INSTANCE;
     }
 }
@@ -35,6 +35,8 @@ import net.minecraft.util.math.BlockPos;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
 
 public abstract class GuiTheme implements ISerializable<GuiTheme> {
     public static final double TITLE_TEXT_SCALE = 1.25;
@@ -135,6 +137,9 @@ public abstract class GuiTheme implements ISerializable<GuiTheme> {
     public WTable table() {
         return w(new WTable());
     }
+    public <T, W extends WWidget> WVirtualList<T, W> virtualList(Supplier<W> rowFactory, BiConsumer<W, T> rowBinder) {
+        return w(new WVirtualList<>(rowFactory, rowBinder));
+    }
 
     public abstract WSection section(String title, boolean expanded, WWidget headerWidget);
     public WSection section(String title, boolean expanded) {
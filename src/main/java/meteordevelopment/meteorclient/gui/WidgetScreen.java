@@ -42,7 +42,7 @@ public abstract class WidgetScreen extends Screen {
     protected Runnable enterAction;
 
     public Screen parent;
-    private final WContainer root;
+    private final WFullScreenRoot root;
 
     protected final GuiTheme theme;
 
@@ -86,7 +86,7 @@ public abstract class WidgetScreen extends Screen {
     }
 
     public void invalidate() {
-        root.invalidate();
+        root.invalidateAll();
     }
 
     @Override
@@ -266,10 +266,13 @@ public abstract class WidgetScreen extends Screen {
         RENDERER.end();
 
         boolean tooltip = RENDERER.renderTooltip(context, mouseX, mouseY, delta / 20);
+        int measuredWidgets = WWidget.resetMeasuredWidgets();
 
         if (debug) {
             DEBUG_RENDERER.render(root);
             if (tooltip) DEBUG_RENDERER.render(RENDERER.tooltipWidget);
+
+            DEBUG_RENDERER.renderStats(context, measuredWidgets);
         }
 
         Utils.scaledProjection();
@@ -289,7 +292,7 @@ public abstract class WidgetScreen extends Screen {
     @Override
     public void resize(MinecraftClient client, int width, int height) {
         super.resize(client, width, height);
-        root.invalidate();
+        root.invalidateAll();
     }
 
     @Override
@@ -361,13 +364,20 @@ public abstract class WidgetScreen extends Screen {
     }
 
     private static class WFullScreenRoot extends WContainer implements WRoot {
-        private boolean valid;
+        private boolean valid, validSizes;
 
+        // Widgets invalidate themselves, only they and their ancestors are measured again
         @Override
         public void invalidate() {
             valid = false;
         }
 
+        // Everything is measured again, used when sizes can change without widgets knowing, e.g. a new font
+        public void invalidateAll() {
+            valid = false;
+            validSizes = false;
+        }
+
         @Override
         protected void onCalculateSize() {
             width = getWindowWidth();
@@ -390,10 +400,13 @@ public abstract class WidgetScreen extends Screen {
         @Override
         public boolean render(GuiRenderer renderer, double mouseX, double mouseY, double delta) {
             if (!valid) {
-                calculateSize();
+                if (validSizes) updateSize();
+                else calculateSize();
+
                 calculateWidgetPositions();
 
                 valid = true;
+                validSizes = true;
                 mouseMoved(mc.mouse.getX(), mc.mouse.getY(), mc.mouse.getX(), mc.mouse.getY());
             }
 
@@ -13,6 +13,7 @@ import meteordevelopment.meteorclient.renderer.MeshRenderer;
 import meteordevelopment.meteorclient.renderer.MeteorRenderPipelines;
 import meteordevelopment.meteorclient.utils.render.color.Color;
 import net.minecraft.client.MinecraftClient;
+import net.minecraft.client.gui.DrawContext;
 
 public class GuiDebugRenderer {
     private static final Color CELL_COLOR = new Color(25, 225, 25);
@@ -34,6 +35,14 @@ public class GuiDebugRenderer {
             .end();
     }
 
+    /**
+     * Draws the amount of widgets measured this frame in the top left corner.
+     */
+    public void renderStats(DrawContext drawContext, int measuredWidgets) {
+        MinecraftClient mc = MinecraftClient.getInstance();
+        drawContext.drawTextWithShadow(mc.textRenderer, "Measured widgets: " + measuredWidgets, 2, 2, 0xFFFFFFFF);
+    }
+
     private void renderWidget(WWidget widget) {
         lineBox(widget.x, widget.y, widget.width, widget.height, WIDGET_COLOR);
 
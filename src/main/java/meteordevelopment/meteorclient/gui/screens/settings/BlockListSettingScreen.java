@@ -6,6 +6,7 @@
 package meteordevelopment.meteorclient.gui.screens.settings;
 
 import meteordevelopment.meteorclient.gui.GuiTheme;
+import meteordevelopment.meteorclient.gui.widgets.WItemWithLabel;
 import meteordevelopment.meteorclient.gui.widgets.WWidget;
 import meteordevelopment.meteorclient.mixin.IdentifierAccessor;
 import meteordevelopment.meteorclient.settings.BlockListSetting;
@@ -39,6 +40,14 @@ public class BlockListSettingScreen extends CollectionListSettingScreen<Block> {
         return theme.itemWithLabel(value.asItem().getDefaultStack(), getValueName(value));
     }
 
+    @Override
+    protected boolean updateValueWidget(WWidget widget, Block value) {
+        if (!(widget instanceof WItemWithLabel itemWithLabel)) return false;
+
+        itemWithLabel.set(value.asItem().getDefaultStack(), getValueName(value));
+        return true;
+    }
+
     @Override
     protected String getValueName(Block value) {
         return Names.get(value);
@@ -5,21 +5,25 @@
 
 package meteordevelopment.meteorclient.gui.screens.settings;
 
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
 import meteordevelopment.meteorclient.gui.GuiTheme;
 import meteordevelopment.meteorclient.gui.WindowScreen;
-import meteordevelopment.meteorclient.gui.utils.Cell;
+import meteordevelopment.meteorclient.gui.widgets.WLabel;
 import meteordevelopment.meteorclient.gui.widgets.WWidget;
 import meteordevelopment.meteorclient.gui.widgets.containers.WTable;
+import meteordevelopment.meteorclient.gui.widgets.containers.WView;
+import meteordevelopment.meteorclient.gui.widgets.containers.WVirtualList;
 import meteordevelopment.meteorclient.gui.widgets.input.WTextBox;
 import meteordevelopment.meteorclient.gui.widgets.pressable.WPressable;
 import meteordevelopment.meteorclient.settings.Setting;
 import meteordevelopment.meteorclient.utils.Utils;
-import net.minecraft.util.Pair;
 
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Locale;
 import java.util.function.Consumer;
 
 public abstract class CollectionListSettingScreen<T> extends WindowScreen {
@@ -30,7 +34,12 @@ public abstract class CollectionListSettingScreen<T> extends WindowScreen {
     private WTextBox filter;
     private String filterText = "";
 
-    private WTable table;
+    // Shown registry values with their lowercased names, built once when the screen is opened
+    private List<T> values;
+    private String[] names;
+    private final Object2IntMap<T> nameIndices = new Object2IntOpenHashMap<>();
+
+    private WVirtualList<T, ValueRow> left, right;
 
     public CollectionListSettingScreen(GuiTheme theme, String title, Setting<?> setting, Collection<T> collection, Iterable<T> registry) {
         super(theme, title);
@@ -38,102 +47,139 @@ public abstract class CollectionListSettingScreen<T> extends WindowScreen {
         this.registry = registry;
         this.setting = setting;
         this.collection = collection;
+
+        nameIndices.defaultReturnValue(-1);
     }
 
     @Override
     public void initWidgets() {
+        if (values == null) indexValues();
+
         // Filter
         filter = add(theme.textBox("")).minWidth(400).expandX().widget();
         filter.setFocused(true);
         filter.action = () -> {
             filterText = filter.get().trim();
-
-            table.clear();
-            initWidgets(registry);
+            updateLists();
         };
 
-        table = add(theme.table()).expandX().widget();
+        WTable table = add(theme.table()).expandX().widget();
 
-        initWidgets(registry);
-    }
-
-    private void initWidgets(Iterable<T> registry) {
         // Left (all)
-        WTable left = abc(pairs -> registry.forEach(t -> {
-            if (skipValue(t) || collection.contains(t)) return;
-
-            int words = Utils.searchInWords(getValueName(t), filterText);
-            int diff = Utils.searchLevenshteinDefault(getValueName(t), filterText, false);
-            if (words > 0 || diff <= getValueName(t).length() / 2) pairs.add(new Pair<>(t, -diff));
-        }), true, t -> {
-            addValue(registry, t);
+        left = list(table, true, t -> {
+            addValue(t);
 
             T v = getAdditionalValue(t);
-            if (v != null) addValue(registry, v);
+            if (v != null) addValue(v);
         });
 
-        if (!left.cells.isEmpty()) table.add(theme.verticalSeparator()).expandWidgetY();
+        table.add(theme.verticalSeparator()).expandWidgetY();
 
         // Right (selected)
-        abc(pairs -> {
-            for (T value : collection) {
-                if (skipValue(value)) continue;
-
-                int words = Utils.searchInWords(getValueName(value), filterText);
-                int diff = Utils.searchLevenshteinDefault(getValueName(value), filterText, false);
-                if (words > 0 || diff <= getValueName(value).length() / 2) pairs.add(new Pair<>(value, -diff));
-            }
-        }, false, t -> {
-            removeValue(registry, t);
+        right = list(table, false, t -> {
+            removeValue(t);
 
             T v = getAdditionalValue(t);
-            if (v != null) removeValue(registry, v);
+            if (v != null) removeValue(v);
         });
+
+        updateLists();
     }
 
-    private void addValue(Iterable<T> registry, T value) {
+    private void indexValues() {
+        values = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+
+        for (T value : registry) {
+            if (skipValue(value) || !includeValue(value)) continue;
+
+            nameIndices.put(value, values.size());
+            values.add(value);
+            names.add(getValueName(value).toLowerCase(Locale.ROOT));
+        }
+
+        this.names = names.toArray(new String[0]);
+    }
+
+    private WVirtualList<T, ValueRow> list(WTable table, boolean isLeft, Consumer<T> buttonAction) {
+        WView view = table.add(theme.view()).top().expandX().widget();
+        view.maxHeight -= theme.scale(40);
+
+        return view.add(theme.virtualList(() -> new ValueRow(isLeft, buttonAction), ValueRow::bind)).expandX().widget();
+    }
+
+    private void addValue(T value) {
         if (!collection.contains(value)) {
             collection.add(value);
 
             setting.onChanged();
-            table.clear();
-            initWidgets(registry);
+            updateLists();
         }
     }
 
-    private void removeValue(Iterable<T> registry, T value) {
+    private void removeValue(T value) {
         if (collection.remove(value)) {
             setting.onChanged();
-            table.clear();
-            initWidgets(registry);
+            updateLists();
         }
     }
 
-    private WTable abc(Consumer<List<Pair<T, Integer>>> addValues, boolean isLeft, Consumer<T> buttonAction) {
-        // Create
-        Cell<WTable> cell = this.table.add(theme.table()).top();
-        WTable table = cell.widget();
+    private void updateLists() {
+        String filter = filterText.toLowerCase(Locale.ROOT);
+        String[] words = filter.split(" ");
 
-        Consumer<T> forEach = t -> {
-            if (!includeValue(t)) return;
+        List<Match<T>> leftMatches = new ArrayList<>();
 
-            table.add(getValueWidget(t));
+        for (int i = 0; i < values.size(); i++) {
+            T value = values.get(i);
+            if (collection.contains(value)) continue;
 
-            WPressable button = table.add(isLeft ? theme.plus() : theme.minus()).expandCellX().right().widget();
-            button.action = () -> buttonAction.accept(t);
+            int diff = match(names[i], filter, words);
+            if (diff != -1) leftMatches.add(new Match<>(value, diff));
+        }
 
-            table.row();
-        };
+        List<Match<T>> rightMatches = new ArrayList<>();
+
+        for (T value : collection) {
+            if (skipValue(value) || !includeValue(value)) continue;
+
+            int i = nameIndices.getInt(value);
+            String name = i != -1 ? names[i] : getValueName(value).toLowerCase(Locale.ROOT);
+
+            int diff = match(name, filter, words);
+            if (diff != -1) rightMatches.add(new Match<>(value, diff));
+        }
 
-        // Sort
-        List<Pair<T, Integer>> values = new ArrayList<>();
-        addValues.accept(values);
-        if (!filterText.isEmpty()) values.sort(Comparator.comparingInt(value -> -value.getRight()));
-        for (Pair<T, Integer> pair : values) forEach.accept(pair.getLeft());
+        left.setValues(sort(leftMatches));
+        right.setValues(sort(rightMatches));
+    }
+
+    /**
+     * @return Levenshtein distance between the lowercased name and filter, or -1 if the name does not match
+     */
+    private static int match(String name, String filter, String[] words) {
+        if (filter.isEmpty()) return 0;
 
-        if (!table.cells.isEmpty()) cell.expandX();
+        boolean containsWords = true;
 
-        return table;
+        for (String word : words) {
+            if (!name.contains(word)) {
+                containsWords = false;
+                break;
+            }
+        }
+
+        int diff = Utils.searchLevenshteinDefault(name, filter, true);
+        return containsWords || diff <= name.length() / 2 ? diff : -1;
+    }
+
+    private List<T> sort(List<Match<T>> matches) {
+        if (!filterText.isEmpty()) matches.sort(Comparator.comparingInt(Match::diff));
+
+        List<T> values = new ArrayList<>(matches.size());
+        for (Match<T> match : matches) values.add(match.value());
+
+        return values;
     }
 
     protected boolean includeValue(T value) {
@@ -142,6 +188,21 @@ public abstract class CollectionListSettingScreen<T> extends WindowScreen {
 
     protected abstract WWidget getValueWidget(T value);
 
+    /**
+     * Shows another value in a widget created by {@link #getValueWidget(Object)}, so rows scrolled into view don't
+     * need new widgets. The default handles labels showing {@link #getValueName(Object)}.
+     *
+     * @return {@code false} if the widget can't show the value and has to be replaced
+     */
+    protected boolean updateValueWidget(WWidget widget, T value) {
+        if (widget instanceof WLabel label) {
+            label.set(getValueName(value));
+            return true;
+        }
+
+        return false;
+    }
+
     protected abstract String getValueName(T value);
 
     protected boolean skipValue(T value) {
@@ -151,4 +212,34 @@ public abstract class CollectionListSettingScreen<T> extends WindowScreen {
     protected T getAdditionalValue(T value) {
         return null;
     }
+
+    private record Match<T>(T value, int diff) {}
+
+    /**
+     * Pooled row of a list, keeps its value widget and button when it is bound to another value.
+     */
+    private class ValueRow extends WTable {
+        private final boolean isLeft;
+        private final Consumer<T> buttonAction;
+
+        private T value;
+        private WWidget valueWidget;
+
+        public ValueRow(boolean isLeft, Consumer<T> buttonAction) {
+            this.isLeft = isLeft;
+            this.buttonAction = buttonAction;
+        }
+
+        public void bind(T value) {
+            this.value = value;
+
+            if (valueWidget != null && updateValueWidget(valueWidget, value)) return;
+
+            clear();
+            valueWidget = add(getValueWidget(value)).widget();
+
+            WPressable button = add(isLeft ? theme.plus() : theme.minus()).expandCellX().right().widget();
+            button.action = () -> buttonAction.accept(this.value);
+        }
+    }
 }
@@ -6,6 +6,7 @@
 package meteordevelopment.meteorclient.gui.screens.settings;
 
 import meteordevelopment.meteorclient.gui.GuiTheme;
+import meteordevelopment.meteorclient.gui.widgets.WItemWithLabel;
 import meteordevelopment.meteorclient.gui.widgets.WWidget;
 import meteordevelopment.meteorclient.settings.ItemListSetting;
 import meteordevelopment.meteorclient.utils.misc.Names;
@@ -33,6 +34,14 @@ public class ItemListSettingScreen extends CollectionListSettingScreen<Item> {
         return theme.itemWithLabel(value.getDefaultStack());
     }
 
+    @Override
+    protected boolean updateValueWidget(WWidget widget, Item value) {
+        if (!(widget instanceof WItemWithLabel itemWithLabel)) return false;
+
+        itemWithLabel.set(value.getDefaultStack(), getValueName(value));
+        return true;
+    }
+
     @Override
     protected String getValueName(Item value) {
         return Names.get(value);
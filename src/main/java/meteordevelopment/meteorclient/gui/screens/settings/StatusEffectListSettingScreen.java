@@ -6,6 +6,7 @@
 package meteordevelopment.meteorclient.gui.screens.settings;
 
 import meteordevelopment.meteorclient.gui.GuiTheme;
+import meteordevelopment.meteorclient.gui.widgets.WItemWithLabel;
 import meteordevelopment.meteorclient.gui.widgets.WWidget;
 import meteordevelopment.meteorclient.settings.Setting;
 import meteordevelopment.meteorclient.utils.misc.Names;
@@ -29,6 +30,14 @@ public class StatusEffectListSettingScreen extends CollectionListSettingScreen<S
         return theme.itemWithLabel(getPotionStack(value), getValueName(value));
     }
 
+    @Override
+    protected boolean updateValueWidget(WWidget widget, StatusEffect value) {
+        if (!(widget instanceof WItemWithLabel itemWithLabel)) return false;
+
+        itemWithLabel.set(getPotionStack(value), getValueName(value));
+        return true;
+    }
+
     @Override
     protected String getValueName(StatusEffect value) {
         return Names.get(value);
@@ -7,6 +7,7 @@ package meteordevelopment.meteorclient.gui.screens.settings;
 
 import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
 import meteordevelopment.meteorclient.gui.GuiTheme;
+import meteordevelopment.meteorclient.gui.widgets.WItemWithLabel;
 import meteordevelopment.meteorclient.gui.widgets.WWidget;
 import meteordevelopment.meteorclient.settings.Setting;
 import meteordevelopment.meteorclient.settings.StorageBlockListSetting;
@@ -51,6 +52,14 @@ public class StorageBlockListSettingScreen extends CollectionListSettingScreen<B
         return theme.itemWithLabel(item.getDefaultStack(), getValueName(value));
     }
 
+    @Override
+    protected boolean updateValueWidget(WWidget widget, BlockEntityType<?> value) {
+        if (!(widget instanceof WItemWithLabel itemWithLabel)) return false;
+
+        itemWithLabel.set(BLOCK_ENTITY_TYPE_INFO_MAP.getOrDefault(value, UNKNOWN).item().getDefaultStack(), getValueName(value));
+        return true;
+    }
+
     @Override
     protected String getValueName(BlockEntityType<?> value) {
         return BLOCK_ENTITY_TYPE_INFO_MAP.getOrDefault(value, UNKNOWN).name();
@@ -54,10 +54,14 @@ public class WItemWithLabel extends WHorizontalList {
     }
 
     public void set(ItemStack itemStack) {
+        set(itemStack, Names.get(itemStack));
+    }
+
+    public void set(ItemStack itemStack, String name) {
         this.itemStack = itemStack;
         item.itemStack = itemStack;
 
-        name = Names.get(itemStack);
+        this.name = name;
         label.set(name + getStringToAppend());
     }
 
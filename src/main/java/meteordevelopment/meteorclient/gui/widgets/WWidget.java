@@ -10,6 +10,8 @@ import meteordevelopment.meteorclient.gui.renderer.GuiRenderer;
 import meteordevelopment.meteorclient.gui.utils.BaseWidget;
 
 public abstract class WWidget implements BaseWidget {
+    private static int measuredWidgets;
+
     public boolean visible = true;
     public GuiTheme theme;
 
@@ -23,6 +25,9 @@ public abstract class WWidget implements BaseWidget {
     public boolean mouseOver;
     protected double mouseOverTimer;
 
+    // Whether this widget or only some of its descendants need to be measured again, see updateSize()
+    private boolean layoutDirty = true, childLayoutDirty;
+
     public void init() {}
 
     public void move(double deltaX, double deltaY) {
@@ -42,6 +47,10 @@ public abstract class WWidget implements BaseWidget {
     // Layout
 
     public void calculateSize() {
+        measure();
+    }
+
+    private void measure() {
         onCalculateSize();
 
         double minWidth = theme.scale(this.minWidth);
@@ -49,6 +58,36 @@ public abstract class WWidget implements BaseWidget {
 
         width = Math.round(width);
         height = Math.round(height);
+
+        layoutDirty = false;
+        childLayoutDirty = false;
+        measuredWidgets++;
+    }
+
+    /**
+     * Measures widgets that were invalidated since they were last measured, and the ancestors of them whose children
+     * changed size. Unlike {@link #calculateSize()} widgets which did not change keep their size.
+     * @return Whether the size of this widget changed
+     */
+    public boolean updateSize() {
+        double preWidth = width;
+        double preHeight = height;
+
+        if (layoutDirty) calculateSize();
+        else if (childLayoutDirty) {
+            childLayoutDirty = false;
+            if (updateChildrenSize()) measure();
+        }
+
+        return width != preWidth || height != preHeight;
+    }
+
+    /**
+     * Calls {@link #updateSize()} on all children.
+     * @return Whether the size of any of them changed
+     */
+    protected boolean updateChildrenSize() {
+        return false;
     }
 
     protected void onCalculateSize() {
@@ -126,10 +165,33 @@ public abstract class WWidget implements BaseWidget {
     // Other
 
     public void invalidate() {
+        markLayoutDirty();
+
         WWidget root = getRoot();
         if (root != null) root.invalidate();
     }
 
+    /**
+     * Marks this widget to be measured again by the next {@link #updateSize()} without notifying the root.
+     */
+    protected void markLayoutDirty() {
+        layoutDirty = true;
+
+        for (WWidget widget = parent; widget != null && !widget.childLayoutDirty; widget = widget.parent) {
+            widget.childLayoutDirty = true;
+        }
+    }
+
+    /**
+     * @return Amount of widgets measured since the last call
+     */
+    public static int resetMeasuredWidgets() {
+        int measured = measuredWidgets;
+        measuredWidgets = 0;
+
+        return measured;
+    }
+
     protected WWidget getRoot() {
         return parent != null ? parent.getRoot() : (this instanceof WRoot ? this : null);
     }
@@ -28,6 +28,7 @@ public abstract class WContainer extends WWidget {
         cells.add(cell);
 
         widget.init();
+        markLayoutDirty();
         invalidate();
 
         return cell;
@@ -36,12 +37,16 @@ public abstract class WContainer extends WWidget {
     public void clear() {
         if (!cells.isEmpty()) {
             cells.clear();
+            markLayoutDirty();
             invalidate();
         }
     }
 
     public void remove(Cell<?> cell) {
-        if (cells.remove(cell)) invalidate();
+        if (cells.remove(cell)) {
+            markLayoutDirty();
+            invalidate();
+        }
     }
 
     @Override
@@ -67,6 +72,17 @@ public abstract class WContainer extends WWidget {
         super.calculateSize();
     }
 
+    @Override
+    protected boolean updateChildrenSize() {
+        boolean changed = false;
+
+        for (Cell<?> cell : cells) {
+            if (cell.widget().updateSize()) changed = true;
+        }
+
+        return changed;
+    }
+
     @Override
     protected void onCalculateSize() {
         width = 0;
@@ -0,0 +1,209 @@
+/*
+ * This file is part of the Meteor Client distribution (https://github.com/MeteorDevelopment/meteor-client).
+ * Copyright (c) Meteor Development.
+ */
+
+package meteordevelopment.meteorclient.gui.widgets.containers;
+
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import meteordevelopment.meteorclient.gui.renderer.GuiRenderer;
+import meteordevelopment.meteorclient.gui.utils.Cell;
+import meteordevelopment.meteorclient.gui.widgets.WWidget;
+import net.minecraft.client.Mouse;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+import static meteordevelopment.meteorclient.MeteorClient.mc;
+import static meteordevelopment.meteorclient.utils.Utils.getWindowHeight;
+
+/**
+ * Vertical list of equally tall rows which only has widgets for the rows that can be seen. Meant to be put in a
+ * {@link WView}, rows scrolled out of it are given back to a pool and bound to other values by the row binder. Rows are
+ * detached while being bound so changing them does not invalidate the screen.
+ */
+public class WVirtualList<T, W extends WWidget> extends WContainer {
+    public double spacing = 3;
+
+    private final Supplier<W> rowFactory;
+    private final BiConsumer<W, T> rowBinder;
+
+    private List<T> values = List.of();
+
+    private final Int2ObjectMap<Cell<W>> visibleRows = new Int2ObjectOpenHashMap<>();
+    private final ArrayDeque<W> pool = new ArrayDeque<>();
+    private int first, last = -1;
+
+    private double rowWidth, rowHeight;
+
+    public WVirtualList(Supplier<W> rowFactory, BiConsumer<W, T> rowBinder) {
+        this.rowFactory = rowFactory;
+        this.rowBinder = rowBinder;
+    }
+
+    public void setValues(List<T> values) {
+        for (Cell<W> cell : visibleRows.values()) release(cell.widget());
+
+        visibleRows.clear();
+        cells.clear();
+        first = 0;
+        last = -1;
+
+        this.values = values;
+        rowWidth = 0;
+
+        invalidate();
+    }
+
+    public List<T> getValues() {
+        return values;
+    }
+
+    protected double spacing() {
+        return theme.scale(spacing);
+    }
+
+    private double stride() {
+        return rowHeight + spacing();
+    }
+
+    // Rows
+
+    private W obtain(T value) {
+        W row = pool.poll();
+
+        if (row == null) {
+            row = rowFactory.get();
+            row.theme = theme;
+            row.init();
+        }
+
+        rowBinder.accept(row, value);
+        row.calculateSize();
+
+        return row;
+    }
+
+    private void release(W row) {
+        row.parent = null;
+        pool.push(row);
+    }
+
+    /**
+     * Binds rows to the values which are inside the view and gives back the others.
+     */
+    private void updateVisibleRows() {
+        double top = 0;
+        double bottom = getWindowHeight();
+
+        for (WWidget widget = parent; widget != null; widget = widget.parent) {
+            if (widget instanceof WView view) {
+                top = view.y;
+                bottom = view.y + view.height;
+                break;
+            }
+        }
+
+        int first = 0, last = -1;
+
+        if (!values.isEmpty() && rowHeight > 0) {
+            first = Math.max(0, (int) Math.floor((top - y) / stride()));
+            last = Math.min(values.size() - 1, (int) Math.floor((bottom - y) / stride()));
+        }
+
+        if (first == this.first && last == this.last) return;
+
+        for (Iterator<Int2ObjectMap.Entry<Cell<W>>> it = visibleRows.int2ObjectEntrySet().iterator(); it.hasNext(); ) {
+            Int2ObjectMap.Entry<Cell<W>> entry = it.next();
+
+            if (entry.getIntKey() < first || entry.getIntKey() > last) {
+                release(entry.getValue().widget());
+                it.remove();
+            }
+        }
+
+        boolean wider = false;
+        Mouse mouse = mc.mouse;
+
+        for (int i = first; i <= last; i++) {
+            if (visibleRows.containsKey(i)) continue;
+
+            W row = obtain(values.get(i));
+            row.parent = this;
+
+            if (row.width > rowWidth) {
+                rowWidth = row.width;
+                wider = true;
+            }
+
+            Cell<W> cell = new Cell<>(row).expandX();
+            visibleRows.put(i, cell);
+
+            positionRow(cell, i);
+            row.calculateWidgetPositions();
+            row.mouseMoved(mouse.getX(), mouse.getY(), mouse.getX(), mouse.getY());
+        }
+
+        // Kept in order, rendering stops at the first row below the screen
+        cells.clear();
+        for (int i = first; i <= last; i++) cells.add(visibleRows.get(i));
+
+        this.first = first;
+        this.last = last;
+
+        if (wider) invalidate();
+    }
+
+    private void positionRow(Cell<W> cell, int i) {
+        cell.x = x;
+        cell.y = y + i * stride();
+
+        cell.width = width;
+        cell.height = rowHeight;
+
+        cell.alignWidget();
+    }
+
+    // Layout
+
+    @Override
+    protected void onCalculateSize() {
+        // Rows are measured when they are bound, only the first one has to be bound just for its size
+        if (rowHeight == 0 && !values.isEmpty()) {
+            W row = obtain(values.getFirst());
+
+            rowWidth = Math.max(rowWidth, row.width);
+            rowHeight = row.height;
+
+            release(row);
+        }
+
+        for (Cell<W> cell : visibleRows.values()) {
+            rowWidth = Math.max(rowWidth, cell.widget().width);
+            rowHeight = Math.max(rowHeight, cell.widget().height);
+        }
+
+        width = rowWidth;
+        height = values.isEmpty() ? 0 : values.size() * stride() - spacing();
+    }
+
+    @Override
+    protected void onCalculateWidgetPositions() {
+        for (Int2ObjectMap.Entry<Cell<W>> entry : visibleRows.int2ObjectEntrySet()) {
+            positionRow(entry.getValue(), entry.getIntKey());
+        }
+    }
+
+    // Rendering
+
+    @Override
+    public boolean render(GuiRenderer renderer, double mouseX, double mouseY, double delta) {
+        if (visible) updateVisibleRows();
+
+        return super.render(renderer, mouseX, mouseY, delta);
+    }
+}
@@ -17,6 +17,7 @@ import meteordevelopment.meteorclient.events.packets.ContainerSlotUpdateEvent;
 import meteordevelopment.meteorclient.events.packets.InventoryEvent;
 import meteordevelopment.meteorclient.events.packets.PlaySoundPacketEvent;
 import meteordevelopment.meteorclient.events.world.ChunkDataEvent;
+import meteordevelopment.meteorclient.events.world.ChunkUnloadEvent;
 import meteordevelopment.meteorclient.mixininterface.IExplosionS2CPacket;
 import meteordevelopment.meteorclient.pathing.BaritoneUtils;
 import meteordevelopment.meteorclient.systems.config.Config;
@@ -100,6 +101,11 @@ public abstract class ClientPlayNetworkHandlerMixin extends ClientCommonNetworkH
         MeteorClient.EVENT_BUS.post(new ChunkDataEvent(chunk));
     }
 
+    @Inject(method = "onUnloadChunk", at = @At("TAIL"))
+    private void onUnloadChunk(UnloadChunkS2CPacket packet, CallbackInfo info) {
+        MeteorClient.EVENT_BUS.post(new ChunkUnloadEvent(packet.pos()));
+    }
+
     @Inject(method = "onScreenHandlerSlotUpdate", at = @At("TAIL"))
     private void onContainerSlotUpdate(ScreenHandlerSlotUpdateS2CPacket packet, CallbackInfo info) {
         MeteorClient.EVENT_BUS.post(ContainerSlotUpdateEvent.get(packet));
@@ -16,6 +16,7 @@ import meteordevelopment.meteorclient.events.render.RenderAfterWorldEvent;
 import meteordevelopment.meteorclient.mixininterface.IVec3d;
 import meteordevelopment.meteorclient.renderer.MeteorRenderPipelines;
 import meteordevelopment.meteorclient.renderer.Renderer3D;
+import meteordevelopment.meteorclient.systems.config.Config;
 import meteordevelopment.meteorclient.systems.modules.Modules;
 import meteordevelopment.meteorclient.systems.modules.player.LiquidInteract;
 import meteordevelopment.meteorclient.systems.modules.player.NoMiningTrace;
@@ -37,6 +38,7 @@ import net.minecraft.item.Items;
 import net.minecraft.util.hit.EntityHitResult;
 import net.minecraft.util.hit.HitResult;
 import net.minecraft.util.profiler.Profilers;
+import org.joml.FrustumIntersection;
 import org.joml.Matrix4f;
 import org.spongepowered.asm.mixin.Final;
 import org.spongepowered.asm.mixin.Mixin;
@@ -71,6 +73,12 @@ public abstract class GameRendererMixin {
     @Unique
     private final MatrixStack matrices = new MatrixStack();
 
+    @Unique
+    private final Matrix4f viewProjection = new Matrix4f();
+
+    @Unique
+    private final FrustumIntersection frustum = new FrustumIntersection();
+
     @Shadow
     protected abstract void bobView(MatrixStack matrices, float tickDelta);
 
@@ -85,9 +93,15 @@ public abstract class GameRendererMixin {
 
         // Create renderer and event
 
-        if (renderer == null) renderer = new Renderer3D(MeteorRenderPipelines.WORLD_COLORED_LINES, MeteorRenderPipelines.WORLD_COLORED);
-        if (depthRenderer == null) depthRenderer = new Renderer3D(MeteorRenderPipelines.WORLD_COLORED_LINES_DEPTH, MeteorRenderPipelines.WORLD_COLORED_DEPTH);
-        Render3DEvent event = Render3DEvent.get(matrixStack, renderer, depthRenderer, tickDelta, camera.getPos().x, camera.getPos().y, camera.getPos().z);
+        if (renderer == null) renderer = new Renderer3D(MeteorRenderPipelines.WORLD_COLORED_LINES, MeteorRenderPipelines.WORLD_COLORED, MeteorRenderPipelines.WORLD_INSTANCED_BOX_LINES, MeteorRenderPipelines.WORLD_INSTANCED_BOXES);
+        if (depthRenderer == null) depthRenderer = new Renderer3D(MeteorRenderPipelines.WORLD_COLORED_LINES_DEPTH, MeteorRenderPipelines.WORLD_COLORED_DEPTH, MeteorRenderPipelines.WORLD_INSTANCED_BOX_LINES_DEPTH, MeteorRenderPipelines.WORLD_INSTANCED_BOXES_DEPTH);
+        frustum.set(viewProjection.set(projection).mul(view));
+        Render3DEvent event = Render3DEvent.get(matrixStack, renderer, depthRenderer, tickDelta, camera.getPos().x, camera.getPos().y, camera.getPos().z, frustum);
+
+        Config config = Config.get();
+        FrustumIntersection culling = config.renderCulling.get() ? frustum : null;
+        renderer.setCulling(culling, view, camera.getPos().x, camera.getPos().y, camera.getPos().z, config.renderLodDistance.get());
+        depthRenderer.setCulling(culling, view, camera.getPos().x, camera.getPos().y, camera.getPos().z, config.renderLodDistance.get());
 
         // Call utility classes
 
@@ -14,9 +14,10 @@ import meteordevelopment.meteorclient.renderer.text.FontFamily;
 import meteordevelopment.meteorclient.renderer.text.FontInfo;
 import meteordevelopment.meteorclient.systems.config.Config;
 import meteordevelopment.meteorclient.utils.PreInit;
+import meteordevelopment.meteorclient.utils.network.MeteorExecutor;
+import meteordevelopment.meteorclient.utils.render.FontIndex;
 import meteordevelopment.meteorclient.utils.render.FontUtils;
 
-import java.io.File;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
@@ -32,24 +33,48 @@ public class Fonts {
     public static final List<FontFamily> FONT_FAMILIES = new ArrayList<>();
     public static CustomTextRenderer RENDERER;
 
+    private static int scanId;
+
     private Fonts() {
     }
 
-    @PreInit
+    /**
+     * Loads the builtin fonts and the system fonts known from the {@link FontIndex}, the system font directories are
+     * then scanned in the background and the font list is replaced once it's done. Without an index the scan runs
+     * right away since the configured font has to be known before the config loads.
+     */
+    @PreInit(dependencies = MeteorExecutor.class)
     public static void refresh() {
-        FONT_FAMILIES.clear();
+        int scan = ++scanId;
+
+        FontIndex index = FontIndex.load();
+        List<FontFamily> builtins = new ArrayList<>();
 
         for (String builtinFont : BUILTIN_FONTS) {
-            FontUtils.loadBuiltin(FONT_FAMILIES, builtinFont);
+            FontUtils.loadBuiltin(builtins, builtinFont);
         }
 
-        for (String fontPath : FontUtils.getSearchPaths()) {
-            FontUtils.loadSystem(FONT_FAMILIES, new File(fontPath));
-        }
+        List<FontFamily> families = new ArrayList<>(builtins);
 
-        FONT_FAMILIES.sort(Comparator.comparing(FontFamily::getName));
+        if (index.isEmpty()) {
+            FontUtils.loadSystem(families, index).save();
+        }
+        else {
+            FontUtils.loadIndexed(families, index);
+
+            MeteorExecutor.execute(() -> {
+                // Builtin families are shared, system fonts are never added to them
+                List<FontFamily> scanned = new ArrayList<>(builtins);
+                FontUtils.loadSystem(scanned, index).save();
+
+                mc.execute(() -> {
+                    // Dropped if the fonts were refreshed again in the meantime
+                    if (scan == scanId) setFamilies(scanned);
+                });
+            });
+        }
 
-        MeteorClient.LOG.info("Found {} font families.", FONT_FAMILIES.size());
+        setFamilies(families);
 
         DEFAULT_FONT_FAMILY = FontUtils.getBuiltinFontInfo(BUILTIN_FONTS[1]).family();
         DEFAULT_FONT = getFamily(DEFAULT_FONT_FAMILY).get(FontInfo.Type.Regular);
@@ -58,6 +83,15 @@ public class Fonts {
         load(config != null ? config.font.get() : DEFAULT_FONT);
     }
 
+    private static void setFamilies(List<FontFamily> families) {
+        families.sort(Comparator.comparing(FontFamily::getName));
+
+        FONT_FAMILIES.clear();
+        FONT_FAMILIES.addAll(families);
+
+        MeteorClient.LOG.info("Found {} font families.", FONT_FAMILIES.size());
+    }
+
     public static void load(FontFace fontFace) {
         if (RENDERER != null) {
             if (RENDERER.fontFace.equals(fontFace)) return;
@@ -0,0 +1,228 @@
+/*
+ * This file is part of the Meteor Client distribution (https://github.com/MeteorDevelopment/meteor-client).
+ * Copyright (c) Meteor Development.
+ */
+
+package meteordevelopment.meteorclient.renderer;
+
+import com.mojang.blaze3d.buffers.GpuBuffer;
+import com.mojang.blaze3d.pipeline.RenderPipeline;
+import com.mojang.blaze3d.systems.RenderSystem;
+import meteordevelopment.meteorclient.utils.Utils;
+import meteordevelopment.meteorclient.utils.render.color.Color;
+import meteordevelopment.meteorclient.utils.world.Dir;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.client.util.math.MatrixStack;
+import net.minecraft.util.math.Vec3d;
+
+import java.nio.ByteBuffer;
+
+import static meteordevelopment.meteorclient.MeteorClient.mc;
+import static org.lwjgl.system.MemoryUtil.*;
+
+/**
+ * Boxes drawn by instancing a static unit cube. Every box only writes {@link #INSTANCE_SIZE} bytes into a texel buffer
+ * which the {@code instanced_box} shader reads with {@code gl_InstanceID}, laid out as 9 RGBA8 texels:
+ * <ul>
+ *     <li>0 - 2: min corner as float bits, relative to the camera on the x and z axis like {@link MeshBuilder}</li>
+ *     <li>3 - 5: size as float bits</li>
+ *     <li>6: side color</li>
+ *     <li>7: line color</li>
+ *     <li>8: excluded {@link Dir} faces, shape mode bits (1 lines, 2 sides)</li>
+ * </ul>
+ * The unit cube vertices store the {@link Dir} faces they belong to in their red channel, geometry of excluded faces
+ * and disabled shape modes is moved outside of the clip volume by the shader.
+ */
+public class InstancedBoxes {
+    public static final int INSTANCE_SIZE = 9 * 4;
+
+    private static RetainedMesh sidesMesh, linesMesh;
+
+    private final RenderPipeline linesPipeline;
+    private final RenderPipeline sidesPipeline;
+
+    private ByteBuffer instances = MeshArena.allocate(256 * INSTANCE_SIZE);
+    private long instancesPointer;
+    private int count;
+
+    private GpuBuffer instanceBuffer;
+
+    private boolean building;
+    private double cameraX, cameraZ;
+
+    public InstancedBoxes(RenderPipeline lines, RenderPipeline sides) {
+        this.linesPipeline = lines;
+        this.sidesPipeline = sides;
+    }
+
+    public void begin() {
+        if (building) throw new IllegalStateException("InstancedBoxes.begin() called while already building.");
+
+        instancesPointer = memAddress0(instances);
+        count = 0;
+        building = true;
+
+        if (Utils.rendering3D) {
+            Vec3d camera = mc.gameRenderer.getCamera().getPos();
+
+            cameraX = camera.x;
+            cameraZ = camera.z;
+        }
+        else {
+            cameraX = 0;
+            cameraZ = 0;
+        }
+    }
+
+    public void box(double x1, double y1, double z1, double x2, double y2, double z2, Color sideColor, Color lineColor, ShapeMode mode, int excludeDir) {
+        ensureCapacity();
+
+        long p = instancesPointer;
+
+        memPutFloat(p, (float) (x1 - cameraX));
+        memPutFloat(p + 4, (float) y1);
+        memPutFloat(p + 8, (float) (z1 - cameraZ));
+
+        memPutFloat(p + 12, (float) (x2 - x1));
+        memPutFloat(p + 16, (float) (y2 - y1));
+        memPutFloat(p + 20, (float) (z2 - z1));
+
+        putColor(p + 24, sideColor);
+        putColor(p + 28, lineColor);
+
+        memPutByte(p + 32, (byte) excludeDir);
+        memPutByte(p + 33, (byte) ((mode.lines() ? 1 : 0) | (mode.sides() ? 2 : 0)));
+        memPutShort(p + 34, (short) 0);
+
+        instancesPointer += INSTANCE_SIZE;
+        count++;
+    }
+
+    private static void putColor(long p, Color c) {
+        memPutByte(p, (byte) c.r);
+        memPutByte(p + 1, (byte) c.g);
+        memPutByte(p + 2, (byte) c.b);
+        memPutByte(p + 3, (byte) c.a);
+    }
+
+    private void ensureCapacity() {
+        int offset = (int) (instancesPointer - memAddress0(instances));
+        if (offset + INSTANCE_SIZE <= instances.capacity()) return;
+
+        ByteBuffer newInstances = MeshArena.allocate(instances.capacity() * 2);
+        memCopy(memAddress0(instances), memAddress0(newInstances), offset);
+
+        MeshArena.free(instances);
+        instances = newInstances;
+        instancesPointer = memAddress0(instances) + offset;
+    }
+
+    public void end() {
+        if (!building) throw new IllegalStateException("InstancedBoxes.end() called while not building.");
+
+        building = false;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public void render(MatrixStack matrices) {
+        if (building) end();
+        if (count == 0) return;
+
+        int size = count * INSTANCE_SIZE;
+
+        // Upload instances, the buffer is only recreated when it needs to grow
+        if (instanceBuffer == null || instanceBuffer.size() < size) {
+            if (instanceBuffer != null) instanceBuffer.close();
+
+            instanceBuffer = RenderSystem.getDevice().createBuffer(() -> "Meteor Instanced Boxes", GpuBuffer.USAGE_UNIFORM_TEXEL_BUFFER | GpuBuffer.USAGE_COPY_DST, instances.capacity());
+        }
+
+        instances.limit(size);
+        RenderSystem.getDevice().createCommandEncoder().writeToBuffer(instanceBuffer.slice(0, size), instances);
+        instances.clear();
+
+        if (linesMesh == null) createMeshes();
+
+        MeshRenderer.begin()
+            .attachments(MinecraftClient.getInstance().getFramebuffer())
+            .pipeline(linesPipeline)
+            .mesh(linesMesh, matrices.peek().getPositionMatrix())
+            .uniform("u_Instances", instanceBuffer.slice(0, size))
+            .instances(count)
+            .end();
+
+        MeshRenderer.begin()
+            .attachments(MinecraftClient.getInstance().getFramebuffer())
+            .pipeline(sidesPipeline)
+            .mesh(sidesMesh, matrices.peek().getPositionMatrix())
+            .uniform("u_Instances", instanceBuffer.slice(0, size))
+            .instances(count)
+            .end();
+    }
+
+    // Unit cube
+
+    private static void createMeshes() {
+        MeshBuilder sides = new MeshBuilder(MeteorRenderPipelines.WORLD_INSTANCED_BOXES);
+        sides.begin(0, 0);
+
+        face(sides, Dir.WEST, 0, 0, 0, 0, 0, 1, 0, 1, 1, 0, 1, 0);
+        face(sides, Dir.EAST, 1, 0, 0, 1, 1, 0, 1, 1, 1, 1, 0, 1);
+        face(sides, Dir.NORTH, 0, 0, 0, 0, 1, 0, 1, 1, 0, 1, 0, 0);
+        face(sides, Dir.SOUTH, 0, 0, 1, 1, 0, 1, 1, 1, 1, 0, 1, 1);
+        face(sides, Dir.DOWN, 0, 0, 0, 1, 0, 0, 1, 0, 1, 0, 0, 1);
+        face(sides, Dir.UP, 0, 1, 0, 0, 1, 1, 1, 1, 1, 1, 1, 0);
+
+        sidesMesh = new RetainedMesh("Meteor Instanced Box Sides");
+        sidesMesh.upload(sides);
+
+        MeshBuilder lines = new MeshBuilder(MeteorRenderPipelines.WORLD_INSTANCED_BOX_LINES);
+        lines.begin(0, 0);
+
+        // Bottom to top
+        edge(lines, Dir.WEST | Dir.NORTH, 0, 0, 0, 0, 1, 0);
+        edge(lines, Dir.WEST | Dir.SOUTH, 0, 0, 1, 0, 1, 1);
+        edge(lines, Dir.EAST | Dir.NORTH, 1, 0, 0, 1, 1, 0);
+        edge(lines, Dir.EAST | Dir.SOUTH, 1, 0, 1, 1, 1, 1);
+
+        // Bottom loop
+        edge(lines, Dir.WEST | Dir.DOWN, 0, 0, 0, 0, 0, 1);
+        edge(lines, Dir.EAST | Dir.DOWN, 1, 0, 0, 1, 0, 1);
+        edge(lines, Dir.NORTH | Dir.DOWN, 0, 0, 0, 1, 0, 0);
+        edge(lines, Dir.SOUTH | Dir.DOWN, 0, 0, 1, 1, 0, 1);
+
+        // Top loop
+        edge(lines, Dir.WEST | Dir.UP, 0, 1, 0, 0, 1, 1);
+        edge(lines, Dir.EAST | Dir.UP, 1, 1, 0, 1, 1, 1);
+        edge(lines, Dir.NORTH | Dir.UP, 0, 1, 0, 1, 1, 0);
+        edge(lines, Dir.SOUTH | Dir.UP, 0, 1, 1, 1, 1, 1);
+
+        linesMesh = new RetainedMesh("Meteor Instanced Box Lines");
+        linesMesh.upload(lines);
+    }
+
+    private static void face(MeshBuilder mesh, int dir, int x1, int y1, int z1, int x2, int y2, int z2, int x3, int y3, int z3, int x4, int y4, int z4) {
+        Color color = new Color(dir, 0, 0, 255);
+        mesh.ensureQuadCapacity();
+
+        mesh.quad(
+            mesh.vec3(x1, y1, z1).color(color).next(),
+            mesh.vec3(x2, y2, z2).color(color).next(),
+            mesh.vec3(x3, y3, z3).color(color).next(),
+            mesh.vec3(x4, y4, z4).color(color).next()
+        );
+    }
+
+    private static void edge(MeshBuilder mesh, int dirs, int x1, int y1, int z1, int x2, int y2, int z2) {
+        Color color = new Color(dirs, 255, 0, 255);
+        mesh.ensureLineCapacity();
+
+        mesh.line(
+            mesh.vec3(x1, y1, z1).color(color).next(),
+            mesh.vec3(x2, y2, z2).color(color).next()
+        );
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * This file is part of the Meteor Client distribution (https://github.com/MeteorDevelopment/meteor-client).
+ * Copyright (c) Meteor Development.
+ */
+
+package meteordevelopment.meteorclient.renderer;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+
+import static org.lwjgl.system.MemoryUtil.memAlloc;
+import static org.lwjgl.system.MemoryUtil.memFree;
+
+/**
+ * Native memory shared by all {@link MeshBuilder}s. Blocks are allocated with {@code memAlloc} in power of two size
+ * classes and must be returned with {@link #free(ByteBuffer)}. Returned blocks are kept for reuse until
+ * {@link #MAX_POOLED_BYTES} are pooled, anything above that is freed right away so a single large frame does not keep
+ * its memory around.
+ */
+public class MeshArena {
+    private static final int MIN_SHIFT = 10;
+    private static final int MAX_SHIFT = 30;
+
+    private static final long MAX_POOLED_BYTES = 32L * 1024 * 1024;
+
+    @SuppressWarnings("unchecked")
+    private static final ArrayDeque<ByteBuffer>[] POOL = new ArrayDeque[MAX_SHIFT - MIN_SHIFT + 1];
+
+    private static long bytesInUse, peakBytesInUse, bytesPooled;
+
+    static {
+        for (int i = 0; i < POOL.length; i++) POOL[i] = new ArrayDeque<>();
+    }
+
+    private MeshArena() {
+    }
+
+    /**
+     * @return A cleared block of at least the given size, its capacity is the size of its class
+     */
+    public static synchronized ByteBuffer allocate(int size) {
+        int shift = sizeClass(size);
+        ByteBuffer buffer = POOL[shift - MIN_SHIFT].poll();
+
+        if (buffer != null) bytesPooled -= buffer.capacity();
+        else buffer = memAlloc(1 << shift);
+
+        bytesInUse += buffer.capacity();
+        if (bytesInUse > peakBytesInUse) peakBytesInUse = bytesInUse;
+
+        return buffer.clear();
+    }
+
+    /**
+     * Returns a block obtained from {@link #allocate(int)}, the buffer must not be used afterwards.
+     */
+    public static synchronized void free(ByteBuffer buffer) {
+        bytesInUse -= buffer.capacity();
+
+        if (bytesPooled + buffer.capacity() > MAX_POOLED_BYTES) {
+            memFree(buffer);
+            return;
+        }
+
+        POOL[sizeClass(buffer.capacity()) - MIN_SHIFT].push(buffer);
+        bytesPooled += buffer.capacity();
+    }
+
+    /**
+     * Frees all pooled blocks, blocks still in use are not affected.
+     */
+    public static synchronized void trim() {
+        for (ArrayDeque<ByteBuffer> blocks : POOL) {
+            for (ByteBuffer buffer : blocks) memFree(buffer);
+            blocks.clear();
+        }
+
+        bytesPooled = 0;
+    }
+
+    private static int sizeClass(int size) {
+        int shift = Math.max(MIN_SHIFT, 32 - Integer.numberOfLeadingZeros(Math.max(size, 1) - 1));
+        if (shift > MAX_SHIFT) throw new IllegalArgumentException("MeshArena block of " + size + " bytes is too large.");
+
+        return shift;
+    }
+
+    // Stats
+
+    /**
+     * @return Bytes of blocks currently borrowed
+     */
+    public static synchronized long getBytesInUse() {
+        return bytesInUse;
+    }
+
+    /**
+     * @return Highest amount of bytes borrowed at once
+     */
+    public static synchronized long getPeakBytesInUse() {
+        return peakBytesInUse;
+    }
+
+    /**
+     * @return Bytes of returned blocks kept for reuse
+     */
+    public static synchronized long getBytesPooled() {
+        return bytesPooled;
+    }
+}
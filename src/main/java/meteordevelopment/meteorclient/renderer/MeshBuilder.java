@@ -7,21 +7,34 @@ package meteordevelopment.meteorclient.renderer;
 
 import com.mojang.blaze3d.buffers.GpuBuffer;
 import com.mojang.blaze3d.pipeline.RenderPipeline;
+import com.mojang.blaze3d.systems.RenderSystem;
 import com.mojang.blaze3d.vertex.VertexFormat;
 import meteordevelopment.meteorclient.utils.Utils;
 import meteordevelopment.meteorclient.utils.render.color.Color;
 import net.fabricmc.loader.api.FabricLoader;
 import net.minecraft.util.math.Vec3d;
-import org.lwjgl.BufferUtils;
 
 import java.nio.ByteBuffer;
 
 import static meteordevelopment.meteorclient.MeteorClient.mc;
 import static org.lwjgl.system.MemoryUtil.*;
 
-public class MeshBuilder {
+/**
+ * Builds vertices and indices into native memory borrowed from the {@link MeshArena}. Buffers are kept across builds
+ * and given back to the arena when a builder used much less than its capacity for {@link #SHRINK_INTERVAL} builds in a
+ * row, or when it is {@link #close() closed}.
+ * <p>
+ * Indices are written as shorts while the mesh has at most {@link #MAX_SHORT_VERTICES} vertices and widened to ints
+ * once it gets more. Triangle meshes made only of quads whose vertices were added in order don't write indices at all
+ * and are drawn with the shared sequential quad index buffer instead.
+ */
+public class MeshBuilder implements AutoCloseable {
     private static final boolean DEBUG = FabricLoader.getInstance().isDevelopmentEnvironment() || Boolean.getBoolean("meteor.render.debug");
 
+    private static final int SHRINK_INTERVAL = 300;
+    private static final int INITIAL_VERTICES = 256 * 4, INITIAL_INDICES = 512 * 4;
+    private static final int MAX_SHORT_VERTICES = 65536;
+
     public double alpha = 1;
 
     private final VertexFormat format;
@@ -35,6 +48,9 @@ public class MeshBuilder {
     private long indicesPointer;
 
     private int vertexI, indicesCount;
+    private boolean shortIndices, sequentialQuads;
+
+    private int buildsSinceShrink, usedVerticesBytes, usedIndicesBytes;
 
     private boolean building;
     private double cameraX, cameraZ;
@@ -55,24 +71,33 @@ public class MeshBuilder {
     }
 
     public void begin() {
+        if (Utils.rendering3D) {
+            Vec3d camera = mc.gameRenderer.getCamera().getPos();
+            begin(camera.x, camera.z);
+        }
+        else begin(0, 0);
+    }
+
+    /**
+     * Begins a mesh whose vertices are stored relative to the given origin instead of the camera, used for meshes
+     * that are kept across frames and translated when drawn.
+     */
+    public void begin(double originX, double originZ) {
         if (building) throw new IllegalStateException("Mesh.begin() called while already building.");
 
+        if (vertices != null) shrink();
+
         verticesPointer = verticesPointerStart;
         vertexI = 0;
         indicesCount = 0;
 
-        building = true;
+        shortIndices = true;
+        sequentialQuads = primitiveIndicesCount == 3;
 
-        if (Utils.rendering3D) {
-            Vec3d camera = mc.gameRenderer.getCamera().getPos();
+        building = true;
 
-            cameraX = camera.x;
-            cameraZ = camera.z;
-        }
-        else {
-            cameraX = 0;
-            cameraZ = 0;
-        }
+        cameraX = originX;
+        cameraZ = originZ;
     }
 
     public MeshBuilder vec3(double x, double y, double z) {
@@ -120,11 +145,20 @@ public class MeshBuilder {
 
     public void line(int i1, int i2) {
         debugIndexBufferCapacity();
+        if (sequentialQuads) writeSequentialQuads();
 
-        long p = indicesPointer + indicesCount * 4L;
+        if (shortIndices) {
+            long p = indicesPointer + indicesCount * 2L;
 
-        memPutInt(p, i1);
-        memPutInt(p + 4, i2);
+            memPutShort(p, (short) i1);
+            memPutShort(p + 2, (short) i2);
+        }
+        else {
+            long p = indicesPointer + indicesCount * 4L;
+
+            memPutInt(p, i1);
+            memPutInt(p + 4, i2);
+        }
 
         indicesCount += 2;
     }
@@ -132,31 +166,93 @@ public class MeshBuilder {
     public void quad(int i1, int i2, int i3, int i4) {
         debugIndexBufferCapacity();
 
-        long p = indicesPointer + indicesCount * 4L;
+        if (sequentialQuads) {
+            int first = indicesCount / 6 * 4;
 
-        memPutInt(p, i1);
-        memPutInt(p + 4, i2);
-        memPutInt(p + 8, i3);
+            if (i1 == first && i2 == first + 1 && i3 == first + 2 && i4 == first + 3) {
+                indicesCount += 6;
+                return;
+            }
 
-        memPutInt(p + 12, i3);
-        memPutInt(p + 16, i4);
-        memPutInt(p + 20, i1);
+            writeSequentialQuads();
+        }
 
+        putQuad(indicesCount, i1, i2, i3, i4);
         indicesCount += 6;
     }
 
+    private void putQuad(int index, int i1, int i2, int i3, int i4) {
+        if (shortIndices) {
+            long p = indicesPointer + index * 2L;
+
+            memPutShort(p, (short) i1);
+            memPutShort(p + 2, (short) i2);
+            memPutShort(p + 4, (short) i3);
+
+            memPutShort(p + 6, (short) i3);
+            memPutShort(p + 8, (short) i4);
+            memPutShort(p + 10, (short) i1);
+        }
+        else {
+            long p = indicesPointer + index * 4L;
+
+            memPutInt(p, i1);
+            memPutInt(p + 4, i2);
+            memPutInt(p + 8, i3);
+
+            memPutInt(p + 12, i3);
+            memPutInt(p + 16, i4);
+            memPutInt(p + 20, i1);
+        }
+    }
+
     public void triangle(int i1, int i2, int i3) {
         debugIndexBufferCapacity();
+        if (sequentialQuads) writeSequentialQuads();
+
+        if (shortIndices) {
+            long p = indicesPointer + indicesCount * 2L;
 
-        long p = indicesPointer + indicesCount * 4L;
+            memPutShort(p, (short) i1);
+            memPutShort(p + 2, (short) i2);
+            memPutShort(p + 4, (short) i3);
+        }
+        else {
+            long p = indicesPointer + indicesCount * 4L;
 
-        memPutInt(p, i1);
-        memPutInt(p + 4, i2);
-        memPutInt(p + 8, i3);
+            memPutInt(p, i1);
+            memPutInt(p + 4, i2);
+            memPutInt(p + 8, i3);
+        }
 
         indicesCount += 3;
     }
 
+    /**
+     * Writes the indices of the quads that were skipped so far, the mesh stops using the shared quad index buffer.
+     */
+    private void writeSequentialQuads() {
+        sequentialQuads = false;
+
+        for (int index = 0, first = 0; index < indicesCount; index += 6, first += 4) {
+            putQuad(index, first, first + 1, first + 2, first + 3);
+        }
+    }
+
+    /**
+     * Converts the indices written so far to ints, the buffer always has room for them since capacity is ensured for
+     * int indices.
+     */
+    private void widenIndices() {
+        shortIndices = false;
+        if (sequentialQuads) return;
+
+        // Backwards so no short is overwritten before it is read
+        for (int i = indicesCount - 1; i >= 0; i--) {
+            memPutInt(indicesPointer + i * 4L, memGetShort(indicesPointer + i * 2L) & 0xFFFF);
+        }
+    }
+
     public void ensureQuadCapacity() {
         ensureCapacity(4, 6);
     }
@@ -175,16 +271,20 @@ public class MeshBuilder {
         }
 
         if (vertices == null || indices == null) {
-            allocateBuffers(256 * 4, 512 * 4);
-            return;
+            allocateBuffers(Math.max(INITIAL_VERTICES, vertexCount + 1), Math.max(INITIAL_INDICES, indexCount + 1));
+        }
+
+        if (shortIndices && vertexI + vertexCount > MAX_SHORT_VERTICES) {
+            widenIndices();
         }
 
         if ((vertexI + vertexCount) * primitiveVerticesSize >= vertices.capacity()) {
             int offset = getVerticesOffset();
             int newSize = Math.max(vertices.capacity() * 2, vertices.capacity() + vertexCount * primitiveVerticesSize);
-            ByteBuffer newVertices = BufferUtils.createByteBuffer(newSize);
+            ByteBuffer newVertices = MeshArena.allocate(newSize);
             memCopy(memAddress0(vertices), memAddress0(newVertices), offset);
 
+            MeshArena.free(vertices);
             vertices = newVertices;
             verticesPointerStart = memAddress0(vertices);
             verticesPointer = verticesPointerStart + offset;
@@ -193,22 +293,58 @@ public class MeshBuilder {
         if ((indicesCount + indexCount) * Integer.BYTES >= indices.capacity()) {
             int newSize = Math.max(indices.capacity() * 2, indices.capacity() + indexCount * Integer.BYTES);
 
-            ByteBuffer newIndices = BufferUtils.createByteBuffer(newSize);
+            ByteBuffer newIndices = MeshArena.allocate(newSize);
             memCopy(memAddress0(indices), memAddress0(newIndices), indicesCount * 4L);
 
+            MeshArena.free(indices);
             indices = newIndices;
             indicesPointer = memAddress0(indices);
         }
     }
 
     private void allocateBuffers(int vertexCount, int indexCount) {
-        vertices = BufferUtils.createByteBuffer(primitiveVerticesSize * vertexCount);
+        vertices = MeshArena.allocate(primitiveVerticesSize * vertexCount);
         verticesPointer = verticesPointerStart = memAddress0(vertices);
 
-        indices = BufferUtils.createByteBuffer(indexCount * Integer.BYTES);
+        indices = MeshArena.allocate(indexCount * Integer.BYTES);
         indicesPointer = memAddress0(indices);
     }
 
+    /**
+     * Gives the buffers back to the arena when the last {@link #SHRINK_INTERVAL} builds used less than a quarter of
+     * them, the next build then starts again from the initial size.
+     */
+    private void shrink() {
+        usedVerticesBytes = Math.max(usedVerticesBytes, getVerticesOffset());
+        usedIndicesBytes = Math.max(usedIndicesBytes, indicesCount * Integer.BYTES);
+
+        if (++buildsSinceShrink < SHRINK_INTERVAL) return;
+
+        boolean oversized = vertices.capacity() > INITIAL_VERTICES * primitiveVerticesSize && usedVerticesBytes < vertices.capacity() / 4
+            || indices.capacity() > INITIAL_INDICES * Integer.BYTES && usedIndicesBytes < indices.capacity() / 4;
+
+        if (oversized) close();
+
+        buildsSinceShrink = 0;
+        usedVerticesBytes = 0;
+        usedIndicesBytes = 0;
+    }
+
+    /**
+     * Gives the buffers back to the arena, they are borrowed again the next time capacity is ensured.
+     */
+    @Override
+    public void close() {
+        if (building) throw new IllegalStateException("Mesh.close() called while building.");
+
+        if (vertices != null) MeshArena.free(vertices);
+        if (indices != null) MeshArena.free(indices);
+
+        vertices = null;
+        indices = null;
+        verticesPointerStart = verticesPointer = indicesPointer = 0;
+    }
+
     public void end() {
         if (!building) throw new IllegalStateException("Mesh.end() called while not building.");
 
@@ -220,13 +356,29 @@ public class MeshBuilder {
     }
 
     public GpuBuffer getVertexBuffer() {
-        vertices.limit(getVerticesOffset());
-        return format.uploadImmediateVertexBuffer(vertices);
+        return format.uploadImmediateVertexBuffer(getVertexData());
     }
 
     public GpuBuffer getIndexBuffer() {
-        indices.limit(indicesCount * Integer.BYTES);
-        return format.uploadImmediateIndexBuffer(indices);
+        if (sequentialQuads) return RenderSystem.getSequentialBuffer(VertexFormat.DrawMode.QUADS).getIndexBuffer(indicesCount);
+        return format.uploadImmediateIndexBuffer(getIndexData());
+    }
+
+    public VertexFormat.IndexType getIndexType() {
+        if (sequentialQuads) return RenderSystem.getSequentialBuffer(VertexFormat.DrawMode.QUADS).getIndexType();
+        return shortIndices ? VertexFormat.IndexType.SHORT : VertexFormat.IndexType.INT;
+    }
+
+    ByteBuffer getVertexData() {
+        vertices.limit(getVerticesOffset());
+        return vertices;
+    }
+
+    ByteBuffer getIndexData() {
+        if (sequentialQuads) writeSequentialQuads();
+
+        indices.limit(indicesCount * (shortIndices ? Short.BYTES : Integer.BYTES));
+        return indices;
     }
 
     public int getIndicesCount() {
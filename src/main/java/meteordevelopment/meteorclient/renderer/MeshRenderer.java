@@ -37,7 +37,9 @@ public class MeshRenderer {
     private Color clearColor;
     private RenderPipeline pipeline;
     private MeshBuilder mesh;
+    private RetainedMesh retainedMesh;
     private Matrix4f matrix;
+    private int instances = 1;
     private final HashMap<String, GpuBufferSlice> uniforms = new HashMap<>();
     private final HashMap<String, GpuTextureView> samplers = new HashMap<>();
 
@@ -90,11 +92,22 @@ public class MeshRenderer {
         return this;
     }
 
+    public MeshRenderer mesh(RetainedMesh mesh, Matrix4f matrix) {
+        this.retainedMesh = mesh;
+        this.matrix = matrix;
+        return this;
+    }
+
     public MeshRenderer uniform(String name, GpuBufferSlice slice) {
         uniforms.put(name, slice);
         return this;
     }
 
+    public MeshRenderer instances(int instances) {
+        this.instances = instances;
+        return this;
+    }
+
     public MeshRenderer sampler(String name, GpuTextureView view) {
         if (name != null && view != null) {
             samplers.put(name, view);
@@ -104,11 +117,13 @@ public class MeshRenderer {
     }
 
     public void end() {
-        if (mesh.isBuilding()) {
+        if (mesh != null && mesh.isBuilding()) {
             mesh.end();
         }
 
-        if (mesh.getIndicesCount() > 0) {
+        int indicesCount = mesh != null ? mesh.getIndicesCount() : retainedMesh.getIndicesCount();
+
+        if (indicesCount > 0 && instances > 0) {
             if (Utils.rendering3D || matrix != null) {
                 RenderSystem.getModelViewStack().pushMatrix();
             }
@@ -121,8 +136,9 @@ public class MeshRenderer {
                 applyCameraPos();
             }
 
-            GpuBuffer vertexBuffer = mesh.getVertexBuffer();
-            GpuBuffer indexBuffer = mesh.getIndexBuffer();
+            GpuBuffer vertexBuffer = mesh != null ? mesh.getVertexBuffer() : retainedMesh.getVertexBuffer();
+            GpuBuffer indexBuffer = mesh != null ? mesh.getIndexBuffer() : retainedMesh.getIndexBuffer();
+            VertexFormat.IndexType indexType = mesh != null ? mesh.getIndexType() : retainedMesh.getIndexType();
 
             {
                 OptionalInt clearColor = this.clearColor != null ?
@@ -147,8 +163,8 @@ public class MeshRenderer {
                 }
 
                 pass.setVertexBuffer(0, vertexBuffer);
-                pass.setIndexBuffer(indexBuffer, VertexFormat.IndexType.INT);
-                pass.drawIndexed(0, 0, mesh.getIndicesCount(), 1);
+                pass.setIndexBuffer(indexBuffer, indexType);
+                pass.drawIndexed(0, 0, indicesCount, instances);
 
                 pass.close();
             }
@@ -163,7 +179,9 @@ public class MeshRenderer {
         clearColor = null;
         pipeline = null;
         mesh = null;
+        retainedMesh = null;
         matrix = null;
+        instances = 1;
         uniforms.clear();
         samplers.clear();
 
@@ -10,6 +10,7 @@ import com.mojang.blaze3d.pipeline.RenderPipeline;
 import com.mojang.blaze3d.platform.DepthTestFunction;
 import com.mojang.blaze3d.systems.GpuDevice;
 import com.mojang.blaze3d.systems.RenderSystem;
+import com.mojang.blaze3d.textures.TextureFormat;
 import com.mojang.blaze3d.vertex.VertexFormat;
 import meteordevelopment.meteorclient.MeteorClient;
 import net.minecraft.client.gl.UniformType;
@@ -84,6 +85,62 @@ public abstract class MeteorRenderPipelines {
         .build()
     );
 
+    // World, instanced
+
+    public static final RenderPipeline WORLD_INSTANCED_BOXES = add(new ExtendedRenderPipelineBuilder(MESH_UNIFORMS)
+        .withLocation(MeteorClient.identifier("pipeline/world_instanced_boxes"))
+        .withVertexFormat(VertexFormats.POSITION_COLOR, VertexFormat.DrawMode.TRIANGLES)
+        .withVertexShader(MeteorClient.identifier("shaders/instanced_box.vert"))
+        .withFragmentShader(MeteorClient.identifier("shaders/pos_color.frag"))
+        .withUniform("u_Instances", UniformType.TEXEL_BUFFER, TextureFormat.RGBA8)
+        .withDepthTestFunction(DepthTestFunction.NO_DEPTH_TEST)
+        .withDepthWrite(false)
+        .withBlend(BlendFunction.TRANSLUCENT)
+        .withCull(false)
+        .build()
+    );
+
+    public static final RenderPipeline WORLD_INSTANCED_BOX_LINES = add(new ExtendedRenderPipelineBuilder(MESH_UNIFORMS)
+        .withLineSmooth()
+        .withLocation(MeteorClient.identifier("pipeline/world_instanced_box_lines"))
+        .withVertexFormat(VertexFormats.POSITION_COLOR, VertexFormat.DrawMode.DEBUG_LINES)
+        .withVertexShader(MeteorClient.identifier("shaders/instanced_box.vert"))
+        .withFragmentShader(MeteorClient.identifier("shaders/pos_color.frag"))
+        .withUniform("u_Instances", UniformType.TEXEL_BUFFER, TextureFormat.RGBA8)
+        .withDepthTestFunction(DepthTestFunction.NO_DEPTH_TEST)
+        .withDepthWrite(false)
+        .withBlend(BlendFunction.TRANSLUCENT)
+        .withCull(false)
+        .build()
+    );
+
+    public static final RenderPipeline WORLD_INSTANCED_BOXES_DEPTH = add(new ExtendedRenderPipelineBuilder(MESH_UNIFORMS)
+        .withLocation(MeteorClient.identifier("pipeline/world_instanced_boxes_depth"))
+        .withVertexFormat(VertexFormats.POSITION_COLOR, VertexFormat.DrawMode.TRIANGLES)
+        .withVertexShader(MeteorClient.identifier("shaders/instanced_box.vert"))
+        .withFragmentShader(MeteorClient.identifier("shaders/pos_color.frag"))
+        .withUniform("u_Instances", UniformType.TEXEL_BUFFER, TextureFormat.RGBA8)
+        .withDepthTestFunction(DepthTestFunction.LEQUAL_DEPTH_TEST)
+        .withDepthWrite(false)
+        .withBlend(BlendFunction.TRANSLUCENT)
+        .withCull(false)
+        .build()
+    );
+
+    public static final RenderPipeline WORLD_INSTANCED_BOX_LINES_DEPTH = add(new ExtendedRenderPipelineBuilder(MESH_UNIFORMS)
+        .withLineSmooth()
+        .withLocation(MeteorClient.identifier("pipeline/world_instanced_box_lines_depth"))
+        .withVertexFormat(VertexFormats.POSITION_COLOR, VertexFormat.DrawMode.DEBUG_LINES)
+        .withVertexShader(MeteorClient.identifier("shaders/instanced_box.vert"))
+        .withFragmentShader(MeteorClient.identifier("shaders/pos_color.frag"))
+        .withUniform("u_Instances", UniformType.TEXEL_BUFFER, TextureFormat.RGBA8)
+        .withDepthTestFunction(DepthTestFunction.LEQUAL_DEPTH_TEST)
+        .withDepthWrite(false)
+        .withBlend(BlendFunction.TRANSLUCENT)
+        .withCull(false)
+        .build()
+    );
+
     // UI
 
     public static final RenderPipeline UI_COLORED = add(new ExtendedRenderPipelineBuilder(MESH_UNIFORMS)
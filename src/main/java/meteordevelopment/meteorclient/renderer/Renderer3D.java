@@ -12,23 +12,162 @@ import net.minecraft.client.MinecraftClient;
 import net.minecraft.client.util.math.MatrixStack;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.Box;
+import org.joml.FrustumIntersection;
+import org.joml.Matrix4f;
 
 public class Renderer3D {
+    // Boxes slightly outside the frustum are kept, view bobbing is not part of the captured matrices
+    private static final float CULL_MARGIN = 1;
+
     public final MeshBuilder lines;
     public final MeshBuilder triangles;
     private final RenderPipeline linesPipeline;
     private final RenderPipeline trianglesPipeline;
+    private final InstancedBoxes instanced;
+
+    private FrustumIntersection frustum;
+    private double cameraX, cameraY, cameraZ;
+    private double lodDistanceSq;
+    private float rightX, rightY, rightZ, upX, upY, upZ;
+
+    private boolean retained;
+    private int submitted, culled, reduced;
 
     public Renderer3D(RenderPipeline lines, RenderPipeline triangles) {
+        this(lines, triangles, null, null);
+    }
+
+    /**
+     * @param instancedLines Line pipeline used by {@link #instancedBox}, see {@link InstancedBoxes}
+     * @param instancedSides Triangle pipeline used by {@link #instancedBox}, see {@link InstancedBoxes}
+     */
+    public Renderer3D(RenderPipeline lines, RenderPipeline triangles, RenderPipeline instancedLines, RenderPipeline instancedSides) {
         this.lines = new MeshBuilder(lines);
         this.triangles = new MeshBuilder(triangles);
         this.linesPipeline = lines;
         this.trianglesPipeline = triangles;
+        this.instanced = instancedLines != null && instancedSides != null ? new InstancedBoxes(instancedLines, instancedSides) : null;
     }
 
     public void begin() {
         lines.begin();
         triangles.begin();
+        if (instanced != null) instanced.begin();
+
+        retained = false;
+
+        submitted = 0;
+        culled = 0;
+        reduced = 0;
+    }
+
+    /**
+     * Begins building geometry relative to the given origin, see {@link MeshBuilder#begin(double, double)}. Culling
+     * and LOD are disabled since such geometry is kept across frames.
+     */
+    public void begin(double originX, double originZ) {
+        lines.begin(originX, originZ);
+        triangles.begin(originX, originZ);
+
+        retained = true;
+        frustum = null;
+        lodDistanceSq = 0;
+    }
+
+    /**
+     * Enables culling of boxes and sides outside the frustum for the geometry built this frame.
+     * @param frustum Frustum relative to the camera position, {@code null} disables culling
+     * @param view View matrix used to face collapsed boxes towards the camera
+     * @param lodDistance Boxes further away than this are collapsed to a single camera facing quad, 0 to disable
+     */
+    public void setCulling(FrustumIntersection frustum, Matrix4f view, double cameraX, double cameraY, double cameraZ, double lodDistance) {
+        this.frustum = frustum;
+        this.cameraX = cameraX;
+        this.cameraY = cameraY;
+        this.cameraZ = cameraZ;
+        this.lodDistanceSq = lodDistance * lodDistance;
+
+        rightX = view.m00();
+        rightY = view.m10();
+        rightZ = view.m20();
+        upX = view.m01();
+        upY = view.m11();
+        upZ = view.m21();
+    }
+
+    /**
+     * @return Amount of boxes and sides submitted since {@link #begin()}
+     */
+    public int getSubmitted() {
+        return submitted;
+    }
+
+    /**
+     * @return Amount of submitted boxes and sides that were outside the frustum and not written
+     */
+    public int getCulled() {
+        return culled;
+    }
+
+    /**
+     * @return Amount of submitted boxes that were collapsed by the distance LOD
+     */
+    public int getReduced() {
+        return reduced;
+    }
+
+    private boolean cull(double x1, double y1, double z1, double x2, double y2, double z2) {
+        submitted++;
+        if (frustum == null) return false;
+
+        float minX = (float) (Math.min(x1, x2) - cameraX) - CULL_MARGIN;
+        float minY = (float) (Math.min(y1, y2) - cameraY) - CULL_MARGIN;
+        float minZ = (float) (Math.min(z1, z2) - cameraZ) - CULL_MARGIN;
+        float maxX = (float) (Math.max(x1, x2) - cameraX) + CULL_MARGIN;
+        float maxY = (float) (Math.max(y1, y2) - cameraY) + CULL_MARGIN;
+        float maxZ = (float) (Math.max(z1, z2) - cameraZ) + CULL_MARGIN;
+
+        if (frustum.testAab(minX, minY, minZ, maxX, maxY, maxZ)) return false;
+
+        culled++;
+        return true;
+    }
+
+    private boolean isFar(double x1, double y1, double z1, double x2, double y2, double z2) {
+        if (!isBeyondLod(x1, y1, z1, x2, y2, z2)) return false;
+
+        reduced++;
+        return true;
+    }
+
+    private boolean isBeyondLod(double x1, double y1, double z1, double x2, double y2, double z2) {
+        if (lodDistanceSq <= 0) return false;
+
+        double dx = (x1 + x2) / 2 - cameraX;
+        double dy = (y1 + y2) / 2 - cameraY;
+        double dz = (z1 + z2) / 2 - cameraZ;
+
+        return dx * dx + dy * dy + dz * dz > lodDistanceSq;
+    }
+
+    /**
+     * Writes the 4 corners of a camera facing square covering the box and returns the index of the first one.
+     */
+    private int billboard(MeshBuilder mesh, double x1, double y1, double z1, double x2, double y2, double z2, Color color) {
+        double x = (x1 + x2) / 2;
+        double y = (y1 + y2) / 2;
+        double z = (z1 + z2) / 2;
+        double size = Math.max(Math.abs(x2 - x1), Math.max(Math.abs(y2 - y1), Math.abs(z2 - z1))) / 2;
+
+        double rx = rightX * size, ry = rightY * size, rz = rightZ * size;
+        double ux = upX * size, uy = upY * size, uz = upZ * size;
+
+        int i = mesh.vec3(x - rx - ux, y - ry - uy, z - rz - uz).color(color).next();
+        mesh.vec3(x - rx + ux, y - ry + uy, z - rz + uz).color(color).next();
+        mesh.vec3(x + rx + ux, y + ry + uy, z + rz + uz).color(color).next();
+        mesh.vec3(x + rx - ux, y + ry - uy, z + rz - uz).color(color).next();
+
+        return i;
     }
 
     public void render(MatrixStack matrices) {
@@ -43,6 +182,8 @@ public class Renderer3D {
             .pipeline(trianglesPipeline)
             .mesh(triangles, matrices)
             .end();
+
+        if (instanced != null && !retained) instanced.render(matrices);
     }
 
     // Lines
@@ -62,6 +203,19 @@ public class Renderer3D {
 
     @SuppressWarnings("Duplicates")
     public void boxLines(double x1, double y1, double z1, double x2, double y2, double z2, Color color, int excludeDir) {
+        if (cull(x1, y1, z1, x2, y2, z2)) return;
+
+        if (isFar(x1, y1, z1, x2, y2, z2)) {
+            lines.ensureCapacity(4, 8);
+
+            int i = billboard(lines, x1, y1, z1, x2, y2, z2, color);
+            lines.line(i, i + 1);
+            lines.line(i + 1, i + 2);
+            lines.line(i + 2, i + 3);
+            lines.line(i + 3, i);
+            return;
+        }
+
         lines.ensureCapacity(8, 24);
 
         int blb = lines.vec3(x1, y1, z1).color(color).next();
@@ -150,6 +304,11 @@ public class Renderer3D {
 
     @SuppressWarnings("Duplicates")
     public void side(double x1, double y1, double z1, double x2, double y2, double z2, double x3, double y3, double z3, double x4, double y4, double z4, Color sideColor, Color lineColor, ShapeMode mode) {
+        if (cull(
+            Math.min(Math.min(x1, x2), Math.min(x3, x4)), Math.min(Math.min(y1, y2), Math.min(y3, y4)), Math.min(Math.min(z1, z2), Math.min(z3, z4)),
+            Math.max(Math.max(x1, x2), Math.max(x3, x4)), Math.max(Math.max(y1, y2), Math.max(y3, y4)), Math.max(Math.max(z1, z2), Math.max(z3, z4))
+        )) return;
+
         if (mode.lines()) {
             lines.ensureCapacity(4, 8);
 
@@ -181,6 +340,16 @@ public class Renderer3D {
 
     @SuppressWarnings("Duplicates")
     public void boxSides(double x1, double y1, double z1, double x2, double y2, double z2, Color color, int excludeDir) {
+        if (cull(x1, y1, z1, x2, y2, z2)) return;
+
+        if (isFar(x1, y1, z1, x2, y2, z2)) {
+            triangles.ensureQuadCapacity();
+
+            int i = billboard(triangles, x1, y1, z1, x2, y2, z2, color);
+            triangles.quad(i, i + 1, i + 2, i + 3);
+            return;
+        }
+
         triangles.ensureCapacity(8, 36);
 
         int blb = triangles.vec3(x1, y1, z1).color(color).next();
@@ -238,4 +407,30 @@ public class Renderer3D {
         if (mode.lines()) boxLines(box.minX, box.minY, box.minZ, box.maxX, box.maxY, box.maxZ, lineColor, excludeDir);
         if (mode.sides()) boxSides(box.minX, box.minY, box.minZ, box.maxX, box.maxY, box.maxZ, sideColor, excludeDir);
     }
+
+    // Instanced boxes
+
+    /**
+     * Same as {@link #box(double, double, double, double, double, double, Color, Color, ShapeMode, int)} but only writes
+     * a single instance instead of the whole box geometry, prefer it for large amounts of boxes. Falls back to
+     * {@link #box(double, double, double, double, double, double, Color, Color, ShapeMode, int)} when this renderer has
+     * no instanced pipelines, builds geometry relative to an origin or the box is collapsed by the distance LOD.
+     */
+    public void instancedBox(double x1, double y1, double z1, double x2, double y2, double z2, Color sideColor, Color lineColor, ShapeMode mode, int excludeDir) {
+        if (instanced == null || retained || (mode.sides() && isBeyondLod(x1, y1, z1, x2, y2, z2))) {
+            box(x1, y1, z1, x2, y2, z2, sideColor, lineColor, mode, excludeDir);
+            return;
+        }
+
+        if (cull(x1, y1, z1, x2, y2, z2)) return;
+        instanced.box(x1, y1, z1, x2, y2, z2, sideColor, lineColor, mode, excludeDir);
+    }
+
+    public void instancedBox(BlockPos pos, Color sideColor, Color lineColor, ShapeMode mode, int excludeDir) {
+        instancedBox(pos.getX(), pos.getY(), pos.getZ(), pos.getX() + 1, pos.getY() + 1, pos.getZ() + 1, sideColor, lineColor, mode, excludeDir);
+    }
+
+    public void instancedBox(Box box, Color sideColor, Color lineColor, ShapeMode mode, int excludeDir) {
+        instancedBox(box.minX, box.minY, box.minZ, box.maxX, box.maxY, box.maxZ, sideColor, lineColor, mode, excludeDir);
+    }
 }
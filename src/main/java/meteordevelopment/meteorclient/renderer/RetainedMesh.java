@@ -0,0 +1,69 @@
+/*
+ * This file is part of the Meteor Client distribution (https://github.com/MeteorDevelopment/meteor-client).
+ * Copyright (c) Meteor Development.
+ */
+
+package meteordevelopment.meteorclient.renderer;
+
+import com.mojang.blaze3d.buffers.GpuBuffer;
+import com.mojang.blaze3d.systems.GpuDevice;
+import com.mojang.blaze3d.systems.RenderSystem;
+import com.mojang.blaze3d.vertex.VertexFormat;
+
+/**
+ * A mesh kept on the GPU across frames. Geometry is built once with a {@link MeshBuilder}, uploaded with
+ * {@link #upload(MeshBuilder)} and then drawn with {@link MeshRenderer#mesh(RetainedMesh, org.joml.Matrix4f)}
+ * until it changes. Must only be used on the render thread.
+ */
+public class RetainedMesh implements AutoCloseable {
+    private final String name;
+
+    private GpuBuffer vertexBuffer;
+    private GpuBuffer indexBuffer;
+    private VertexFormat.IndexType indexType;
+    private int indicesCount;
+
+    public RetainedMesh(String name) {
+        this.name = name;
+    }
+
+    public void upload(MeshBuilder mesh) {
+        if (mesh.isBuilding()) mesh.end();
+
+        close();
+
+        indicesCount = mesh.getIndicesCount();
+        if (indicesCount == 0) return;
+
+        GpuDevice device = RenderSystem.getDevice();
+        vertexBuffer = device.createBuffer(() -> name + " Vertices", GpuBuffer.USAGE_VERTEX, mesh.getVertexData());
+        indexBuffer = device.createBuffer(() -> name + " Indices", GpuBuffer.USAGE_INDEX, mesh.getIndexData());
+        indexType = mesh.getIndexType();
+    }
+
+    public GpuBuffer getVertexBuffer() {
+        return vertexBuffer;
+    }
+
+    public GpuBuffer getIndexBuffer() {
+        return indexBuffer;
+    }
+
+    public VertexFormat.IndexType getIndexType() {
+        return indexType;
+    }
+
+    public int getIndicesCount() {
+        return indicesCount;
+    }
+
+    @Override
+    public void close() {
+        if (vertexBuffer != null) vertexBuffer.close();
+        if (indexBuffer != null) indexBuffer.close();
+
+        vertexBuffer = null;
+        indexBuffer = null;
+        indicesCount = 0;
+    }
+}
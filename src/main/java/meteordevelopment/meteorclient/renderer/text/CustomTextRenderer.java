@@ -21,13 +21,12 @@ public class CustomTextRenderer implements TextRenderer {
     private final MeshBuilder mesh = new MeshBuilder(MeteorRenderPipelines.UI_TEXT);
 
     public final FontFace fontFace;
+    public final GlyphAtlas atlas;
 
-    private final Font[] fonts;
-    private Font font;
+    private final Font font;
 
     private boolean building;
     private boolean scaleOnly;
-    private double fontScale = 1;
     private double scale = 1;
 
     public CustomTextRenderer(FontFace fontFace) {
@@ -36,10 +35,8 @@ public class CustomTextRenderer implements TextRenderer {
         byte[] bytes = Utils.readBytes(fontFace.toStream());
         ByteBuffer buffer = BufferUtils.createByteBuffer(bytes.length).put(bytes).flip();
 
-        fonts = new Font[5];
-        for (int i = 0; i < fonts.length; i++) {
-            fonts[i] = new Font(buffer, (int) Math.round(27 * ((i * 0.5) + 1)));
-        }
+        atlas = new GlyphAtlas(buffer);
+        font = new Font(atlas, 27);
     }
 
     @Override
@@ -53,40 +50,23 @@ public class CustomTextRenderer implements TextRenderer {
 
         if (!scaleOnly) mesh.begin();
 
-        if (big) {
-            this.font = fonts[fonts.length - 1];
-        }
-        else {
-            double scaleA = Math.floor(scale * 10) / 10;
-
-            int scaleI;
-            if (scaleA >= 3) scaleI = 5;
-            else if (scaleA >= 2.5) scaleI = 4;
-            else if (scaleA >= 2) scaleI = 3;
-            else if (scaleA >= 1.5) scaleI = 2;
-            else scaleI = 1;
-
-            font = fonts[scaleI - 1];
-        }
-
+        // The distance field atlas stays sharp at any scale so big text needs no separate font
         this.building = true;
         this.scaleOnly = scaleOnly;
-
-        this.fontScale = font.getHeight() / 27.0;
-        this.scale = 1 + (scale - fontScale) / fontScale;
+        this.scale = scale;
     }
 
     @Override
     public double getWidth(String text, int length, boolean shadow) {
         if (text.isEmpty()) return 0;
 
-        Font font = building ? this.font : fonts[0];
+        double scale = building ? this.scale : 1;
         return (font.getWidth(text, length) + (shadow ? 1 : 0)) * scale / 1.5;
     }
 
     @Override
     public double getHeight(boolean shadow) {
-        Font font = building ? this.font : fonts[0];
+        double scale = building ? this.scale : 1;
         return (font.getHeight() + 1 + (shadow ? 1 : 0)) * scale / 1.5;
     }
 
@@ -100,7 +80,7 @@ public class CustomTextRenderer implements TextRenderer {
             int preShadowA = SHADOW_COLOR.a;
             SHADOW_COLOR.a = (int) (color.a / 255.0 * preShadowA);
 
-            width = font.render(mesh, text, x + fontScale * scale / 1.5, y + fontScale * scale / 1.5, SHADOW_COLOR, scale / 1.5);
+            width = font.render(mesh, text, x + scale / 1.5, y + scale / 1.5, SHADOW_COLOR, scale / 1.5);
             font.render(mesh, text, x, y, color, scale / 1.5);
 
             SHADOW_COLOR.a = preShadowA;
@@ -129,7 +109,7 @@ public class CustomTextRenderer implements TextRenderer {
                 .attachments(MinecraftClient.getInstance().getFramebuffer())
                 .pipeline(MeteorRenderPipelines.UI_TEXT)
                 .mesh(mesh)
-                .sampler("u_Texture", font.texture.getGlTextureView())
+                .sampler("u_Texture", font.getTexture().getGlTextureView())
                 .end();
         }
 
@@ -138,8 +118,6 @@ public class CustomTextRenderer implements TextRenderer {
     }
 
     public void destroy() {
-        for (Font font : this.fonts) {
-            font.texture.close();
-        }
+        atlas.close();
     }
 }
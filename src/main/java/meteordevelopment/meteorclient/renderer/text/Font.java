@@ -5,141 +5,105 @@
 
 package meteordevelopment.meteorclient.renderer.text;
 
-import com.mojang.blaze3d.textures.FilterMode;
-import com.mojang.blaze3d.textures.TextureFormat;
-import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2DoubleLinkedOpenHashMap;
 import meteordevelopment.meteorclient.renderer.MeshBuilder;
 import meteordevelopment.meteorclient.renderer.Texture;
 import meteordevelopment.meteorclient.utils.render.color.Color;
-import org.lwjgl.BufferUtils;
-import org.lwjgl.stb.*;
-import org.lwjgl.system.MemoryStack;
-
-import java.nio.ByteBuffer;
-import java.nio.IntBuffer;
 
+/**
+ * A font file at a specific pixel height. Glyphs come from a {@link GlyphAtlas} which can be shared between fonts of
+ * different heights.
+ */
 public class Font {
-    public final Texture texture;
+    private static final int WIDTH_CACHE_SIZE = 1024;
+
+    private final GlyphAtlas atlas;
     private final int height;
     private final float scale;
-    private final float ascent;
-    private final Int2ObjectOpenHashMap<CharData> charMap = new Int2ObjectOpenHashMap<>();
-    private static final int size = 2048;
 
-    public Font(ByteBuffer buffer, int height) {
+    // Widths in pixels at this height, independent of the scale text is rendered at
+    private final Object2DoubleLinkedOpenHashMap<String> widths = new Object2DoubleLinkedOpenHashMap<>();
+    private long hits, misses;
+
+    public Font(GlyphAtlas atlas, int height) {
+        this.atlas = atlas;
         this.height = height;
+        this.scale = (float) height / GlyphAtlas.SDF_HEIGHT;
 
-        // Initialize font
-        STBTTFontinfo fontInfo = STBTTFontinfo.create();
-        STBTruetype.stbtt_InitFont(fontInfo, buffer);
-
-        // Allocate buffers
-        ByteBuffer bitmap = BufferUtils.createByteBuffer(size * size);
-        STBTTPackedchar.Buffer[] cdata = {
-            STBTTPackedchar.create(95), // Basic Latin
-            STBTTPackedchar.create(96), // Latin 1 Supplement
-            STBTTPackedchar.create(128), // Latin Extended-A
-            STBTTPackedchar.create(144), // Greek and Coptic
-            STBTTPackedchar.create(256), // Cyrillic
-            STBTTPackedchar.create(1) // infinity symbol
-        };
-
-        // create and initialise packing context
-        STBTTPackContext packContext = STBTTPackContext.create();
-        STBTruetype.stbtt_PackBegin(packContext, bitmap, size, size, 0 ,1);
-
-        // create the pack range, populate with the specific packing ranges
-        STBTTPackRange.Buffer packRange = STBTTPackRange.create(cdata.length);
-        packRange.put(STBTTPackRange.create().set(height, 32, null, 95, cdata[0], (byte) 2, (byte) 2));
-        packRange.put(STBTTPackRange.create().set(height, 160, null, 96, cdata[1], (byte) 2, (byte) 2));
-        packRange.put(STBTTPackRange.create().set(height, 256, null, 128, cdata[2], (byte) 2, (byte) 2));
-        packRange.put(STBTTPackRange.create().set(height, 880, null, 144, cdata[3], (byte) 2, (byte) 2));
-        packRange.put(STBTTPackRange.create().set(height, 1024, null, 256, cdata[4], (byte) 2, (byte) 2));
-        packRange.put(STBTTPackRange.create().set(height, 8734, null, 1, cdata[5], (byte) 2, (byte) 2)); // lol
-        packRange.flip();
-
-        // write and finish
-        STBTruetype.stbtt_PackFontRanges(packContext, buffer, 0, packRange);
-        STBTruetype.stbtt_PackEnd(packContext);
-
-        // Create texture object and get font scale
-        texture = new Texture(size, size, TextureFormat.RED8, FilterMode.LINEAR, FilterMode.LINEAR);
-        texture.upload(bitmap);
-        scale = STBTruetype.stbtt_ScaleForPixelHeight(fontInfo, height);
-
-        // Get font vertical ascent
-        try (MemoryStack stack = MemoryStack.stackPush()) {
-            IntBuffer ascent = stack.mallocInt(1);
-            STBTruetype.stbtt_GetFontVMetrics(fontInfo, ascent, null, null);
-            this.ascent = ascent.get(0);
-        }
+        widths.defaultReturnValue(Double.NaN);
+    }
 
-        for (int i = 0; i < cdata.length; i++) {
-            STBTTPackedchar.Buffer cbuf = cdata[i];
-            int offset = packRange.get(i).first_unicode_codepoint_in_range();
-
-            for (int j = 0; j < cbuf.capacity(); j++) {
-                STBTTPackedchar packedChar = cbuf.get(j);
-
-                float ipw = 1f / size; // pixel width and height
-                float iph = 1f / size;
-
-                charMap.put(j + offset, new CharData(
-                    packedChar.xoff(),
-                    packedChar.yoff(),
-                    packedChar.xoff2(),
-                    packedChar.yoff2(),
-                    packedChar.x0() * ipw,
-                    packedChar.y0() * iph,
-                    packedChar.x1() * ipw,
-                    packedChar.y1() * iph,
-                    packedChar.xadvance()
-                ));
-            }
-        }
+    public Texture getTexture() {
+        return atlas.getTexture();
     }
 
     public double getWidth(String string, int length) {
-        double width = 0;
+        if (length != string.length()) return measure(string, length);
 
-        for (int i = 0; i < length; i++) {
-            int cp = string.charAt(i);
-            CharData c = charMap.get(cp);
-            if (c == null) c = charMap.get(32);
+        double width = widths.getAndMoveToLast(string);
 
-            width += c.xAdvance;
+        if (Double.isNaN(width)) {
+            misses++;
+
+            width = measure(string, length);
+            widths.putAndMoveToLast(string, width);
+            if (widths.size() > WIDTH_CACHE_SIZE) widths.removeFirstDouble();
         }
+        else hits++;
 
         return width;
     }
 
+    private double measure(String string, int length) {
+        double width = 0;
+
+        for (int i = 0; i < length; i++) {
+            width += atlas.getAdvance(string.charAt(i));
+        }
+
+        return width * this.scale;
+    }
+
+    /**
+     * @return Amount of {@link #getWidth(String, int)} calls answered from the width cache
+     */
+    public long getWidthCacheHits() {
+        return hits;
+    }
+
+    /**
+     * @return Amount of {@link #getWidth(String, int)} calls that had to measure the string
+     */
+    public long getWidthCacheMisses() {
+        return misses;
+    }
+
     public int getHeight() {
         return height;
     }
 
     public double render(MeshBuilder mesh, String string, double x, double y, Color color, double scale) {
-        y += ascent * this.scale * scale;
+        scale *= this.scale;
+        y += atlas.getAscent() * scale;
 
         int length = string.length();
         mesh.ensureCapacity(length * 4, length * 6);
 
         for (int i = 0; i < length; i++) {
-            int cp = string.charAt(i);
-            CharData c = charMap.get(cp);
-            if (c == null) c = charMap.get(32);
-
-            mesh.quad(
-                mesh.vec2(x + c.x0 * scale, y + c.y0 * scale).vec2(c.u0, c.v0).color(color).next(),
-                mesh.vec2(x + c.x0 * scale, y + c.y1 * scale).vec2(c.u0, c.v1).color(color).next(),
-                mesh.vec2(x + c.x1 * scale, y + c.y1 * scale).vec2(c.u1, c.v1).color(color).next(),
-                mesh.vec2(x + c.x1 * scale, y + c.y0 * scale).vec2(c.u1, c.v0).color(color).next()
-            );
-
-            x += c.xAdvance * scale;
+            GlyphAtlas.Glyph c = atlas.get(string.charAt(i));
+
+            if (c.x1() > c.x0()) {
+                mesh.quad(
+                    mesh.vec2(x + c.x0() * scale, y + c.y0() * scale).vec2(c.u0(), c.v0()).color(color).next(),
+                    mesh.vec2(x + c.x0() * scale, y + c.y1() * scale).vec2(c.u0(), c.v1()).color(color).next(),
+                    mesh.vec2(x + c.x1() * scale, y + c.y1() * scale).vec2(c.u1(), c.v1()).color(color).next(),
+                    mesh.vec2(x + c.x1() * scale, y + c.y0() * scale).vec2(c.u1(), c.v0()).color(color).next()
+                );
+            }
+
+            x += c.xAdvance() * scale;
         }
 
         return x;
     }
-
-    private record CharData(float x0, float y0, float x1, float y1, float u0, float v0, float u1, float v1, float xAdvance) {}
 }
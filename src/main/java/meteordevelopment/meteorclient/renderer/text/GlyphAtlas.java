@@ -0,0 +1,237 @@
+/*
+ * This file is part of the Meteor Client distribution (https://github.com/MeteorDevelopment/meteor-client).
+ * Copyright (c) Meteor Development.
+ */
+
+package meteordevelopment.meteorclient.renderer.text;
+
+import com.mojang.blaze3d.textures.FilterMode;
+import com.mojang.blaze3d.textures.TextureFormat;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import meteordevelopment.meteorclient.renderer.Texture;
+import org.lwjgl.stb.STBTTFontinfo;
+import org.lwjgl.stb.STBTruetype;
+import org.lwjgl.system.MemoryStack;
+
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.util.Arrays;
+
+import static org.lwjgl.system.MemoryUtil.*;
+
+/**
+ * Signed distance field glyphs of a single font file, rasterized the first time they are requested. All glyphs are
+ * rasterized at {@link #SDF_HEIGHT} pixels and shelf packed into one atlas which grows in height as needed, so every
+ * {@link Font} height and scale of the same font file shares it.
+ * <p>
+ * Glyph positions in the atlas are in pixels, the text shader divides them by the current texture size so glyphs
+ * written before the atlas grew stay valid. Must only be used on the render thread.
+ */
+public class GlyphAtlas {
+    public static final int SDF_HEIGHT = 48;
+
+    private static final int PADDING = 4;
+    private static final byte ON_EDGE = (byte) 128;
+    private static final float DISTANCE_SCALE = 128f / PADDING;
+
+    private static final int WIDTH = 1024;
+    private static final int INITIAL_HEIGHT = 256;
+    private static final int MAX_HEIGHT = 4096;
+
+    // Kept referenced, stb reads the font data every time a glyph is rasterized
+    private final ByteBuffer fontData;
+    private final STBTTFontinfo fontInfo = STBTTFontinfo.create();
+    private final float scale;
+    private final float ascent;
+
+    // Codepoints below 256 skip the map, their advances are also kept unboxed for measuring
+    private final Glyph[] latinGlyphs = new Glyph[256];
+    private final float[] latinAdvances = new float[256];
+    private final Int2ObjectOpenHashMap<Glyph> glyphs = new Int2ObjectOpenHashMap<>();
+    private Glyph fallback;
+
+    private ByteBuffer bitmap;
+    private int height = INITIAL_HEIGHT;
+    private int shelfX, shelfY, shelfHeight;
+    private boolean full, dirty;
+
+    private Texture texture;
+
+    public GlyphAtlas(ByteBuffer fontData) {
+        this.fontData = fontData;
+
+        if (!STBTruetype.stbtt_InitFont(fontInfo, fontData)) {
+            throw new IllegalArgumentException("Failed to parse font data.");
+        }
+
+        scale = STBTruetype.stbtt_ScaleForPixelHeight(fontInfo, SDF_HEIGHT);
+
+        try (MemoryStack stack = MemoryStack.stackPush()) {
+            IntBuffer ascent = stack.mallocInt(1);
+            STBTruetype.stbtt_GetFontVMetrics(fontInfo, ascent, null, null);
+            this.ascent = ascent.get(0) * scale;
+        }
+
+        bitmap = memCalloc(WIDTH * height);
+        Arrays.fill(latinAdvances, Float.NaN);
+    }
+
+    /**
+     * @return Ascent in pixels at {@link #SDF_HEIGHT}
+     */
+    public float getAscent() {
+        return ascent;
+    }
+
+    public Glyph get(int codepoint) {
+        if (codepoint < 256) {
+            Glyph glyph = latinGlyphs[codepoint];
+
+            if (glyph == null) {
+                glyph = rasterize(codepoint);
+                latinGlyphs[codepoint] = glyph;
+                latinAdvances[codepoint] = glyph.xAdvance;
+            }
+
+            return glyph;
+        }
+
+        Glyph glyph = glyphs.get(codepoint);
+
+        if (glyph == null) {
+            glyph = rasterize(codepoint);
+            glyphs.put(codepoint, glyph);
+        }
+
+        return glyph;
+    }
+
+    /**
+     * @return Same as the advance of {@link #get(int)}
+     */
+    public float getAdvance(int codepoint) {
+        if (codepoint < 256) {
+            float advance = latinAdvances[codepoint];
+            if (!Float.isNaN(advance)) return advance;
+        }
+
+        return get(codepoint).xAdvance;
+    }
+
+    private Glyph rasterize(int codepoint) {
+        int index = STBTruetype.stbtt_FindGlyphIndex(fontInfo, codepoint);
+        if (index == 0 && codepoint != ' ') return getFallback();
+
+        try (MemoryStack stack = MemoryStack.stackPush()) {
+            IntBuffer advance = stack.mallocInt(1);
+            STBTruetype.stbtt_GetGlyphHMetrics(fontInfo, index, advance, null);
+            float xAdvance = advance.get(0) * scale;
+
+            IntBuffer width = stack.mallocInt(1);
+            IntBuffer height = stack.mallocInt(1);
+            IntBuffer xOff = stack.mallocInt(1);
+            IntBuffer yOff = stack.mallocInt(1);
+
+            ByteBuffer sdf = STBTruetype.stbtt_GetGlyphSDF(fontInfo, scale, index, PADDING, ON_EDGE, DISTANCE_SCALE, width, height, xOff, yOff);
+
+            // Whitespace
+            if (sdf == null) return new Glyph(0, 0, 0, 0, 0, 0, 0, 0, xAdvance);
+
+            try {
+                int w = width.get(0), h = height.get(0);
+                if (!pack(w, h)) return codepoint == ' ' ? new Glyph(0, 0, 0, 0, 0, 0, 0, 0, xAdvance) : getFallback();
+
+                int x = shelfX, y = shelfY;
+                shelfX += w + 1;
+
+                for (int row = 0; row < h; row++) {
+                    memCopy(memAddress(sdf) + (long) row * w, memAddress(bitmap) + (long) (y + row) * WIDTH + x, w);
+                }
+
+                dirty = true;
+
+                return new Glyph(
+                    xOff.get(0), yOff.get(0), xOff.get(0) + w, yOff.get(0) + h,
+                    x, y, x + w, y + h,
+                    xAdvance
+                );
+            }
+            finally {
+                STBTruetype.stbtt_FreeSDF(sdf);
+            }
+        }
+    }
+
+    private Glyph getFallback() {
+        if (fallback == null) fallback = get(' ');
+        return fallback;
+    }
+
+    /**
+     * Moves the shelf cursor to a free spot for a glyph of the given size, growing the atlas when needed.
+     * @return {@code false} when the atlas is full
+     */
+    private boolean pack(int w, int h) {
+        if (full || w + 1 > WIDTH) return false;
+
+        if (shelfX + w + 1 > WIDTH) {
+            shelfY += shelfHeight + 1;
+            shelfX = 0;
+            shelfHeight = 0;
+        }
+
+        while (shelfY + h + 1 > height) {
+            if (height >= MAX_HEIGHT) {
+                full = true;
+                return false;
+            }
+
+            grow();
+        }
+
+        shelfHeight = Math.max(shelfHeight, h);
+        return true;
+    }
+
+    private void grow() {
+        ByteBuffer newBitmap = memCalloc(WIDTH * height * 2);
+        memCopy(memAddress(bitmap), memAddress(newBitmap), (long) WIDTH * height);
+        memFree(bitmap);
+
+        bitmap = newBitmap;
+        height *= 2;
+        dirty = true;
+    }
+
+    /**
+     * @return The atlas texture with all glyphs rasterized so far
+     */
+    public Texture getTexture() {
+        if (texture == null || texture.getHeight() != height) {
+            if (texture != null) texture.close();
+
+            texture = new Texture(WIDTH, height, TextureFormat.RED8, FilterMode.LINEAR, FilterMode.LINEAR);
+            dirty = true;
+        }
+
+        if (dirty) {
+            texture.upload(bitmap);
+            dirty = false;
+        }
+
+        return texture;
+    }
+
+    public void close() {
+        if (texture != null) texture.close();
+        texture = null;
+
+        if (bitmap != null) memFree(bitmap);
+        bitmap = null;
+    }
+
+    /**
+     * Glyph quad relative to the pen position in pixels at {@link #SDF_HEIGHT} and its position in the atlas in pixels.
+     */
+    public record Glyph(float x0, float y0, float x1, float y1, float u0, float v0, float u1, float v1, float xAdvance) {}
+}
@@ -27,10 +27,17 @@ public abstract class System<T> implements ISerializable<T> {
     private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd_HH.mm.ss", Locale.ROOT);
 
     public System(String name) {
+        this(name, MeteorClient.FOLDER);
+    }
+
+    /**
+     * @param folder Folder the system is saved to when no other folder is given
+     */
+    protected System(String name, File folder) {
         this.name = name;
 
         if (name != null) {
-            this.file = new File(MeteorClient.FOLDER, name + ".nbt");
+            this.file = new File(folder, name + ".nbt");
             this.isFirstInit = !file.exists();
         }
     }
@@ -96,6 +96,22 @@ public class Config extends System<Config> {
         .build()
     );
 
+    public final Setting<Boolean> renderCulling = sgVisual.add(new BoolSetting.Builder()
+        .name("render-culling")
+        .description("Skips rendering boxes that are outside of your view.")
+        .defaultValue(true)
+        .build()
+    );
+
+    public final Setting<Double> renderLodDistance = sgVisual.add(new DoubleSetting.Builder()
+        .name("render-lod-distance")
+        .description("Boxes further away than this are rendered as a single square. 0 to disable.")
+        .defaultValue(0)
+        .min(0)
+        .sliderMax(256)
+        .build()
+    );
+
     // Modules
 
     public final Setting<List<Module>> hiddenModules = sgModules.add(new ModuleListSetting.Builder()
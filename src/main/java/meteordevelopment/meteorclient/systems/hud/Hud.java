@@ -237,7 +237,7 @@ public class Hud extends System<Hud> implements Iterable<HudElement> {
             element.updatePos();
 
             if (element.isActive() || element.isInEditor()) {
-                element.render(HudRenderer.INSTANCE);
+                HudRenderer.INSTANCE.render(element);
             }
         }
 
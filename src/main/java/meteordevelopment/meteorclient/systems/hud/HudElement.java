@@ -24,6 +24,8 @@ public abstract class HudElement implements Snapper.Element, ISerializable<HudEl
     public boolean autoAnchors = true;
     public int x, y;
 
+    RetainedHudMesh retainedMesh;
+
     public HudElement(HudElementInfo<?> info) {
         this.info = info;
         this.active = true;
@@ -103,6 +105,22 @@ public abstract class HudElement implements Snapper.Element, ISerializable<HudEl
 
     public void render(HudRenderer renderer) {}
 
+    /**
+     * Retained elements are only rendered again after {@link #markDirty()}, the geometry from the last time is drawn
+     * at the current position otherwise. They may only draw lines, quads, triangles and text, the element falls back
+     * to being rendered every frame if it draws anything else.
+     */
+    public boolean isRetained() {
+        return false;
+    }
+
+    /**
+     * Makes a retained element render again in the next frame.
+     */
+    public void markDirty() {
+        if (retainedMesh != null) retainedMesh.dirty = true;
+    }
+
     public void onFontChanged() {}
 
     public WWidget getWidget(GuiTheme theme) {
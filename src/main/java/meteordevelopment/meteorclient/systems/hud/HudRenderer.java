@@ -12,6 +12,7 @@ import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
 import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
 import meteordevelopment.meteorclient.MeteorClient;
 import meteordevelopment.meteorclient.events.meteor.CustomFontChangedEvent;
+import meteordevelopment.meteorclient.gui.WidgetScreen;
 import meteordevelopment.meteorclient.renderer.*;
 import meteordevelopment.meteorclient.renderer.text.CustomTextRenderer;
 import meteordevelopment.meteorclient.renderer.text.Font;
@@ -25,11 +26,10 @@ import net.minecraft.client.render.entity.state.LivingEntityRenderState;
 import net.minecraft.entity.LivingEntity;
 import net.minecraft.item.ItemStack;
 import net.minecraft.util.Identifier;
+import org.joml.Matrix4f;
 import org.joml.Quaternionf;
 import org.joml.Vector3f;
-import org.lwjgl.BufferUtils;
 
-import java.nio.ByteBuffer;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Iterator;
@@ -55,6 +55,14 @@ public class HudRenderer {
         })
         .build(CacheLoader.from(HudRenderer::loadFont));
 
+    // Retained elements record into these and draw the uploaded meshes in end()
+    private Renderer2D retained2D;
+    private MeshBuilder retainedText;
+    private RetainedHudMesh recording;
+
+    private final List<HudElement> retainedElements = new ArrayList<>();
+    private final List<RetainedHudMesh> uploadedMeshes = new ArrayList<>();
+
     public DrawContext drawContext;
     public double delta;
 
@@ -79,6 +87,23 @@ public class HudRenderer {
     public void end() {
         Renderer2D.COLOR.render();
 
+        for (HudElement element : retainedElements) {
+            RetainedHudMesh mesh = element.retainedMesh;
+            Matrix4f matrix = mesh.getMatrix(element);
+
+            MeshRenderer.begin()
+                .attachments(mc.getFramebuffer())
+                .pipeline(MeteorRenderPipelines.UI_COLORED_LINES)
+                .mesh(mesh.lines, matrix)
+                .end();
+
+            MeshRenderer.begin()
+                .attachments(mc.getFramebuffer())
+                .pipeline(MeteorRenderPipelines.UI_COLORED)
+                .mesh(mesh.triangles, matrix)
+                .end();
+        }
+
         if (hud.hasCustomFont()) {
             // Render fonts that were visited this frame and move to cache which weren't visited
             for (Iterator<FontHolder> it = fontsInUse.values().iterator(); it.hasNext(); ) {
@@ -89,7 +114,7 @@ public class HudRenderer {
                         .attachments(mc.getFramebuffer())
                         .pipeline(MeteorRenderPipelines.UI_TEXT)
                         .mesh(fontHolder.getMesh())
-                        .sampler("u_Texture", fontHolder.font.texture.getGlTextureView())
+                        .sampler("u_Texture", fontHolder.font.getTexture().getGlTextureView())
                         .end();
                 }
                 else {
@@ -99,6 +124,18 @@ public class HudRenderer {
 
                 fontHolder.visited = false;
             }
+
+            // Text of every font height uses the same atlas
+            for (HudElement element : retainedElements) {
+                RetainedHudMesh mesh = element.retainedMesh;
+
+                MeshRenderer.begin()
+                    .attachments(mc.getFramebuffer())
+                    .pipeline(MeteorRenderPipelines.UI_TEXT)
+                    .mesh(mesh.text, mesh.getMatrix(element))
+                    .sampler("u_Texture", Fonts.RENDERER.atlas.getTexture().getGlTextureView())
+                    .end();
+            }
         }
         else {
             VanillaTextRenderer.INSTANCE.end();
@@ -108,28 +145,101 @@ public class HudRenderer {
         for (Runnable task : postTasks) task.run();
         postTasks.clear();
 
+        retainedElements.clear();
+
+        // Free the meshes of elements which were not rendered this frame
+        for (Iterator<RetainedHudMesh> it = uploadedMeshes.iterator(); it.hasNext(); ) {
+            RetainedHudMesh mesh = it.next();
+
+            if (!mesh.visited) {
+                mesh.close();
+                mesh.dirty = true;
+                mesh.uploaded = false;
+
+                it.remove();
+            }
+
+            mesh.visited = false;
+        }
+
         drawContext.createNewRootLayer();
 
         drawContext = null;
     }
 
+    /**
+     * Renders the element, retained elements are only rendered when they are dirty and otherwise draw the geometry from
+     * the last time they were.
+     */
+    public void render(HudElement element) {
+        // Settings can change at any time while a GUI is open, vanilla text can't be retained
+        if (!element.isRetained() || !hud.hasCustomFont() || mc.currentScreen instanceof WidgetScreen) {
+            element.markDirty();
+            element.render(this);
+            return;
+        }
+
+        if (element.retainedMesh == null) element.retainedMesh = new RetainedHudMesh(element);
+        RetainedHudMesh mesh = element.retainedMesh;
+
+        if (mesh.unsupported) {
+            element.render(this);
+            return;
+        }
+
+        if (mesh.dirty) {
+            if (retained2D == null) {
+                retained2D = new Renderer2D(false);
+                retainedText = new MeshBuilder(MeteorRenderPipelines.UI_TEXT);
+            }
+
+            retained2D.begin();
+            retainedText.begin();
+
+            recording = mesh;
+            element.render(this);
+            recording = null;
+
+            mesh.upload(element, retained2D.lines, retained2D.triangles, retainedText);
+
+            if (!mesh.uploaded) {
+                uploadedMeshes.add(mesh);
+                mesh.uploaded = true;
+            }
+        }
+
+        mesh.visited = true;
+        retainedElements.add(element);
+    }
+
+    private Renderer2D getRenderer2D() {
+        return recording != null ? retained2D : Renderer2D.COLOR;
+    }
+
+    // Draws immediately, which makes the element that is being recorded render every frame from now on
+    private void notRetainable() {
+        if (recording != null) recording.unsupported = true;
+    }
+
     public void line(double x1, double y1, double x2, double y2, Color color) {
-        Renderer2D.COLOR.line(x1, y1, x2, y2, color);
+        getRenderer2D().line(x1, y1, x2, y2, color);
     }
 
     public void quad(double x, double y, double width, double height, Color color) {
-        Renderer2D.COLOR.quad(x, y, width, height, color);
+        getRenderer2D().quad(x, y, width, height, color);
     }
 
     public void quad(double x, double y, double width, double height, Color cTopLeft, Color cTopRight, Color cBottomRight, Color cBottomLeft) {
-        Renderer2D.COLOR.quad(x, y, width, height, cTopLeft, cTopRight, cBottomRight, cBottomLeft);
+        getRenderer2D().quad(x, y, width, height, cTopLeft, cTopRight, cBottomRight, cBottomLeft);
     }
 
     public void triangle(double x1, double y1, double x2, double y2, double x3, double y3, Color color) {
-        Renderer2D.COLOR.triangle(x1, y1, x2, y2, x3, y3, color);
+        getRenderer2D().triangle(x1, y1, x2, y2, x3, y3, color);
     }
 
     public void texture(Identifier id, double x, double y, double width, double height, Color color) {
+        notRetainable();
+
         Renderer2D.TEXTURE.begin();
         Renderer2D.TEXTURE.texQuad(x, y, width, height, color);
         Renderer2D.TEXTURE.render(mc.getTextureManager().getTexture(id).getGlTextureView());
@@ -143,10 +253,19 @@ public class HudRenderer {
             return VanillaTextRenderer.INSTANCE.render(text, x, y, color, shadow);
         }
 
-        FontHolder fontHolder = getFontHolder(scale, true);
+        Font font;
+        MeshBuilder mesh;
+
+        if (recording != null) {
+            font = getFont(scale);
+            mesh = retainedText;
+        }
+        else {
+            FontHolder fontHolder = getFontHolder(scale, true);
 
-        Font font = fontHolder.font;
-        MeshBuilder mesh = fontHolder.getMesh();
+            font = fontHolder.font;
+            mesh = fontHolder.getMesh();
+        }
 
         double width;
 
@@ -207,18 +326,23 @@ public class HudRenderer {
     }
 
     public void post(Runnable task) {
+        notRetainable();
         postTasks.add(task);
     }
 
     public void item(ItemStack itemStack, int x, int y, float scale, boolean overlay, String countOverlay) {
+        notRetainable();
         RenderUtils.drawItem(drawContext, itemStack, x, y, scale, overlay, countOverlay, true);
     }
 
     public void item(ItemStack itemStack, int x, int y, float scale, boolean overlay) {
+        notRetainable();
         RenderUtils.drawItem(drawContext, itemStack, x, y, scale, overlay);
     }
 
     public void entity(LivingEntity entity,  int x, int y, int width, int height, float yaw, float pitch) {
+        notRetainable();
+
         float previousBodyYaw = entity.bodyYaw;
         float previousYaw = entity.getYaw();
         float previousPitch = entity.getPitch();
@@ -296,13 +420,14 @@ public class HudRenderer {
         // Clear collections
         fontsInUse.clear();
         fontCache.invalidateAll();
+
+        // Retained text was built from the previous atlas
+        for (RetainedHudMesh mesh : uploadedMeshes) mesh.dirty = true;
     }
 
+    // Glyphs are shared with the GUI font renderer, only the metrics differ between heights
     private static FontHolder loadFont(int height) {
-        byte[] data = Utils.readBytes(Fonts.RENDERER.fontFace.toStream());
-        ByteBuffer buffer = BufferUtils.createByteBuffer(data.length).put(data).flip();
-
-        return new FontHolder(new Font(buffer, height));
+        return new FontHolder(new Font(Fonts.RENDERER.atlas, height));
     }
 
     private static class FontHolder {
@@ -322,7 +447,10 @@ public class HudRenderer {
         }
 
         public void destroy() {
-            font.texture.close();
+            if (mesh != null) {
+                if (mesh.isBuilding()) mesh.end();
+                mesh.close();
+            }
         }
     }
 }
@@ -0,0 +1,55 @@
+/*
+ * This file is part of the Meteor Client distribution (https://github.com/MeteorDevelopment/meteor-client).
+ * Copyright (c) Meteor Development.
+ */
+
+package meteordevelopment.meteorclient.systems.hud;
+
+import meteordevelopment.meteorclient.renderer.MeshBuilder;
+import meteordevelopment.meteorclient.renderer.RetainedMesh;
+import org.joml.Matrix4f;
+
+/**
+ * Geometry of a retained {@link HudElement} as it was last rendered. Vertices are kept in the position the element was
+ * at when they were recorded, moving the element only changes the translation they are drawn with.
+ */
+class RetainedHudMesh {
+    final RetainedMesh lines, triangles, text;
+
+    boolean dirty = true;
+    boolean visited, uploaded;
+
+    // Set when the element drew something which can't be retained, it is then always rendered immediately
+    boolean unsupported;
+
+    private int recordedX, recordedY;
+    private final Matrix4f matrix = new Matrix4f();
+
+    RetainedHudMesh(HudElement element) {
+        String name = "Meteor HUD " + element.info.name;
+
+        lines = new RetainedMesh(name + " Lines");
+        triangles = new RetainedMesh(name + " Triangles");
+        text = new RetainedMesh(name + " Text");
+    }
+
+    void upload(HudElement element, MeshBuilder lines, MeshBuilder triangles, MeshBuilder text) {
+        this.lines.upload(lines);
+        this.triangles.upload(triangles);
+        this.text.upload(text);
+
+        recordedX = element.x;
+        recordedY = element.y;
+        dirty = false;
+    }
+
+    Matrix4f getMatrix(HudElement element) {
+        return matrix.translation(element.x - recordedX, element.y - recordedY, 0);
+    }
+
+    void close() {
+        lines.close();
+        triangles.close();
+        text.close();
+    }
+}
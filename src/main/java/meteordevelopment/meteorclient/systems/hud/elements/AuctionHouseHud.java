@@ -8,27 +8,21 @@ package meteordevelopment.meteorclient.systems.hud.elements;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
 import meteordevelopment.meteorclient.settings.*;
 import meteordevelopment.meteorclient.systems.hud.HudElement;
 import meteordevelopment.meteorclient.systems.hud.HudElementInfo;
 import meteordevelopment.meteorclient.systems.hud.HudRenderer;
-import meteordevelopment.meteorclient.systems.modules.donut.DonutSMPConstants;
-import meteordevelopment.meteorclient.utils.misc.Names;
-import meteordevelopment.meteorclient.utils.network.Http;
+import meteordevelopment.meteorclient.systems.modules.donut.DonutAuctions;
+import meteordevelopment.meteorclient.utils.network.MeteorExecutor;
 import meteordevelopment.meteorclient.utils.player.ChatUtils;
 import meteordevelopment.meteorclient.utils.render.color.Color;
-import meteordevelopment.meteorclient.utils.Utils;
 import net.minecraft.item.Item;
 import net.minecraft.item.ItemStack;
 import net.minecraft.item.Items;
 import net.minecraft.registry.Registries;
 import net.minecraft.util.Identifier;
 
-import java.util.ArrayList;
-import java.util.Comparator;
-import java.util.List;
-import java.util.concurrent.CompletableFuture;
+import java.util.*;
 
 import static meteordevelopment.meteorclient.MeteorClient.mc;
 
@@ -114,10 +108,20 @@ public class AuctionHouseHud extends HudElement {
         .decimalPlaces(1)
         .build());
 
-    private final List<AuctionItem> auctionItems = new ArrayList<>();
-    private long lastRefresh = 0;
-    private boolean isLoading = false;
-    private String errorMessage = null;
+    private static final int MAX_PAGES = 10;
+
+    private static final Color LIGHT_BACKGROUND = new Color(255, 255, 255, 64);
+    private static final Color DARK_BACKGROUND = new Color(0, 0, 0, 64);
+    private static final Color HOVERED_BACKGROUND = new Color(255, 255, 255, 32);
+    private static final Color HOVERED_TEXT = new Color(255, 255, 0);
+
+    private final Color hoveredBgColor = new Color();
+
+    /** Immutable snapshot of the displayed listings, swapped in once per refresh. */
+    private volatile List<AuctionItem> auctionItems = List.of();
+    private volatile long lastRefresh = 0;
+    private volatile boolean isLoading = false;
+    private volatile String errorMessage = null;
     private AuctionItem hoveredItem = null;
     private int lastMouseX = -1;
     private int lastMouseY = -1;
@@ -140,30 +144,33 @@ public class AuctionHouseHud extends HudElement {
     public void render(HudRenderer renderer) {
         if (mc.player == null) return;
 
-        double width = calculateWidth();
-        double height = calculateHeight();
+        List<AuctionItem> items = auctionItems;
+
+        double width = calculateWidth(items);
+        double height = calculateHeight(items);
         setSize(width, height);
 
         updateMousePosition();
 
         double s = scale.get();
         renderer.post(() -> {
-            if (errorMessage != null) {
+            if (errorMessage != null && items.isEmpty()) {
                 renderError(renderer, s);
                 return;
             }
 
-            if (isLoading) {
+            // Keep showing the previous snapshot while a refresh is running
+            if (isLoading && items.isEmpty()) {
                 renderLoading(renderer, s);
                 return;
             }
 
-            if (auctionItems.isEmpty()) {
+            if (items.isEmpty()) {
                 renderEmpty(renderer, s);
                 return;
             }
 
-            renderAuctionGrid(renderer, s);
+            renderAuctionGrid(renderer, items, s);
         });
     }
 
@@ -182,38 +189,35 @@ public class AuctionHouseHud extends HudElement {
         renderer.text(text, x, y, Color.GRAY, true, scale);
     }
 
-    private void renderAuctionGrid(HudRenderer renderer, double scale) {
+    private void renderAuctionGrid(HudRenderer renderer, List<AuctionItem> items, double scale) {
         int columns = gridColumns.get();
         int itemSize = (int) (16 * scale);
         int padding = (int) (2 * scale);
         int textHeight = (int) (9 * scale);
         
         Color bgColor = switch (background.get()) {
-            case Light -> new Color(255, 255, 255, 64);
-            case Dark -> new Color(0, 0, 0, 64);
+            case Light -> LIGHT_BACKGROUND;
+            case Dark -> DARK_BACKGROUND;
             case None -> null;
         };
 
+        if (bgColor != null) hoveredBgColor.set(bgColor.r, bgColor.g, bgColor.b, Math.min(255, bgColor.a + 64));
+        else hoveredBgColor.set(HOVERED_BACKGROUND);
+
         int currentX = x;
         int currentY = y;
         int column = 0;
         hoveredItem = null;
 
-        for (int i = 0; i < Math.min(auctionItems.size(), maxItems.get()); i++) {
-            AuctionItem item = auctionItems.get(i);
+        for (int i = 0; i < Math.min(items.size(), maxItems.get()); i++) {
+            AuctionItem item = items.get(i);
             
             boolean isHovered = isMouseOverItem(currentX, currentY, itemSize, textHeight + padding);
             if (isHovered) {
                 hoveredItem = item;
             }
             
-            Color itemBgColor = bgColor;
-            if (isHovered && bgColor != null) {
-                itemBgColor = new Color(bgColor.r, bgColor.g, bgColor.b, Math.min(255, bgColor.a + 64));
-            } else if (isHovered) {
-                itemBgColor = new Color(255, 255, 255, 32);
-            }
-            
+            Color itemBgColor = isHovered ? hoveredBgColor : bgColor;
             if (itemBgColor != null) {
                 renderer.quad(currentX - padding, currentY - padding, 
                     itemSize + padding * 2, itemSize + textHeight + padding * 2, itemBgColor);
@@ -221,9 +225,8 @@ public class AuctionHouseHud extends HudElement {
 
             renderer.item(item.itemStack, currentX, currentY, (float) scale, true);
             
-            String priceText = item.price + "c";
-            Color textColor = isHovered ? new Color(255, 255, 0) : Color.WHITE;
-            renderer.text(priceText, currentX, currentY + itemSize + 2, textColor, true, scale * 0.7);
+            Color textColor = isHovered ? HOVERED_TEXT : Color.WHITE;
+            renderer.text(item.priceText, currentX, currentY + itemSize + 2, textColor, true, scale * 0.7);
 
             column++;
             if (column >= columns) {
@@ -236,20 +239,20 @@ public class AuctionHouseHud extends HudElement {
         }
     }
 
-    private double calculateWidth() {
-        if (auctionItems.isEmpty()) return 100 * scale.get();
+    private double calculateWidth(List<AuctionItem> items) {
+        if (items.isEmpty()) return 100 * scale.get();
         
-        int columns = Math.min(gridColumns.get(), Math.min(auctionItems.size(), maxItems.get()));
+        int columns = Math.min(gridColumns.get(), Math.min(items.size(), maxItems.get()));
         int itemSize = (int) (16 * scale.get());
         int padding = (int) (2 * scale.get());
         
         return columns * itemSize + (columns - 1) * padding * 2;
     }
 
-    private double calculateHeight() {
-        if (auctionItems.isEmpty()) return 20 * scale.get();
+    private double calculateHeight(List<AuctionItem> items) {
+        if (items.isEmpty()) return 20 * scale.get();
         
-        int totalItems = Math.min(auctionItems.size(), maxItems.get());
+        int totalItems = Math.min(items.size(), maxItems.get());
         int columns = gridColumns.get();
         int rows = (int) Math.ceil((double) totalItems / columns);
         
@@ -264,34 +267,60 @@ public class AuctionHouseHud extends HudElement {
         if (isLoading) return;
         
         isLoading = true;
-        errorMessage = null;
-        
-        CompletableFuture.supplyAsync(() -> {
+
+        String sort = getSortParameter();
+        SortMode mode = sortMode.get();
+        int limit = maxItems.get();
+        List<AuctionItem> previous = auctionItems;
+
+        MeteorExecutor.execute(() -> {
             try {
-                String jsonBody = "{\"search\":\"\",\"sort\":\"" + getSortParameter() + "\"}";
-                String response = Http.post("https://api.donutsmp.net/v1/auction/list/1")
-                    .bearer(DonutSMPConstants.API_TOKEN)
-                    .bodyJson(jsonBody)
-                    .sendString();
-                
-                if (response == null || response.isEmpty()) {
-                    return new ArrayList<AuctionItem>();
-                }
-                
-                return parseAuctionResponse(response);
+                auctionItems = refresh(previous, sort, mode, limit);
+                errorMessage = null;
             } catch (Exception e) {
                 errorMessage = e.getMessage();
-                return new ArrayList<AuctionItem>();
             }
-        }).thenAccept(items -> {
-            auctionItems.clear();
-            auctionItems.addAll(items);
-            sortAuctionItems();
+
             lastRefresh = System.currentTimeMillis();
             isLoading = false;
         });
     }
 
+    /**
+     * Downloads pages until {@code limit} listings are collected and diffs them against the previous snapshot,
+     * reusing the existing {@link AuctionItem} (and its {@link ItemStack}) for every listing that is still present.
+     * <p>
+     * The API has no listing id, so identical listings (same item, price and seller) are real separate auctions. They
+     * are diffed as a multiset, each previous item is reused at most once.
+     */
+    private List<AuctionItem> refresh(List<AuctionItem> previous, String sort, SortMode mode, int limit) {
+        Map<ListingKey, ArrayDeque<AuctionItem>> known = new HashMap<>(previous.size());
+        for (AuctionItem item : previous) known.computeIfAbsent(item.key, key -> new ArrayDeque<>()).add(item);
+
+        List<AuctionItem> items = new ArrayList<>(limit);
+
+        for (int page = 1; page <= MAX_PAGES && items.size() < limit; page++) {
+            JsonArray results = DonutAuctions.listPage("", sort, page);
+            if (results.isEmpty()) break;
+
+            for (JsonElement element : results) {
+                if (!element.isJsonObject()) continue;
+
+                ListingKey key = parseListing(element.getAsJsonObject());
+
+                ArrayDeque<AuctionItem> matching = known.get(key);
+                AuctionItem item = matching != null ? matching.poll() : null;
+                if (item == null) item = new AuctionItem(key, createItemStack(key.itemName));
+
+                items.add(item);
+                if (items.size() >= limit) break;
+            }
+        }
+
+        sortAuctionItems(items, mode);
+        return List.copyOf(items);
+    }
+
     private String getSortParameter() {
         return switch (sortMode.get()) {
             case HighestPrice -> "highest_price";
@@ -300,33 +329,13 @@ public class AuctionHouseHud extends HudElement {
         };
     }
 
-    private List<AuctionItem> parseAuctionResponse(String response) {
-        List<AuctionItem> items = new ArrayList<>();
-        
-        try {
-            JsonObject jsonResponse = JsonParser.parseString(response).getAsJsonObject();
-            JsonArray results = jsonResponse.getAsJsonArray("result");
-            
-            if (results != null) {
-                for (JsonElement element : results) {
-                    if (element.isJsonObject()) {
-                        JsonObject itemObj = element.getAsJsonObject();
-                        
-                        String itemName = itemObj.has("item") ? itemObj.get("item").getAsString() : "Unknown";
-                        double price = itemObj.has("price") ? itemObj.get("price").getAsDouble() : 0.0;
-                        String seller = itemObj.has("seller") ? itemObj.get("seller").getAsString() : 
-                                       itemObj.has("owner") ? itemObj.get("owner").getAsString() : "Unknown";
-                        
-                        ItemStack itemStack = createItemStack(itemName);
-                        items.add(new AuctionItem(itemName, price, seller, itemStack));
-                    }
-                }
-            }
-        } catch (Exception e) {
-            errorMessage = "Failed to parse auction data: " + e.getMessage();
-        }
-        
-        return items;
+    private ListingKey parseListing(JsonObject itemObj) {
+        String itemName = itemObj.has("item") ? itemObj.get("item").getAsString() : "Unknown";
+        double price = itemObj.has("price") ? itemObj.get("price").getAsDouble() : 0.0;
+        String seller = itemObj.has("seller") ? itemObj.get("seller").getAsString() :
+                       itemObj.has("owner") ? itemObj.get("owner").getAsString() : "Unknown";
+
+        return new ListingKey(itemName, price, seller);
     }
 
     private ItemStack createItemStack(String itemName) {
@@ -343,11 +352,11 @@ public class AuctionHouseHud extends HudElement {
         return new ItemStack(Items.BARRIER);
     }
 
-    private void sortAuctionItems() {
-        switch (sortMode.get()) {
-            case HighestPrice -> auctionItems.sort((a, b) -> Double.compare(b.price, a.price));
-            case LowestPrice -> auctionItems.sort((a, b) -> Double.compare(a.price, b.price));
-            case Alphabetical -> auctionItems.sort(Comparator.comparing(a -> a.itemName));
+    private void sortAuctionItems(List<AuctionItem> items, SortMode mode) {
+        switch (mode) {
+            case HighestPrice -> items.sort((a, b) -> Double.compare(b.price, a.price));
+            case LowestPrice -> items.sort((a, b) -> Double.compare(a.price, b.price));
+            case Alphabetical -> items.sort(Comparator.comparing(a -> a.itemName));
         }
     }
 
@@ -383,17 +392,24 @@ public class AuctionHouseHud extends HudElement {
         }
     }
 
+    private record ListingKey(String itemName, double price, String seller) {}
+
     public static class AuctionItem {
         public final String itemName;
         public final double price;
         public final String seller;
         public final ItemStack itemStack;
+        public final String priceText;
+
+        private final ListingKey key;
 
-        public AuctionItem(String itemName, double price, String seller, ItemStack itemStack) {
-            this.itemName = itemName;
-            this.price = price;
-            this.seller = seller;
+        private AuctionItem(ListingKey key, ItemStack itemStack) {
+            this.key = key;
+            this.itemName = key.itemName();
+            this.price = key.price();
+            this.seller = key.seller();
             this.itemStack = itemStack;
+            this.priceText = price + "c";
         }
     }
 }
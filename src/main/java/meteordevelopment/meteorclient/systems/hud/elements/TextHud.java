@@ -135,6 +135,10 @@ public class TextHud extends HudElement {
     private Script script, conditionScript;
     private Section section;
 
+    // Variables read by the last evaluation, null when it has to run again
+    private MeteorStarscript.Dependencies dependencies;
+    private long skippedEvaluations;
+
     private boolean firstTick = true;
     private boolean empty = false;
     private boolean visible;
@@ -180,6 +184,7 @@ public class TextHud extends HudElement {
         if (recalculateSize) {
             calculateSize(renderer);
             recalculateSize = false;
+            markDirty();
         }
 
         if (timer <= 0) {
@@ -187,6 +192,18 @@ public class TextHud extends HudElement {
             timer = updateDelay.get();
         }
         else timer--;
+
+        if (hasRainbowColor()) markDirty();
+    }
+
+    private boolean hasRainbowColor() {
+        if (background.get() && backgroundColor.get().rainbow) return true;
+
+        for (SettingColor color : Hud.get().textColors.get()) {
+            if (color.rainbow) return true;
+        }
+
+        return false;
     }
 
     private void runTick(HudRenderer renderer) {
@@ -205,8 +222,18 @@ public class TextHud extends HudElement {
             }
 
             needsCompile = false;
+            dependencies = null;
         }
 
+        // Nothing the scripts read changed since the last evaluation, the text and size are the same
+        if (dependencies != null && !dependencies.changed()) {
+            skippedEvaluations++;
+            firstTick = false;
+            return;
+        }
+
+        MeteorStarscript.beginTracking();
+
         try {
             if (script != null) {
                 section = MeteorStarscript.ss.run(script);
@@ -224,7 +251,21 @@ public class TextHud extends HudElement {
             else visible = shown.get() == Shown.WhenTrue ? text.equalsIgnoreCase("true") : text.equalsIgnoreCase("false");
         }
 
+        dependencies = MeteorStarscript.endTracking();
         firstTick = false;
+        markDirty();
+    }
+
+    /**
+     * @return Amount of updates where the scripts were not evaluated because nothing they read changed
+     */
+    public long getSkippedEvaluations() {
+        return skippedEvaluations;
+    }
+
+    @Override
+    public boolean isRetained() {
+        return true;
     }
 
     @Override
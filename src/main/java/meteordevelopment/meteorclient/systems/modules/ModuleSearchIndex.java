@@ -0,0 +1,306 @@
+/*
+ * This file is part of the Meteor Client distribution (https://github.com/MeteorDevelopment/meteor-client).
+ * Copyright (c) Meteor Development.
+ */
+
+package meteordevelopment.meteorclient.systems.modules;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntList;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import meteordevelopment.meteorclient.settings.Setting;
+import meteordevelopment.meteorclient.settings.SettingGroup;
+import meteordevelopment.meteorclient.utils.Utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Lowercased module names, titles, aliases and setting titles used by the module searches. Scores are the same as
+ * {@link Utils#searchLevenshteinDefault(String, String, boolean)}, lower is better.
+ * <p>
+ * A search first scores the modules sharing a trigram with the query. The score of the last result that will be
+ * returned then bounds the distance computed for all other modules, which stops as soon as it can't get below it.
+ * Results are the same as scoring every module fully.
+ */
+public class ModuleSearchIndex {
+    private static final int INS_COST = 1, SUB_COST = 8, DEL_COST = 8;
+    private static final int NO_MATCH = Integer.MAX_VALUE;
+
+    private final Collection<Module> modules;
+
+    private Entry[] entries = new Entry[0];
+    private final Long2ObjectMap<IntList> nameTrigrams = new Long2ObjectOpenHashMap<>();
+    private final Long2ObjectMap<IntList> titleTrigrams = new Long2ObjectOpenHashMap<>();
+    private final Long2ObjectMap<IntList> settingTrigrams = new Long2ObjectOpenHashMap<>();
+    private boolean dirty = true;
+
+    // Levenshtein rows, only grown
+    private int[] previousRow = new int[32];
+    private int[] currentRow = new int[32];
+    private int[] scores = new int[0];
+
+    public ModuleSearchIndex(Collection<Module> modules) {
+        this.modules = modules;
+    }
+
+    /**
+     * Rebuilds the index on the next search.
+     */
+    public synchronized void invalidate() {
+        dirty = true;
+    }
+
+    public synchronized void rebuild() {
+        entries = new Entry[modules.size()];
+        nameTrigrams.clear();
+        titleTrigrams.clear();
+        settingTrigrams.clear();
+
+        int id = 0;
+
+        for (Module module : modules) {
+            Entry entry = new Entry(module);
+            entries[id] = entry;
+
+            addTrigrams(nameTrigrams, entry.name, id);
+            addTrigrams(titleTrigrams, entry.title, id);
+            for (String alias : entry.aliases) addTrigrams(titleTrigrams, alias, id);
+            for (String title : entry.settingTitles) addTrigrams(settingTrigrams, title, id);
+
+            id++;
+        }
+
+        scores = new int[entries.length];
+        dirty = false;
+    }
+
+    // Searches
+
+    /**
+     * @return At most limit modules ordered by how close their title, or alias, is to the text
+     */
+    public synchronized List<Module> searchTitles(String text, int limit, boolean aliases) {
+        String query = text.toLowerCase(Locale.ROOT);
+
+        return search(query, limit, titleTrigrams, (entry, bound) -> {
+            int score = distance(query, entry.title, bound);
+
+            if (aliases) {
+                for (String alias : entry.aliases) score = Math.min(score, distance(query, alias, Math.min(bound, score)));
+            }
+
+            return score;
+        });
+    }
+
+    /**
+     * @return At most limit modules ordered by how close the title of their closest setting is to the text
+     */
+    public synchronized List<Module> searchSettingTitles(String text, int limit) {
+        String query = text.toLowerCase(Locale.ROOT);
+
+        return search(query, limit, settingTrigrams, (entry, bound) -> {
+            int lowest = NO_MATCH;
+            for (String title : entry.settingTitles) lowest = Math.min(lowest, distance(query, title, Math.min(bound, lowest)));
+
+            return lowest;
+        });
+    }
+
+    /**
+     * @return At most limit modules whose name roughly contains the text, the closest first
+     */
+    public synchronized List<Module> searchNames(String text, int limit) {
+        String query = text.toLowerCase(Locale.ROOT);
+
+        return search(query, limit, nameTrigrams, (entry, bound) -> {
+            int score = distance(query, entry.name, bound);
+            return score < entry.name.length() ? score : NO_MATCH;
+        });
+    }
+
+    /**
+     * @return At most limit settings of the module whose name roughly contains the text, the closest first
+     */
+    public synchronized List<Setting<?>> searchSettingNames(Module module, String text, int limit) {
+        if (dirty) rebuild();
+
+        String query = text.toLowerCase(Locale.ROOT);
+        List<Setting<?>> settings = new ArrayList<>();
+
+        for (Entry entry : entries) {
+            if (entry.module != module) continue;
+
+            IntList ids = new IntArrayList();
+            int[] settingScores = new int[entry.settings.length];
+
+            for (int i = 0; i < entry.settings.length; i++) {
+                settingScores[i] = distance(query, entry.settingNames[i], NO_MATCH);
+                if (settingScores[i] < entry.settingNames[i].length()) ids.add(i);
+            }
+
+            ids.sort((i1, i2) -> Integer.compare(settingScores[i1], settingScores[i2]));
+            for (int i = 0; i < ids.size() && i < limit; i++) settings.add(entry.settings[ids.getInt(i)]);
+
+            break;
+        }
+
+        return settings;
+    }
+
+    private List<Module> search(String query, int limit, Long2ObjectMap<IntList> trigrams, Scorer scorer) {
+        if (dirty) rebuild();
+
+        Arrays.fill(scores, -1);
+        IntArrayList ranked = new IntArrayList();
+
+        // Candidates sharing a trigram with the query
+        for (int i = 0; i + 3 <= query.length(); i++) {
+            IntList ids = trigrams.get(trigram(query, i));
+            if (ids == null) continue;
+
+            for (int j = 0; j < ids.size(); j++) {
+                int id = ids.getInt(j);
+                if (scores[id] != -1) continue;
+
+                scores[id] = scorer.score(entries[id], NO_MATCH);
+                if (scores[id] != NO_MATCH) ranked.add(id);
+            }
+        }
+
+        sort(ranked);
+
+        // Everything else only has to beat the last result
+        int bound = limit > 0 && ranked.size() >= limit ? scores[ranked.getInt(limit - 1)] : NO_MATCH;
+
+        for (int id = 0; id < entries.length; id++) {
+            if (scores[id] != -1) continue;
+
+            scores[id] = scorer.score(entries[id], bound);
+            if (scores[id] <= bound && scores[id] != NO_MATCH) ranked.add(id);
+        }
+
+        sort(ranked);
+
+        List<Module> modules = new ArrayList<>(Math.min(limit, ranked.size()));
+        for (int i = 0; i < ranked.size() && i < limit; i++) modules.add(entries[ranked.getInt(i)].module);
+
+        return modules;
+    }
+
+    private void sort(IntArrayList ranked) {
+        ranked.sort((id1, id2) -> {
+            int cmp = Integer.compare(scores[id1], scores[id2]);
+            return cmp != 0 ? cmp : entries[id1].module.compareTo(entries[id2].module);
+        });
+    }
+
+    /**
+     * @return Same as {@link Utils#searchLevenshteinDefault(String, String, boolean)} for the text and query, case sensitive
+     */
+    public synchronized int distance(String query, String text) {
+        return distance(query, text, NO_MATCH);
+    }
+
+    /**
+     * Two row Levenshtein distance from the query to the text with the costs of
+     * {@link Utils#searchLevenshteinDefault(String, String, boolean)}.
+     * @return The distance, or {@link #NO_MATCH} as soon as it is known to be larger than the bound
+     */
+    private int distance(String query, String text, int bound) {
+        int n = query.length();
+        int m = text.length();
+
+        // Every extra character of the text needs an insertion, every missing one a deletion
+        int minimum = m >= n ? (m - n) * INS_COST : (n - m) * DEL_COST;
+        if (minimum > bound) return NO_MATCH;
+
+        if (n == 0) return m * INS_COST;
+        if (m == 0) return n * DEL_COST;
+
+        if (previousRow.length <= m) {
+            previousRow = new int[m + 1];
+            currentRow = new int[m + 1];
+        }
+
+        int[] previous = previousRow;
+        int[] current = currentRow;
+
+        for (int j = 0; j <= m; j++) previous[j] = j * INS_COST;
+
+        for (int i = 1; i <= n; i++) {
+            char c = query.charAt(i - 1);
+
+            current[0] = i * DEL_COST;
+            int rowMinimum = current[0];
+
+            for (int j = 1; j <= m; j++) {
+                int sCost = previous[j - 1] + (c == text.charAt(j - 1) ? 0 : SUB_COST);
+                int dCost = previous[j] + DEL_COST;
+                int iCost = current[j - 1] + INS_COST;
+
+                current[j] = Math.min(Math.min(dCost, iCost), sCost);
+                if (current[j] < rowMinimum) rowMinimum = current[j];
+            }
+
+            // Rows never get cheaper than the one before
+            if (rowMinimum > bound) return NO_MATCH;
+
+            int[] row = previous;
+            previous = current;
+            current = row;
+        }
+
+        return previous[m];
+    }
+
+    // Trigrams
+
+    private static void addTrigrams(Long2ObjectMap<IntList> trigrams, String text, int id) {
+        for (int i = 0; i + 3 <= text.length(); i++) {
+            IntList ids = trigrams.computeIfAbsent(trigram(text, i), trigram -> new IntArrayList());
+            if (ids.isEmpty() || ids.getInt(ids.size() - 1) != id) ids.add(id);
+        }
+    }
+
+    private static long trigram(String text, int i) {
+        return ((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2);
+    }
+
+    @FunctionalInterface
+    private interface Scorer {
+        int score(Entry entry, int bound);
+    }
+
+    private static class Entry {
+        public final Module module;
+
+        public final String name, title;
+        public final String[] aliases;
+
+        public final Setting<?>[] settings;
+        public final String[] settingNames, settingTitles;
+
+        public Entry(Module module) {
+            this.module = module;
+
+            name = module.name.toLowerCase(Locale.ROOT);
+            title = module.title.toLowerCase(Locale.ROOT);
+            aliases = Arrays.stream(module.aliases).map(alias -> alias.toLowerCase(Locale.ROOT)).toArray(String[]::new);
+
+            List<Setting<?>> settings = new ArrayList<>();
+            for (SettingGroup group : module.settings) {
+                for (Setting<?> setting : group) settings.add(setting);
+            }
+
+            this.settings = settings.toArray(new Setting<?>[0]);
+            settingNames = settings.stream().map(setting -> setting.name.toLowerCase(Locale.ROOT)).toArray(String[]::new);
+            settingTitles = settings.stream().map(setting -> setting.title.toLowerCase(Locale.ROOT)).toArray(String[]::new);
+        }
+    }
+}
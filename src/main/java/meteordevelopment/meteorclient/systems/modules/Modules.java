@@ -38,7 +38,7 @@ import meteordevelopment.meteorclient.utils.Utils;
 
 import static meteordevelopment.meteorclient.systems.modules.Categories.Donut;
 import meteordevelopment.meteorclient.utils.misc.Keybind;
-import meteordevelopment.meteorclient.utils.misc.ValueComparableMap;
+import meteordevelopment.meteorclient.utils.misc.MeteorStarscript;
 import meteordevelopment.meteorclient.utils.misc.input.Input;
 import meteordevelopment.meteorclient.utils.misc.input.KeyAction;
 import meteordevelopment.orbit.EventHandler;
@@ -60,6 +60,7 @@ public class Modules extends System<Modules> {
     private final List<Module> modules = new ArrayList<>();
     private final Map<Class<? extends Module>, Module> moduleInstances = new Reference2ReferenceOpenHashMap<>();
     private final Map<Category, List<Module>> groups = new Reference2ReferenceOpenHashMap<>();
+    private final ModuleSearchIndex searchIndex = new ModuleSearchIndex(moduleInstances.values());
 
     private final List<Module> active = new ArrayList<>();
     private Module moduleToBind;
@@ -69,6 +70,13 @@ public class Modules extends System<Modules> {
         super("modules");
     }
 
+    /**
+     * Modules saved to the given folder, used to run the system without the game directory.
+     */
+    public Modules(File folder) {
+        super("modules", folder);
+    }
+
     public static Modules get() {
         return Systems.get(Modules.class);
     }
@@ -100,6 +108,8 @@ public class Modules extends System<Modules> {
             modules.sort(Comparator.comparing(o -> o.title));
         }
         modules.sort(Comparator.comparing(o -> o.title));
+
+        searchIndex.rebuild();
     }
 
     public static void registerCategory(Category category) {
@@ -157,37 +167,29 @@ public class Modules extends System<Modules> {
     }
 
     public Set<Module> searchTitles(String text) {
-        Map<Module, Integer> modules = new ValueComparableMap<>(Comparator.naturalOrder());
-
-        for (Module module : this.moduleInstances.values()) {
-            int score = Utils.searchLevenshteinDefault(module.title, text, false);
-            if (Config.get().moduleAliases.get()) {
-                for (String alias : module.aliases) {
-                    int aliasScore = Utils.searchLevenshteinDefault(alias, text, false);
-                    if (aliasScore < score) score = aliasScore;
-                }
-            }
-            modules.put(module, modules.getOrDefault(module, 0) + score);
-        }
+        return new LinkedHashSet<>(searchTitles(text, Integer.MAX_VALUE));
+    }
 
-        return modules.keySet();
+    /**
+     * @return At most limit modules, the ones whose title or alias is closest to the text first
+     */
+    public List<Module> searchTitles(String text, int limit) {
+        return searchIndex.searchTitles(text, limit, Config.get().moduleAliases.get());
     }
 
     public Set<Module> searchSettingTitles(String text) {
-        Map<Module, Integer> modules = new ValueComparableMap<>(Comparator.naturalOrder());
-
-        for (Module module : this.moduleInstances.values()) {
-            int lowest = Integer.MAX_VALUE;
-            for (SettingGroup sg : module.settings) {
-                for (Setting<?> setting : sg) {
-                    int score = Utils.searchLevenshteinDefault(setting.title, text, false);
-                    if (score < lowest) lowest = score;
-                }
-            }
-            modules.put(module, modules.getOrDefault(module, 0) + lowest);
-        }
+        return new LinkedHashSet<>(searchSettingTitles(text, Integer.MAX_VALUE));
+    }
+
+    /**
+     * @return At most limit modules, the ones with the setting title closest to the text first
+     */
+    public List<Module> searchSettingTitles(String text, int limit) {
+        return searchIndex.searchSettingTitles(text, limit);
+    }
 
-        return modules.keySet();
+    public ModuleSearchIndex getSearchIndex() {
+        return searchIndex;
     }
 
     void addActive(Module module) {
@@ -385,6 +387,8 @@ public class Modules extends System<Modules> {
         moduleInstances.put(module.getClass(), module);
         modules.add(module);
         getGroup(module.category).add(module);
+        searchIndex.invalidate();
+        MeteorStarscript.invalidate();
 
         // Register color settings for the module
         module.settings.registerColorSettings(module);
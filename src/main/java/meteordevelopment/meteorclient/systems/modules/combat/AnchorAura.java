@@ -11,7 +11,7 @@ import meteordevelopment.meteorclient.renderer.ShapeMode;
 import meteordevelopment.meteorclient.settings.*;
 import meteordevelopment.meteorclient.systems.modules.Categories;
 import meteordevelopment.meteorclient.systems.modules.Module;
-import meteordevelopment.meteorclient.utils.entity.DamageUtils;
+import meteordevelopment.meteorclient.utils.entity.DamageField;
 import meteordevelopment.meteorclient.utils.entity.EntityUtils;
 import meteordevelopment.meteorclient.utils.entity.SortPriority;
 import meteordevelopment.meteorclient.utils.entity.TargetUtils;
@@ -352,11 +352,11 @@ public class AnchorAura extends Module {
     }
 
     private boolean getDamagePlace(BlockPos pos) {
-        return placeMode.get() == Safety.Suicide || DamageUtils.bedDamage(mc.player, pos.toCenterPos()) <= maxDamage.get();
+        return placeMode.get() == Safety.Suicide || DamageField.bedDamage(mc.player, pos.toCenterPos()) <= maxDamage.get();
     }
 
     private boolean getDamageBreak(BlockPos pos) {
-        return breakMode.get() == Safety.Suicide || DamageUtils.anchorDamage(mc.player, pos.toCenterPos()) <= maxDamage.get();
+        return breakMode.get() == Safety.Suicide || DamageField.anchorDamage(mc.player, pos.toCenterPos()) <= maxDamage.get();
     }
 
     private boolean isValidPlace(BlockPos origin, int xOffset, int yOffset, int zOffset) {
@@ -12,7 +12,7 @@ import meteordevelopment.meteorclient.settings.*;
 import meteordevelopment.meteorclient.systems.modules.Categories;
 import meteordevelopment.meteorclient.systems.modules.Module;
 import meteordevelopment.meteorclient.utils.Utils;
-import meteordevelopment.meteorclient.utils.entity.DamageUtils;
+import meteordevelopment.meteorclient.utils.entity.DamageField;
 import meteordevelopment.meteorclient.utils.entity.EntityUtils;
 import meteordevelopment.meteorclient.utils.entity.SortPriority;
 import meteordevelopment.meteorclient.utils.entity.TargetUtils;
@@ -259,12 +259,12 @@ public class BedAura extends Module {
 
                 BlockPos centerPos = target.getBlockPos().up(i);
 
-                float headSelfDamage = DamageUtils.bedDamage(mc.player, Utils.vec3d(centerPos));
-                float offsetSelfDamage = DamageUtils.bedDamage(mc.player, Utils.vec3d(centerPos.offset(dir.toDirection())));
+                float headSelfDamage = DamageField.bedDamage(mc.player, Utils.vec3d(centerPos));
+                float offsetSelfDamage = DamageField.bedDamage(mc.player, Utils.vec3d(centerPos.offset(dir.toDirection())));
 
                 if (mc.world.getBlockState(centerPos).isReplaceable()
                     && BlockUtils.canPlace(centerPos.offset(dir.toDirection()))
-                    && DamageUtils.bedDamage(target, Utils.vec3d(centerPos)) >= minDamage.get()
+                    && DamageField.bedDamage(target, Utils.vec3d(centerPos)) >= minDamage.get()
                     && offsetSelfDamage < maxSelfDamage.get()
                     && headSelfDamage < maxSelfDamage.get()
                     && (!antiSuicide.get() || PlayerUtils.getTotalHealth() - headSelfDamage > 0)
@@ -285,9 +285,9 @@ public class BedAura extends Module {
             Vec3d bedVec = Utils.vec3d(bedPos);
 
             if (PlayerUtils.isWithinReach(bedVec)
-                && DamageUtils.bedDamage(target, bedVec) >= minDamage.get()
-                && DamageUtils.bedDamage(mc.player, bedVec) < maxSelfDamage.get()
-                && (!antiSuicide.get() || PlayerUtils.getTotalHealth() - DamageUtils.bedDamage(mc.player, bedVec) > 0)) {
+                && DamageField.bedDamage(target, bedVec) >= minDamage.get()
+                && DamageField.bedDamage(mc.player, bedVec) < maxSelfDamage.get()
+                && (!antiSuicide.get() || PlayerUtils.getTotalHealth() - DamageField.bedDamage(mc.player, bedVec) > 0)) {
                 return bedPos;
             }
         }
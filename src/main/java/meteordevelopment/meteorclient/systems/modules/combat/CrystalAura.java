@@ -5,8 +5,11 @@
 
 package meteordevelopment.meteorclient.systems.modules.combat;
 
-import com.google.common.util.concurrent.AtomicDouble;
+import it.unimi.dsi.fastutil.booleans.BooleanArrayList;
+import it.unimi.dsi.fastutil.booleans.BooleanList;
 import it.unimi.dsi.fastutil.ints.*;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongList;
 import meteordevelopment.meteorclient.events.entity.EntityAddedEvent;
 import meteordevelopment.meteorclient.events.entity.EntityRemovedEvent;
 import meteordevelopment.meteorclient.events.packets.PacketEvent;
@@ -22,7 +25,9 @@ import meteordevelopment.meteorclient.settings.*;
 import meteordevelopment.meteorclient.systems.friends.Friends;
 import meteordevelopment.meteorclient.systems.modules.Categories;
 import meteordevelopment.meteorclient.systems.modules.Module;
+import meteordevelopment.meteorclient.utils.entity.DamageField;
 import meteordevelopment.meteorclient.utils.entity.DamageUtils;
+import meteordevelopment.meteorclient.utils.entity.EntityIndex;
 import meteordevelopment.meteorclient.utils.entity.EntityUtils;
 import meteordevelopment.meteorclient.utils.entity.Target;
 import meteordevelopment.meteorclient.utils.misc.Keybind;
@@ -63,8 +68,9 @@ import org.joml.Vector3d;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
-import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveTask;
 
 public class CrystalAura extends Module {
     private final SettingGroup sgGeneral = settings.getDefaultGroup();
@@ -556,10 +562,19 @@ public class CrystalAura extends Module {
 
     // Fields
 
+    private static final int PLACE_SPLIT = 32;
+
+    private static final ForkJoinPool PLACE_POOL = new ForkJoinPool(Math.max(1, Runtime.getRuntime().availableProcessors() - 1), pool -> {
+        ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+        thread.setName("Meteor-CrystalAura-" + thread.getPoolIndex());
+        return thread;
+    }, null, false);
+
     private Item mainItem, offItem;
 
     private int breakTimer, placeTimer, switchTimer, ticksPassed;
     private final List<LivingEntity> targets = new ArrayList<>();
+    private final List<Entity> targetCandidates = new ArrayList<>();
 
     private final Vec3d vec3d = new Vec3d(0, 0, 0);
     private final Vec3d playerEyePos = new Vec3d(0, 0, 0);
@@ -600,6 +615,9 @@ public class CrystalAura extends Module {
 
     private double renderDamage;
 
+    private final LongList placeCandidates = new LongArrayList();
+    private final BooleanList placeCandidateBlocks = new BooleanArrayList();
+
     public CrystalAura() {
         super(Categories.Combat, "crystal-aura", "Automatically places and attacks crystals.");
     }
@@ -765,7 +783,7 @@ public class CrystalAura extends Module {
         Entity crystal = null;
 
         // Find best crystal to break
-        for (Entity entity : mc.world.getEntities()) {
+        for (Entity entity : EntityIndex.get(EntityType.END_CRYSTAL)) {
             float damage = getBreakDamage(entity, true);
 
             if (damage > bestDamage) {
@@ -798,7 +816,7 @@ public class CrystalAura extends Module {
 
         // Check damage to self and anti suicide
         blockPos.set(entity.getBlockPos()).move(0, -1, 0);
-        float selfDamage = DamageUtils.crystalDamage(mc.player, entity.getPos(), predictMovement.get(), blockPos);
+        float selfDamage = DamageField.crystalDamage(mc.player, entity.getPos(), predictMovement.get(), blockPos);
         if (selfDamage > maxDamage.get() || (antiSuicide.get() && selfDamage >= EntityUtils.getTotalHealth(mc.player))) return 0;
 
         // Check damage to targets and face place
@@ -909,69 +927,34 @@ public class CrystalAura extends Module {
         } else if (mainItem != Items.END_CRYSTAL && offItem != Items.END_CRYSTAL) return;
 
         // Check for multiplace
-        for (Entity entity : mc.world.getEntities()) {
+        for (Entity entity : EntityIndex.get(EntityType.END_CRYSTAL)) {
             if (getBreakDamage(entity, false) > 0) return;
         }
 
-        // Setup variables
-        AtomicDouble bestDamage = new AtomicDouble(0);
-        AtomicReference<BlockPos.Mutable> bestBlockPos = new AtomicReference<>(new BlockPos.Mutable());
-        AtomicBoolean isSupport = new AtomicBoolean(support.get() != SupportMode.Disabled);
+        // Collect bedrock, obsidian and support base blocks, they are evaluated in parallel once the iterator is done
+        boolean supportEnabled = support.get() != SupportMode.Disabled;
+
+        placeCandidates.clear();
+        placeCandidateBlocks.clear();
 
-        // Find best position to place the crystal on
         BlockIterator.register((int) Math.ceil(placeRange.get()), (int) Math.ceil(placeRange.get()), (bp, blockState) -> {
-            // Check if its bedrock or obsidian and return if isSupport is false
             boolean hasBlock = blockState.isOf(Blocks.BEDROCK) || blockState.isOf(Blocks.OBSIDIAN);
-            if (!hasBlock && (!isSupport.get() || !blockState.isReplaceable())) return;
-
-            // Check if there is air on top
-            blockPos.set(bp.getX(), bp.getY() + 1, bp.getZ());
-            if (!mc.world.getBlockState(blockPos).isAir()) return;
-
-            if (placement112.get()) {
-                blockPos.move(0, 1, 0);
-                if (!mc.world.getBlockState(blockPos).isAir()) return;
-            }
-
-            // Check range
-            ((IVec3d) vec3d).meteor$set(bp.getX() + 0.5, bp.getY() + 1, bp.getZ() + 0.5);
-            blockPos.set(bp).move(0, 1, 0);
-            if (isOutOfRange(vec3d, blockPos, true)) return;
-
-            // Check damage to self and anti suicide
-            float selfDamage = DamageUtils.crystalDamage(mc.player, vec3d, predictMovement.get(), bp);
-            if (selfDamage > maxDamage.get() || (antiSuicide.get() && selfDamage >= EntityUtils.getTotalHealth(mc.player))) return;
-
-            // Check damage to targets and face place
-            float damage = getDamageToTargets(vec3d, bp, false, !hasBlock && support.get() == SupportMode.Fast);
-
-            boolean shouldFacePlace = shouldFacePlace();
-            double minimumDamage = Math.min(minDamage.get(), shouldFacePlace ? 1.5 : minDamage.get());
-
-            if (damage < minimumDamage) return;
-
-            // Check if it can be placed
-            double x = bp.getX();
-            double y = bp.getY() + 1;
-            double z = bp.getZ();
-            ((IBox) box).meteor$set(x, y, z, x + 1, y + (placement112.get() ? 1 : 2), z + 1);
-
-            if (intersectsWithEntities(box)) return;
-
-            // Compare damage
-            if (damage > bestDamage.get() || (isSupport.get() && hasBlock)) {
-                bestDamage.set(damage);
-                bestBlockPos.get().set(bp);
-            }
+            if (!hasBlock && (!supportEnabled || !blockState.isReplaceable())) return;
 
-            if (hasBlock) isSupport.set(false);
+            placeCandidates.add(bp.asLong());
+            placeCandidateBlocks.add(hasBlock);
         });
 
         // Place the crystal
         BlockIterator.after(() -> {
-            if (bestDamage.get() == 0) return;
+            PlaceResult best = findBestPlace();
+            if (best == null || best.damage == 0) return;
+
+            BlockPos bestBlockPos = BlockPos.fromLong(best.pos);
+            BlockPos supportBlock = best.hasBlock ? null : bestBlockPos;
+            double bestDamage = best.damage;
 
-            BlockHitResult result = getPlaceInfo(bestBlockPos.get());
+            BlockHitResult result = getPlaceInfo(bestBlockPos);
 
             ((IVec3d) vec3d).meteor$set(
                     result.getBlockPos().getX() + 0.5 + result.getSide().getVector().getX() * 1.0 / 2.0,
@@ -985,18 +968,136 @@ public class CrystalAura extends Module {
 
                 if (yawStepMode.get() == YawStepMode.Break || doYawSteps(yaw, pitch)) {
                     setRotation(true, vec3d, 0, 0);
-                    Rotations.rotate(yaw, pitch, 50, () -> placeCrystal(result, bestDamage.get(), isSupport.get() ? bestBlockPos.get() : null));
+                    Rotations.rotate(yaw, pitch, 50, () -> placeCrystal(result, bestDamage, supportBlock));
 
                     placeTimer += placeDelay.get();
                 }
             }
             else {
-                placeCrystal(result, bestDamage.get(), isSupport.get() ? bestBlockPos.get() : null);
+                placeCrystal(result, bestDamage, supportBlock);
                 placeTimer += placeDelay.get();
             }
         });
     }
 
+    /**
+     * Evaluates every collected base block and returns the one the crystal should be placed on. Bedrock and obsidian
+     * always win over support blocks, otherwise the highest damage wins with ties going to the first block found.
+     * <p>
+     * Large candidate sets are split across {@link #PLACE_POOL}. The client thread waits for the result so the world
+     * and the targets can not change while the candidates are evaluated.
+     */
+    private PlaceResult findBestPlace() {
+        if (placeCandidates.isEmpty()) return null;
+
+        boolean shouldFacePlace = shouldFacePlace();
+
+        PlaceInput input = new PlaceInput(
+            placeCandidates.toLongArray(),
+            placeCandidateBlocks.toBooleanArray(),
+            List.copyOf(targets),
+            getNearestTarget(),
+            new Vec3d(playerEyePos.x, playerEyePos.y, playerEyePos.z),
+            placeRange.get(),
+            placeWallsRange.get(),
+            placement112.get(),
+            predictMovement.get(),
+            support.get() == SupportMode.Fast,
+            maxDamage.get(),
+            antiSuicide.get(),
+            EntityUtils.getTotalHealth(mc.player),
+            Math.min(minDamage.get(), shouldFacePlace ? 1.5 : minDamage.get())
+        );
+
+        PlaceResult best = input.candidates().length <= PLACE_SPLIT
+            ? evaluatePlaces(input, 0, input.candidates().length)
+            : PLACE_POOL.invoke(new PlaceTask(input, 0, input.candidates().length));
+
+        // Update best target
+        if (best.bestTarget != null && best.bestTargetDamage > bestTargetDamage) {
+            bestTarget = best.bestTarget;
+            bestTargetDamage = best.bestTargetDamage;
+            bestTargetTimer = 10;
+        }
+
+        return best.pos == Long.MIN_VALUE ? null : best;
+    }
+
+    private PlaceResult evaluatePlaces(PlaceInput input, int from, int to) {
+        PlaceResult result = new PlaceResult();
+
+        BlockPos.Mutable bp = new BlockPos.Mutable();
+        BlockPos.Mutable blockPos = new BlockPos.Mutable();
+        Vec3d vec3d = new Vec3d(0, 0, 0);
+        Box box = new Box(0, 0, 0, 0, 0, 0);
+        RaycastContext raycastContext = new RaycastContext(vec3d, vec3d, RaycastContext.ShapeType.COLLIDER, RaycastContext.FluidHandling.NONE, mc.player);
+
+        for (int i = from; i < to; i++) {
+            boolean hasBlock = input.hasBlocks()[i];
+
+            // Bedrock or obsidian was already found, support blocks can not win anymore
+            if (!hasBlock && result.hasBlock) continue;
+
+            bp.set(input.candidates()[i]);
+
+            // Check if there is air on top
+            blockPos.set(bp.getX(), bp.getY() + 1, bp.getZ());
+            if (!mc.world.getBlockState(blockPos).isAir()) continue;
+
+            if (input.placement112()) {
+                blockPos.move(0, 1, 0);
+                if (!mc.world.getBlockState(blockPos).isAir()) continue;
+            }
+
+            // Check range
+            ((IVec3d) vec3d).meteor$set(bp.getX() + 0.5, bp.getY() + 1, bp.getZ() + 0.5);
+            blockPos.set(bp).move(0, 1, 0);
+            if (isOutOfRange(raycastContext, input.eyePos(), vec3d, blockPos, input.range(), input.wallsRange())) continue;
+
+            // Check damage to self and anti suicide
+            float selfDamage = DamageField.crystalDamage(mc.player, vec3d, input.predictMovement(), bp);
+            if (selfDamage > input.maxDamage() || (input.antiSuicide() && selfDamage >= input.selfHealth())) continue;
+
+            // Check damage to targets and face place
+            float damage = 0;
+
+            if (!hasBlock && input.fastSupport()) {
+                damage = DamageField.crystalDamage(input.nearestTarget(), vec3d, input.predictMovement(), bp);
+            }
+            else {
+                for (LivingEntity target : input.targets()) {
+                    float dmg = DamageField.crystalDamage(target, vec3d, input.predictMovement(), bp);
+
+                    if (dmg > result.bestTargetDamage) {
+                        result.bestTarget = target;
+                        result.bestTargetDamage = dmg;
+                    }
+
+                    damage += dmg;
+                }
+            }
+
+            if (damage < input.minimumDamage()) continue;
+
+            // Check if it can be placed
+            double x = bp.getX();
+            double y = bp.getY() + 1;
+            double z = bp.getZ();
+            ((IBox) box).meteor$set(x, y, z, x + 1, y + (input.placement112() ? 1 : 2), z + 1);
+
+            if (intersectsWithEntities(box)) continue;
+
+            // Compare damage
+            if (result.pos == Long.MIN_VALUE || (hasBlock && !result.hasBlock) || damage > result.damage) {
+                result.pos = input.candidates()[i];
+                result.damage = damage;
+                result.hasBlock = hasBlock;
+            }
+        }
+
+        return result;
+    }
+
     private BlockHitResult getPlaceInfo(BlockPos blockPos) {
         ((IVec3d) vec3d).meteor$set(mc.player.getX(), mc.player.getY() + mc.player.getEyeHeight(mc.player.getPose()), mc.player.getZ());
 
@@ -1152,13 +1253,17 @@ public class CrystalAura extends Module {
     }
 
     private boolean isOutOfRange(Vec3d vec3d, BlockPos blockPos, boolean place) {
-        ((IRaycastContext) raycastContext).meteor$set(playerEyePos, vec3d, RaycastContext.ShapeType.COLLIDER, RaycastContext.FluidHandling.NONE, mc.player);
+        return isOutOfRange(raycastContext, playerEyePos, vec3d, blockPos, (place ? placeRange : breakRange).get(), (place ? placeWallsRange : breakWallsRange).get());
+    }
+
+    private boolean isOutOfRange(RaycastContext raycastContext, Vec3d eyePos, Vec3d vec3d, BlockPos blockPos, double range, double wallsRange) {
+        ((IRaycastContext) raycastContext).meteor$set(eyePos, vec3d, RaycastContext.ShapeType.COLLIDER, RaycastContext.FluidHandling.NONE, mc.player);
 
         BlockHitResult result = mc.world.raycast(raycastContext);
 
         if (result == null || !result.getBlockPos().equals(blockPos)) // Is behind wall
-            return !PlayerUtils.isWithin(vec3d, (place ? placeWallsRange : breakWallsRange).get());
-        return !PlayerUtils.isWithin(vec3d, (place ? placeRange : breakRange).get());
+            return !PlayerUtils.isWithin(vec3d, wallsRange);
+        return !PlayerUtils.isWithin(vec3d, range);
     }
 
     private LivingEntity getNearestTarget() {
@@ -1182,13 +1287,13 @@ public class CrystalAura extends Module {
 
         if (fast) {
             LivingEntity target = getNearestTarget();
-            if (!(smartDelay.get() && breaking && target.hurtTime > 0)) damage = DamageUtils.crystalDamage(target, vec3d, predictMovement.get(), obsidianPos);
+            if (!(smartDelay.get() && breaking && target.hurtTime > 0)) damage = DamageField.crystalDamage(target, vec3d, predictMovement.get(), obsidianPos);
         }
         else {
             for (LivingEntity target : targets) {
                 if (smartDelay.get() && breaking && target.hurtTime > 0) continue;
 
-                float dmg = DamageUtils.crystalDamage(target, vec3d, predictMovement.get(), obsidianPos);
+                float dmg = DamageField.crystalDamage(target, vec3d, predictMovement.get(), obsidianPos);
 
                 // Update best target
                 if (dmg > bestTargetDamage) {
@@ -1213,7 +1318,9 @@ public class CrystalAura extends Module {
         targets.clear();
 
         // Living Entities
-        for (Entity entity : mc.world.getEntities()) {
+        EntityIndex.getInRange(mc.player.getX(), mc.player.getY(), mc.player.getZ(), targetRange.get(), targetCandidates);
+
+        for (Entity entity : targetCandidates) {
             // Ignore non-living
             if (!(entity instanceof LivingEntity livingEntity)) continue;
 
@@ -1341,6 +1448,67 @@ public class CrystalAura extends Module {
         }
     }
 
+    private record PlaceInput(
+        long[] candidates, boolean[] hasBlocks,
+        List<LivingEntity> targets, LivingEntity nearestTarget,
+        Vec3d eyePos, double range, double wallsRange,
+        boolean placement112, boolean predictMovement, boolean fastSupport,
+        double maxDamage, boolean antiSuicide, float selfHealth, double minimumDamage
+    ) {}
+
+    private static class PlaceResult {
+        public long pos = Long.MIN_VALUE;
+        public float damage;
+        public boolean hasBlock;
+
+        public LivingEntity bestTarget;
+        public float bestTargetDamage;
+
+        /**
+         * Merges a result of the candidates following this one, keeping the serial tie breaking.
+         */
+        public PlaceResult merge(PlaceResult other) {
+            if (other.pos != Long.MIN_VALUE) {
+                if (pos == Long.MIN_VALUE || (other.hasBlock && !hasBlock) || (other.hasBlock == hasBlock && other.damage > damage)) {
+                    pos = other.pos;
+                    damage = other.damage;
+                    hasBlock = other.hasBlock;
+                }
+            }
+
+            if (other.bestTargetDamage > bestTargetDamage) {
+                bestTarget = other.bestTarget;
+                bestTargetDamage = other.bestTargetDamage;
+            }
+
+            return this;
+        }
+    }
+
+    private class PlaceTask extends RecursiveTask<PlaceResult> {
+        private final PlaceInput input;
+        private final int from, to;
+
+        public PlaceTask(PlaceInput input, int from, int to) {
+            this.input = input;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected PlaceResult compute() {
+            if (to - from <= PLACE_SPLIT) return evaluatePlaces(input, from, to);
+
+            int middle = (from + to) >>> 1;
+
+            PlaceTask left = new PlaceTask(input, from, middle);
+            left.fork();
+
+            PlaceResult right = new PlaceTask(input, middle, to).compute();
+            return left.join().merge(right);
+        }
+    }
+
     public enum YawStepMode {
         Break,
         All,
@@ -298,7 +298,8 @@ public class KillAura extends Module {
             targets.add(mc.targetedEntity);
         } else {
             targets.clear();
-            TargetUtils.getList(targets, this::entityCheck, priority.get(), maxTargets.get());
+            double r = range.get();
+            TargetUtils.getList(targets, Box.of(mc.player.getPos(), r * 2, r * 2, r * 2), this::entityCheck, priority.get(), maxTargets.get());
         }
 
         if (targets.isEmpty()) {
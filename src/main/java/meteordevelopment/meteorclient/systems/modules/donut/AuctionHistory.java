@@ -0,0 +1,355 @@
+/*
+ * This file is part of the Meteor Client distribution (https://github.com/MeteorDevelopment/meteor-client).
+ * Copyright (c) Meteor Development.
+ */
+
+package meteordevelopment.meteorclient.systems.modules.donut;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import meteordevelopment.meteorclient.MeteorClient;
+import meteordevelopment.meteorclient.utils.PreInit;
+import meteordevelopment.meteorclient.utils.network.MeteorExecutor;
+
+import javax.annotation.Nullable;
+import java.io.*;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Local time series of every auction listing snapshot fetched through {@link DonutAuctions}.
+ * <p>
+ * Snapshots are appended to one binary log per day in {@code meteor-client/auction-history}. Each log has its own
+ * item dictionary so item names are only written once per file. The last {@link #RETENTION_DAYS} days are loaded
+ * into an in-memory per-item index which answers percentile queries without touching the network, older logs are
+ * deleted.
+ */
+public class AuctionHistory {
+    public static final File FOLDER = new File(MeteorClient.FOLDER, "auction-history");
+    public static final int RETENTION_DAYS = 7;
+
+    private static final long DAY = 24L * 60 * 60 * 1000;
+
+    private static final byte ITEM = 0;
+    private static final byte SNAPSHOT = 1;
+
+    private static final Map<String, Series> SERIES = new ConcurrentHashMap<>();
+
+    private static final Object WRITE_LOCK = new Object();
+    private static final Object2IntOpenHashMap<String> DICTIONARY = new Object2IntOpenHashMap<>();
+    private static DataOutputStream out;
+    private static LocalDate outDate;
+    private static long recordedSince = Long.MAX_VALUE;
+
+    private AuctionHistory() {
+    }
+
+    @PreInit(dependencies = MeteorExecutor.class)
+    public static void init() {
+        MeteorExecutor.execute(AuctionHistory::load);
+    }
+
+    // Recording
+
+    /**
+     * Appends one snapshot of listings, as returned by the auction API, to today's log and the in-memory index.
+     */
+    public static void record(JsonArray listings) {
+        long time = System.currentTimeMillis();
+
+        int count = 0;
+        String[] names = new String[listings.size()];
+        double[] prices = new double[listings.size()];
+
+        for (JsonElement element : listings) {
+            if (!element.isJsonObject()) continue;
+            JsonObject listing = element.getAsJsonObject();
+            if (!listing.has("item") || !listing.has("price")) continue;
+
+            names[count] = normalize(listing.get("item").getAsString());
+            prices[count] = listing.get("price").getAsDouble();
+            count++;
+        }
+
+        if (count == 0) return;
+
+        synchronized (WRITE_LOCK) {
+            for (int i = 0; i < count; i++) {
+                SERIES.computeIfAbsent(names[i], s -> new Series()).add(time, prices[i]);
+            }
+
+            recordedSince = Math.min(recordedSince, time);
+
+            try {
+                DataOutputStream stream = getOutput();
+
+                for (int i = 0; i < count; i++) {
+                    if (!DICTIONARY.containsKey(names[i])) {
+                        int id = DICTIONARY.size();
+                        DICTIONARY.put(names[i], id);
+
+                        stream.writeByte(ITEM);
+                        stream.writeInt(id);
+                        stream.writeUTF(names[i]);
+                    }
+                }
+
+                stream.writeByte(SNAPSHOT);
+                stream.writeLong(time);
+                stream.writeInt(count);
+
+                for (int i = 0; i < count; i++) {
+                    stream.writeInt(DICTIONARY.getInt(names[i]));
+                    stream.writeDouble(prices[i]);
+                }
+
+                stream.flush();
+            } catch (IOException e) {
+                MeteorClient.LOG.error("Failed to write auction history", e);
+            }
+        }
+    }
+
+    private static DataOutputStream getOutput() throws IOException {
+        LocalDate today = LocalDate.now();
+
+        if (out == null || !today.equals(outDate)) {
+            if (out != null) out.close();
+            deleteExpired(today);
+
+            File file = getFile(today);
+            file.getParentFile().mkdirs();
+
+            // Re-read the dictionary of an existing log so ids stay consistent when appending to it
+            DICTIONARY.clear();
+            if (file.exists()) readLog(file, true);
+
+            out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file, true)));
+            outDate = today;
+        }
+
+        return out;
+    }
+
+    // Loading
+
+    private static void load() {
+        LocalDate today = LocalDate.now();
+
+        synchronized (WRITE_LOCK) {
+            deleteExpired(today);
+
+            for (int i = RETENTION_DAYS - 1; i >= 0; i--) {
+                File file = getFile(today.minusDays(i));
+                if (!file.exists()) continue;
+
+                try {
+                    readLog(file, false);
+                } catch (IOException e) {
+                    MeteorClient.LOG.error("Failed to read auction history '{}'", file.getName(), e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads a log, either only rebuilding {@link #DICTIONARY} or also indexing its snapshots.
+     * A record cut off by a crash is truncated so later appends stay readable.
+     */
+    private static void readLog(File file, boolean dictionaryOnly) throws IOException {
+        Int2ObjectOpenHashMap<String> ids = new Int2ObjectOpenHashMap<>();
+        long validLength = 0;
+
+        try (CountingInputStream counter = new CountingInputStream(new BufferedInputStream(new FileInputStream(file)));
+             DataInputStream in = new DataInputStream(counter)) {
+            while (true) {
+                int type = in.read();
+                if (type == -1) break;
+
+                if (type == ITEM) {
+                    int id = in.readInt();
+                    String name = in.readUTF();
+
+                    ids.put(id, name);
+                    if (dictionaryOnly) DICTIONARY.put(name, id);
+                }
+                else if (type == SNAPSHOT) {
+                    long time = in.readLong();
+                    int count = in.readInt();
+
+                    for (int i = 0; i < count; i++) {
+                        int id = in.readInt();
+                        double price = in.readDouble();
+
+                        // Snapshots recorded before loading finished are already indexed
+                        if (!dictionaryOnly && time < recordedSince) {
+                            String name = ids.get(id);
+                            if (name != null) SERIES.computeIfAbsent(name, s -> new Series()).add(time, price);
+                        }
+                    }
+                }
+                else break;
+
+                validLength = counter.count;
+            }
+        } catch (EOFException ignored) {}
+
+        if (validLength < file.length()) {
+            try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+                raf.setLength(validLength);
+            }
+        }
+    }
+
+    private static File getFile(LocalDate date) {
+        return new File(FOLDER, date + ".bin");
+    }
+
+    /**
+     * Deletes the logs of days which are no longer loaded.
+     */
+    private static void deleteExpired(LocalDate today) {
+        File[] files = FOLDER.listFiles((dir, name) -> name.endsWith(".bin"));
+        if (files == null) return;
+
+        LocalDate oldest = today.minusDays(RETENTION_DAYS - 1);
+
+        for (File file : files) {
+            LocalDate date;
+
+            try {
+                date = LocalDate.parse(file.getName().substring(0, file.getName().length() - 4));
+            } catch (DateTimeParseException e) {
+                continue;
+            }
+
+            if (date.isBefore(oldest) && !file.delete()) {
+                MeteorClient.LOG.warn("Failed to delete expired auction history '{}'", file.getName());
+            }
+        }
+    }
+
+    // Queries
+
+    /**
+     * @param itemName Item name in any of the forms used by the API or {@link meteordevelopment.meteorclient.utils.misc.Names}
+     * @param window Time window in milliseconds, counted back from now
+     * @return Price statistics over the window or {@code null} when there are no samples
+     */
+    @Nullable
+    public static Stats stats(String itemName, long window) {
+        Series series = SERIES.get(normalize(itemName));
+        if (series == null) return null;
+
+        return series.stats(System.currentTimeMillis() - window);
+    }
+
+    public static long windowHours(int hours) {
+        return hours * 60L * 60 * 1000;
+    }
+
+    public static String normalize(String itemName) {
+        String name = itemName.toLowerCase(Locale.ROOT).replace(' ', '_');
+        return name.startsWith("minecraft:") ? name.substring(10) : name;
+    }
+
+    public record Stats(int count, double min, double p10, double median, double p90) {}
+
+    private static class Series {
+        private long[] times = new long[16];
+        private double[] prices = new double[16];
+        private int size;
+
+        private double[] scratch = new double[0];
+
+        public synchronized void add(long time, double price) {
+            if (size == times.length) {
+                trim(System.currentTimeMillis() - RETENTION_DAYS * DAY);
+
+                if (size == times.length) {
+                    times = Arrays.copyOf(times, size * 2);
+                    prices = Arrays.copyOf(prices, size * 2);
+                }
+            }
+
+            // Samples almost always arrive in order, only loading older logs late could break it
+            int i = size;
+            while (i > 0 && times[i - 1] > time) i--;
+
+            if (i < size) {
+                System.arraycopy(times, i, times, i + 1, size - i);
+                System.arraycopy(prices, i, prices, i + 1, size - i);
+            }
+
+            times[i] = time;
+            prices[i] = price;
+            size++;
+        }
+
+        private void trim(long oldest) {
+            int start = lowerBound(oldest);
+            if (start == 0) return;
+
+            System.arraycopy(times, start, times, 0, size - start);
+            System.arraycopy(prices, start, prices, 0, size - start);
+            size -= start;
+        }
+
+        public synchronized Stats stats(long from) {
+            int start = lowerBound(from);
+            int count = size - start;
+            if (count <= 0) return null;
+
+            if (scratch.length < count) scratch = new double[times.length];
+            System.arraycopy(prices, start, scratch, 0, count);
+            Arrays.sort(scratch, 0, count);
+
+            return new Stats(count, scratch[0], percentile(count, 0.1), percentile(count, 0.5), percentile(count, 0.9));
+        }
+
+        private double percentile(int count, double percentile) {
+            return scratch[(int) Math.round(percentile * (count - 1))];
+        }
+
+        private int lowerBound(long time) {
+            int low = 0, high = size;
+
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (times[mid] < time) low = mid + 1;
+                else high = mid;
+            }
+
+            return low;
+        }
+    }
+
+    private static class CountingInputStream extends FilterInputStream {
+        private long count;
+
+        public CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) count++;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) count += n;
+            return n;
+        }
+    }
+}
@@ -5,29 +5,31 @@
 
 package meteordevelopment.meteorclient.systems.modules.donut;
 
-import com.google.gson.JsonArray;
-import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
+import meteordevelopment.meteorclient.events.world.TickEvent;
 import meteordevelopment.meteorclient.settings.BoolSetting;
 import meteordevelopment.meteorclient.settings.DoubleSetting;
 import meteordevelopment.meteorclient.settings.EnumSetting;
+import meteordevelopment.meteorclient.settings.IntSetting;
 import meteordevelopment.meteorclient.settings.Setting;
 import meteordevelopment.meteorclient.settings.SettingGroup;
 import meteordevelopment.meteorclient.systems.modules.Categories;
 import meteordevelopment.meteorclient.systems.modules.Module;
-import meteordevelopment.meteorclient.systems.modules.donut.DonutSMPConstants;
 import meteordevelopment.meteorclient.utils.misc.Names;
-import meteordevelopment.meteorclient.utils.network.Http;
 import meteordevelopment.meteorclient.utils.player.ChatUtils;
+import meteordevelopment.orbit.EventHandler;
 import net.minecraft.item.ItemStack;
 
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
 import static meteordevelopment.meteorclient.MeteorClient.mc;
 
 public class AutoAH extends Module {
     public enum PriceMode {
         Highest("Highest"),
-        Lowest("Lowest");
+        Lowest("Lowest"),
+        History("History");
         
         private final String title;
         
@@ -41,6 +43,15 @@ public class AutoAH extends Module {
         }
     }
     
+    public enum HistoryStat {
+        Min,
+        P10,
+        Median,
+        P90
+    }
+
+    private static final int PRICE_TIMEOUT_TICKS = 10 * 20;
+
     private final SettingGroup sgGeneral = settings.getDefaultGroup();
     
     private final Setting<Boolean> autoSell = sgGeneral.add(new BoolSetting.Builder()
@@ -55,16 +66,48 @@ public class AutoAH extends Module {
         .defaultValue(PriceMode.Highest)
         .build());
     
+    private final Setting<HistoryStat> historyStat = sgGeneral.add(new EnumSetting.Builder<HistoryStat>()
+        .name("history-stat")
+        .description("Which statistic of the locally recorded auction prices to use as reference.")
+        .defaultValue(HistoryStat.Median)
+        .visible(() -> priceMode.get() == PriceMode.History)
+        .build());
+
+    private final Setting<Integer> historyWindow = sgGeneral.add(new IntSetting.Builder()
+        .name("history-window")
+        .description("How many hours of recorded auction prices to use.")
+        .defaultValue(24)
+        .range(1, AuctionHistory.RETENTION_DAYS * 24)
+        .sliderRange(1, 72)
+        .visible(() -> priceMode.get() == PriceMode.History)
+        .build());
+
+    private final Setting<Double> historyMultiplier = sgGeneral.add(new DoubleSetting.Builder()
+        .name("history-multiplier")
+        .description("Multiplier for the recorded auction price, 1 sells at exactly that price.")
+        .defaultValue(1.0)
+        .min(0.05)
+        .max(10.0)
+        .sliderRange(0.05, 5.0)
+        .decimalPlaces(2)
+        .visible(() -> priceMode.get() == PriceMode.History)
+        .build());
+
     private final Setting<Double> priceMultiplier = sgGeneral.add(new DoubleSetting.Builder()
         .name("price-multiplier")
-        .description("Multiplier for the reference auction price.")
+        .description("Fraction of the reference auction price added to the highest or subtracted from the lowest price.")
         .defaultValue(1.0)
         .min(0.05)
         .max(10.0)
         .sliderRange(0.05, 5.0)
         .decimalPlaces(2)
+        .visible(() -> priceMode.get() != PriceMode.History)
         .build());
 
+    private CompletableFuture<Double> pendingPrice;
+    private String pendingItemName;
+    private int pendingTicks;
+
     public AutoAH() {
         super(Categories.Donut, "auto-ah", "Automatically opens auction house for the held item or sells it at market price.");
     }
@@ -85,59 +128,101 @@ public class AutoAH extends Module {
 
         String itemName = Names.get(heldItem);
         
+        if (autoSell.get() && priceMode.get() == PriceMode.History) {
+            sellFromHistory(itemName);
+            toggle();
+            return;
+        }
+
         if (autoSell.get()) {
-            double referencePrice = getItemPrice(itemName, priceMode.get());
-            if (referencePrice > 0) {
-                double sellPrice;
-                if (priceMode.get() == PriceMode.Highest) {
-                    sellPrice = referencePrice + (referencePrice * priceMultiplier.get());
-                } else {
-                    sellPrice = referencePrice - (referencePrice * priceMultiplier.get());
-                }
-                ChatUtils.sendPlayerMsg("/ah sell " + Math.round(sellPrice));
-                info("Selling %s for %d coins (%s: %d, multiplier: %.2fx)", itemName, Math.round(sellPrice), priceMode.get().toString().toLowerCase(), Math.round(referencePrice), priceMultiplier.get());
-            } else {
-                error("Could not fetch auction prices for: " + itemName);
-            }
-        } else {
-            String formattedName = itemName.replace(" ", "_");
-            ChatUtils.sendPlayerMsg("/ah " + formattedName);
-            info("Opening auction house for: " + itemName);
+            String sortMode = priceMode.get() == PriceMode.Highest ? "highest_price" : "lowest_price";
+
+            pendingPrice = DonutAuctions.getPrice(itemName, sortMode);
+            pendingItemName = itemName;
+            pendingTicks = 0;
+
+            // Cached prices resolve immediately, otherwise the sell finishes on a later tick
+            if (pendingPrice.isDone()) finishSell();
+            return;
         }
-        
+
+        String formattedName = itemName.replace(" ", "_");
+        ChatUtils.sendPlayerMsg("/ah " + formattedName);
+        info("Opening auction house for: " + itemName);
+
         toggle();
     }
-    
-    private double getItemPrice(String itemName, PriceMode mode) {
+
+    @Override
+    public void onDeactivate() {
+        pendingPrice = null;
+        pendingItemName = null;
+    }
+
+    @EventHandler
+    private void onTick(TickEvent.Pre event) {
+        if (pendingPrice == null) return;
+
+        if (pendingPrice.isDone()) finishSell();
+        else if (++pendingTicks >= PRICE_TIMEOUT_TICKS) {
+            error("Timed out fetching auction prices for: " + pendingItemName);
+            toggle();
+        }
+    }
+
+    private void sellFromHistory(String itemName) {
+        AuctionHistory.Stats stats = AuctionHistory.stats(itemName, AuctionHistory.windowHours(historyWindow.get()));
+        if (stats == null) {
+            error("No recorded auction prices for %s in the last %d hours.", itemName, historyWindow.get());
+            return;
+        }
+
+        double referencePrice = switch (historyStat.get()) {
+            case Min -> stats.min();
+            case P10 -> stats.p10();
+            case Median -> stats.median();
+            case P90 -> stats.p90();
+        };
+
+        double sellPrice = referencePrice * historyMultiplier.get();
+        ChatUtils.sendPlayerMsg("/ah sell " + Math.round(sellPrice));
+        info("Selling %s for %d coins (%s of %d listings: %d, multiplier: %.2fx)", itemName, Math.round(sellPrice), historyStat.get().toString().toLowerCase(), stats.count(), Math.round(referencePrice), historyMultiplier.get());
+    }
+
+    private void finishSell() {
+        String itemName = pendingItemName;
+        double referencePrice;
+
         try {
-            String sortMode = mode == PriceMode.Highest ? "highest_price" : "lowest_price";
-            String jsonBody = "{\"search\":\"" + itemName + "\",\"sort\":\"" + sortMode + "\"}";
-            String response = Http.post("https://api.donutsmp.net/v1/auction/list/1")
-                .bearer(DonutSMPConstants.API_TOKEN)
-                .bodyJson(jsonBody)
-                .sendString();
-            
-            if (response == null || response.isEmpty()) {
-                return 0.0;
-            }
-            
-            JsonObject jsonResponse = JsonParser.parseString(response).getAsJsonObject();
-            JsonArray results = jsonResponse.getAsJsonArray("result");
-            
-            if (results != null && results.size() > 0) {
-                JsonElement firstResult = results.get(0);
-                if (firstResult.isJsonObject()) {
-                    JsonObject firstItem = firstResult.getAsJsonObject();
-                    if (firstItem.has("price")) {
-                        return firstItem.get("price").getAsDouble();
-                    }
-                }
+            referencePrice = pendingPrice.join();
+        } catch (CompletionException | CancellationException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            error("Failed to fetch auction prices: " + cause.getMessage());
+            toggle();
+            return;
+        }
+
+        // The price may have taken a while, /ah sell lists whatever is held right now
+        ItemStack heldItem = mc.player != null ? mc.player.getMainHandStack() : ItemStack.EMPTY;
+        if (heldItem.isEmpty() || !Names.get(heldItem).equals(itemName)) {
+            error("No longer holding %s, not selling.", itemName);
+            toggle();
+            return;
+        }
+
+        if (referencePrice > 0) {
+            double sellPrice;
+            if (priceMode.get() == PriceMode.Highest) {
+                sellPrice = referencePrice + (referencePrice * priceMultiplier.get());
+            } else {
+                sellPrice = referencePrice - (referencePrice * priceMultiplier.get());
             }
-            
-            return 0.0;
-        } catch (Exception e) {
-            error("Failed to fetch auction prices: " + e.getMessage());
-            return 0.0;
+            ChatUtils.sendPlayerMsg("/ah sell " + Math.round(sellPrice));
+            info("Selling %s for %d coins (%s: %d, multiplier: %.2fx)", itemName, Math.round(sellPrice), priceMode.get().toString().toLowerCase(), Math.round(referencePrice), priceMultiplier.get());
+        } else {
+            error("Could not fetch auction prices for: " + itemName);
         }
+
+        toggle();
     }
 }
@@ -0,0 +1,121 @@
+/*
+ * This file is part of the Meteor Client distribution (https://github.com/MeteorDevelopment/meteor-client).
+ * Copyright (c) Meteor Development.
+ */
+
+package meteordevelopment.meteorclient.systems.modules.donut;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import meteordevelopment.meteorclient.utils.network.Http;
+import meteordevelopment.meteorclient.utils.network.MeteorExecutor;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Shared, asynchronous access to the DonutSMP auction API.
+ * <p>
+ * Price lookups are cached per item and sort mode for {@link #CACHE_TTL} milliseconds and concurrent lookups
+ * for the same key share a single request, so callers on the client thread never block on the network.
+ * Every fetched page is also appended to the local {@link AuctionHistory}.
+ */
+public class DonutAuctions {
+    public static final long CACHE_TTL = 60 * 1000;
+
+    private static final Map<Key, CachedPrice> PRICES = new ConcurrentHashMap<>();
+    private static final Map<Key, CompletableFuture<Double>> PENDING = new HashMap<>();
+
+    private DonutAuctions() {
+    }
+
+    /**
+     * Looks up the price of the first listing for the given item.
+     *
+     * @param itemName Item name used as the search query
+     * @param sort API sort parameter, e.g. {@code highest_price} or {@code lowest_price}
+     * @return Future completing with the reference price, or {@code 0} when there are no listings
+     */
+    public static CompletableFuture<Double> getPrice(String itemName, String sort) {
+        Key key = new Key(itemName, sort);
+
+        CachedPrice cached = PRICES.get(key);
+        if (cached != null && System.currentTimeMillis() - cached.time() < CACHE_TTL) {
+            return CompletableFuture.completedFuture(cached.price());
+        }
+
+        CompletableFuture<Double> future;
+
+        synchronized (PENDING) {
+            future = PENDING.get(key);
+            if (future != null) return future;
+
+            future = fetchPrice(key);
+            PENDING.put(key, future);
+        }
+
+        // Attached after the future is registered so a request that finishes instantly still gets removed
+        CompletableFuture<Double> registered = future;
+        future.whenComplete((price, ex) -> {
+            if (ex == null) PRICES.put(key, new CachedPrice(price, System.currentTimeMillis()));
+
+            synchronized (PENDING) {
+                PENDING.remove(key, registered);
+            }
+        });
+
+        return future;
+    }
+
+    public static void clearCache() {
+        PRICES.clear();
+    }
+
+    private static CompletableFuture<Double> fetchPrice(Key key) {
+        return CompletableFuture.supplyAsync(() -> {
+            JsonArray results = listPage(key.itemName(), key.sort(), 1);
+
+            if (!results.isEmpty()) {
+                JsonElement first = results.get(0);
+                if (first.isJsonObject() && first.getAsJsonObject().has("price")) {
+                    return first.getAsJsonObject().get("price").getAsDouble();
+                }
+            }
+
+            return 0.0;
+        }, MeteorExecutor.executor);
+    }
+
+    /**
+     * Blocking request for a single page of auction listings, only call this off the client thread.
+     *
+     * @throws IllegalStateException when the API does not respond
+     */
+    public static JsonArray listPage(String search, String sort, int page) {
+        JsonObject body = new JsonObject();
+        body.addProperty("search", search);
+        body.addProperty("sort", sort);
+
+        String response = Http.post(DonutSMPConstants.API_BASE_URL + "/auction/list/" + page)
+            .bearer(DonutSMPConstants.API_TOKEN)
+            .bodyJson(body.toString())
+            .ignoreExceptions()
+            .sendString();
+
+        if (response == null || response.isEmpty()) throw new IllegalStateException("No response from the auction API");
+
+        JsonArray results = JsonParser.parseString(response).getAsJsonObject().getAsJsonArray("result");
+        if (results == null) return new JsonArray();
+
+        AuctionHistory.record(results);
+        return results;
+    }
+
+    private record Key(String itemName, String sort) {}
+
+    private record CachedPrice(double price, long time) {}
+}
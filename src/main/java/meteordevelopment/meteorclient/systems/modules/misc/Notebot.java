@@ -7,6 +7,7 @@ package meteordevelopment.meteorclient.systems.modules.misc;
 
 import com.google.common.collect.Multimap;
 import com.google.common.collect.MultimapBuilder;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
 import meteordevelopment.meteorclient.MeteorClient;
 import meteordevelopment.meteorclient.events.render.Render2DEvent;
 import meteordevelopment.meteorclient.events.render.Render3DEvent;
@@ -31,6 +32,7 @@ import meteordevelopment.meteorclient.utils.player.Rotations;
 import meteordevelopment.meteorclient.utils.render.NametagUtils;
 import meteordevelopment.meteorclient.utils.render.color.Color;
 import meteordevelopment.meteorclient.utils.render.color.SettingColor;
+import meteordevelopment.meteorclient.utils.world.BlockScanner;
 import meteordevelopment.orbit.EventHandler;
 import net.minecraft.block.BlockState;
 import net.minecraft.block.Blocks;
@@ -41,6 +43,7 @@ import net.minecraft.network.packet.c2s.play.PlayerInteractBlockC2SPacket;
 import net.minecraft.sound.SoundEvents;
 import net.minecraft.util.Hand;
 import net.minecraft.util.hit.BlockHitResult;
+import net.minecraft.util.math.BlockBox;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.Direction;
 import net.minecraft.util.math.Vec3d;
@@ -232,6 +235,8 @@ public class Notebot extends Module {
         .build()
     );
 
+    private final BlockScanner noteblockScanner = new BlockScanner(List.of(Blocks.NOTE_BLOCK));
+
     private CompletableFuture<Song> loadingSongFuture = null;
 
     private Song song; // Loaded song
@@ -770,25 +775,32 @@ public class Notebot extends Module {
         int min = (int) (-mc.player.getBlockInteractionRange()) - 2;
         int max = (int) mc.player.getBlockInteractionRange() + 2;
 
-        // Scan for noteblocks horizontally
-        // 6^3 kek
-        for (int y = min; y < max; y++) {
-            for (int x = min; x < max; x++) {
-                for (int z = min; z < max; z++) {
-                    BlockPos pos = mc.player.getBlockPos().add(x, y + 1, z);
+        // Same cube as before, noteblocks are found through the section palettes
+        BlockPos center = mc.player.getBlockPos();
+        BlockBox box = new BlockBox(center.getX() + min, center.getY() + min + 1, center.getZ() + min, center.getX() + max - 1, center.getY() + max, center.getZ() + max - 1);
 
-                    BlockState blockState = mc.world.getBlockState(pos);
-                    if (blockState.getBlock() != Blocks.NOTE_BLOCK) continue;
+        LongArrayList found = new LongArrayList();
+        noteblockScanner.scan(mc.world, box, found::add);
 
-                    // Copied from ServerPlayNetworkHandler#onPlayerInteractBlock
-                    if (!mc.player.canInteractWithBlockAt(pos, 1)) continue;
+        // Keep the original y, x, z scan order
+        found.sort((a, b) -> {
+            int cmp = Integer.compare(BlockPos.unpackLongY(a), BlockPos.unpackLongY(b));
+            if (cmp == 0) cmp = Integer.compare(BlockPos.unpackLongX(a), BlockPos.unpackLongX(b));
+            if (cmp == 0) cmp = Integer.compare(BlockPos.unpackLongZ(a), BlockPos.unpackLongZ(b));
+            return cmp;
+        });
 
-                    if (!isValidScanSpot(pos)) continue;
+        for (int i = 0; i < found.size(); i++) {
+            BlockPos pos = BlockPos.fromLong(found.getLong(i));
+            BlockState blockState = mc.world.getBlockState(pos);
 
-                    Note note = NotebotUtils.getNoteFromNoteBlock(blockState, pos, mode.get(), instrumentDetectMode.get().getInstrumentDetectFunction());
-                    scannedNoteblocks.put(note, pos);
-                }
-            }
+            // Copied from ServerPlayNetworkHandler#onPlayerInteractBlock
+            if (!mc.player.canInteractWithBlockAt(pos, 1)) continue;
+
+            if (!isValidScanSpot(pos)) continue;
+
+            Note note = NotebotUtils.getNoteFromNoteBlock(blockState, pos, mode.get(), instrumentDetectMode.get().getInstrumentDetectFunction());
+            scannedNoteblocks.put(note, pos);
         }
     }
 
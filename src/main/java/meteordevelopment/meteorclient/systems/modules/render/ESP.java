@@ -11,9 +11,9 @@ import meteordevelopment.meteorclient.renderer.Renderer2D;
 import meteordevelopment.meteorclient.renderer.ShapeMode;
 import meteordevelopment.meteorclient.settings.*;
 import meteordevelopment.meteorclient.systems.config.Config;
-import meteordevelopment.meteorclient.systems.friends.Friends;
 import meteordevelopment.meteorclient.systems.modules.Categories;
 import meteordevelopment.meteorclient.systems.modules.Module;
+import meteordevelopment.meteorclient.utils.entity.EntityIndex;
 import meteordevelopment.meteorclient.utils.entity.EntityUtils;
 import meteordevelopment.meteorclient.utils.player.PlayerUtils;
 import meteordevelopment.meteorclient.utils.render.NametagUtils;
@@ -28,6 +28,8 @@ import net.minecraft.util.math.Box;
 import net.minecraft.util.math.MathHelper;
 import org.joml.Vector3d;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
 
 public class ESP extends Module {
@@ -178,6 +180,7 @@ public class ESP extends Module {
     private final Vector3d pos2 = new Vector3d();
     private final Vector3d pos = new Vector3d();
 
+    private final List<Entity> entityList = new ArrayList<>();
     private int count;
 
     public ESP() {
@@ -192,7 +195,9 @@ public class ESP extends Module {
 
         count = 0;
 
-        for (Entity entity : mc.world.getEntities()) {
+        EntityIndex.get(entities.get(), entityList);
+
+        for (Entity entity : entityList) {
             if (shouldSkip(entity)) continue;
 
             if (mode.get() == Mode.Box || mode.get() == Mode.Wireframe) drawBoundingBox(event, entity);
@@ -213,7 +218,7 @@ public class ESP extends Module {
             double z = MathHelper.lerp(event.tickDelta, entity.lastRenderZ, entity.getZ()) - entity.getZ();
 
             Box box = entity.getBoundingBox();
-            event.renderer.box(x + box.minX, y + box.minY, z + box.minZ, x + box.maxX, y + box.maxY, z + box.maxZ, sideColor, lineColor, shapeMode.get(), 0);
+            event.renderer.instancedBox(x + box.minX, y + box.minY, z + box.minZ, x + box.maxX, y + box.maxY, z + box.maxZ, sideColor, lineColor, shapeMode.get(), 0);
         } else {
             WireframeEntityRenderer.render(event, entity, 1, sideColor, lineColor, shapeMode.get());
         }
@@ -228,7 +233,9 @@ public class ESP extends Module {
         Renderer2D.COLOR.begin();
         count = 0;
 
-        for (Entity entity : mc.world.getEntities()) {
+        EntityIndex.get(entities.get(), entityList);
+
+        for (Entity entity : entityList) {
             if (shouldSkip(entity)) continue;
 
             Box box = entity.getBoundingBox();
@@ -325,7 +332,7 @@ public class ESP extends Module {
 
     public Color getEntityTypeColor(Entity entity) {
         if (distance.get()) {
-            if (friendOverride.get() && entity instanceof PlayerEntity && Friends.get().isFriend((PlayerEntity) entity)) {
+            if (friendOverride.get() && entity instanceof PlayerEntity && EntityIndex.isFriend(entity)) {
                 return Config.get().friendColor.get();
             } else return EntityUtils.getColorFromDistance(entity);
         } else if (entity instanceof PlayerEntity) {
@@ -32,6 +32,8 @@ import java.util.ArrayList;
 import java.util.List;
 
 public class HoleESP extends Module {
+    private static final long ITERATOR_BUDGET = 1_000_000;
+
     private final SettingGroup sgGeneral = settings.getDefaultGroup();
     private final SettingGroup sgRender = settings.createGroup("Render");
 
@@ -159,7 +161,8 @@ public class HoleESP extends Module {
     );
 
     private final Pool<Hole> holePool = new Pool<>(Hole::new);
-    private final List<Hole> holes = new ArrayList<>();
+    private List<Hole> holes = new ArrayList<>();
+    private List<Hole> pendingHoles = new ArrayList<>();
 
     private final byte NULL = 0;
 
@@ -167,13 +170,18 @@ public class HoleESP extends Module {
         super(Categories.Render, "hole-esp", "Displays holes that you will take less damage in.");
     }
 
-    @EventHandler
-    private void onTick(TickEvent.Pre event) {
+    @Override
+    public void onDeactivate() {
         for (Hole hole : holes) holePool.free(hole);
         holes.clear();
 
-        // Probe for holes
-        BlockIterator.register(horizontalRadius.get(), verticalRadius.get(), (blockPos, blockState) -> {
+        clearPendingHoles();
+    }
+
+    @EventHandler
+    private void onTick(TickEvent.Pre event) {
+        // Probe for holes, at low priority so a sweep can take several ticks while the previous result stays visible
+        BlockIterator.register(this, horizontalRadius.get(), verticalRadius.get(), ITERATOR_BUDGET, (blockPos, blockState) -> {
             if (!validHole(blockPos)) return;
 
             int bedrock = 0, obsidian = 0;
@@ -205,12 +213,26 @@ public class HoleESP extends Module {
             }
 
             if (obsidian + bedrock == 5 && air == null) {
-                holes.add(holePool.get().set(blockPos, obsidian == 5 ? Hole.Type.Obsidian : (bedrock == 5 ? Hole.Type.Bedrock : Hole.Type.Mixed), NULL));
+                pendingHoles.add(holePool.get().set(blockPos, obsidian == 5 ? Hole.Type.Obsidian : (bedrock == 5 ? Hole.Type.Bedrock : Hole.Type.Mixed), NULL));
             }
             else if (obsidian + bedrock == 8 && doubles.get() && air != null) {
-                holes.add(holePool.get().set(blockPos, obsidian == 8 ? Hole.Type.Obsidian : (bedrock == 8 ? Hole.Type.Bedrock : Hole.Type.Mixed), Dir.get(air)));
+                pendingHoles.add(holePool.get().set(blockPos, obsidian == 8 ? Hole.Type.Obsidian : (bedrock == 8 ? Hole.Type.Bedrock : Hole.Type.Mixed), Dir.get(air)));
             }
-        });
+        }, this::clearPendingHoles, this::swapHoles);
+    }
+
+    private void clearPendingHoles() {
+        for (Hole hole : pendingHoles) holePool.free(hole);
+        pendingHoles.clear();
+    }
+
+    private void swapHoles() {
+        for (Hole hole : holes) holePool.free(hole);
+        holes.clear();
+
+        List<Hole> swap = holes;
+        holes = pendingHoles;
+        pendingHoles = swap;
     }
 
     private boolean validHole(BlockPos pos) {
@@ -23,6 +23,8 @@ import java.util.ArrayList;
 import java.util.List;
 
 public class LightOverlay extends Module {
+    private static final long ITERATOR_BUDGET = 1_000_000;
+
     private final SettingGroup sgGeneral = settings.getDefaultGroup();
     private final SettingGroup sgColors = settings.createGroup("Colors");
 
@@ -77,23 +79,44 @@ public class LightOverlay extends Module {
     );
 
     private final Pool<Cross> crossPool = new Pool<>(Cross::new);
-    private final List<Cross> crosses = new ArrayList<>();
+    private List<Cross> crosses = new ArrayList<>();
+    private List<Cross> pendingCrosses = new ArrayList<>();
 
     public LightOverlay() {
         super(Categories.Render, "light-overlay", "Shows blocks where mobs can spawn.");
     }
 
-    @EventHandler
-    private void onTick(TickEvent.Pre event) {
+    @Override
+    public void onDeactivate() {
         for (Cross cross : crosses) crossPool.free(cross);
         crosses.clear();
 
-        BlockIterator.register(horizontalRange.get(), verticalRange.get(), (blockPos, blockState) -> {
+        clearPendingCrosses();
+    }
+
+    @EventHandler
+    private void onTick(TickEvent.Pre event) {
+        // Low priority, a sweep can take several ticks and the previous result stays visible until it finishes
+        BlockIterator.register(this, horizontalRange.get(), verticalRange.get(), ITERATOR_BUDGET, (blockPos, blockState) -> {
             switch (BlockUtils.isValidMobSpawn(blockPos, blockState, lightLevel.get())) {
-                case Potential -> crosses.add(crossPool.get().set(blockPos, true));
-                case Always -> crosses.add((crossPool.get().set(blockPos, false)));
+                case Potential -> pendingCrosses.add(crossPool.get().set(blockPos, true));
+                case Always -> pendingCrosses.add((crossPool.get().set(blockPos, false)));
             }
-        });
+        }, this::clearPendingCrosses, this::swapCrosses);
+    }
+
+    private void clearPendingCrosses() {
+        for (Cross cross : pendingCrosses) crossPool.free(cross);
+        pendingCrosses.clear();
+    }
+
+    private void swapCrosses() {
+        for (Cross cross : crosses) crossPool.free(cross);
+        crosses.clear();
+
+        List<Cross> swap = crosses;
+        crosses = pendingCrosses;
+        pendingCrosses = swap;
     }
 
     @EventHandler
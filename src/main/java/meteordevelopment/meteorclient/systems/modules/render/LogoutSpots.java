@@ -15,6 +15,7 @@ import meteordevelopment.meteorclient.renderer.text.TextRenderer;
 import meteordevelopment.meteorclient.settings.*;
 import meteordevelopment.meteorclient.systems.modules.Categories;
 import meteordevelopment.meteorclient.systems.modules.Module;
+import meteordevelopment.meteorclient.utils.entity.EntityIndex;
 import meteordevelopment.meteorclient.utils.player.PlayerUtils;
 import meteordevelopment.meteorclient.utils.render.NametagUtils;
 import meteordevelopment.meteorclient.utils.render.color.Color;
@@ -22,7 +23,6 @@ import meteordevelopment.meteorclient.utils.render.color.SettingColor;
 import meteordevelopment.meteorclient.utils.world.Dimension;
 import meteordevelopment.orbit.EventHandler;
 import net.minecraft.client.network.PlayerListEntry;
-import net.minecraft.entity.Entity;
 import net.minecraft.entity.player.PlayerEntity;
 import org.joml.Vector3d;
 
@@ -122,9 +122,7 @@ public class LogoutSpots extends Module {
 
     private void updateLastPlayers() {
         lastPlayers.clear();
-        for (Entity entity : mc.world.getEntities()) {
-            if (entity instanceof PlayerEntity) lastPlayers.add((PlayerEntity) entity);
-        }
+        lastPlayers.addAll(EntityIndex.getPlayers());
     }
 
     @EventHandler
@@ -14,12 +14,12 @@ import meteordevelopment.meteorclient.renderer.Renderer2D;
 import meteordevelopment.meteorclient.renderer.text.TextRenderer;
 import meteordevelopment.meteorclient.settings.*;
 import meteordevelopment.meteorclient.systems.config.Config;
-import meteordevelopment.meteorclient.systems.friends.Friends;
 import meteordevelopment.meteorclient.systems.modules.Categories;
 import meteordevelopment.meteorclient.systems.modules.Module;
 import meteordevelopment.meteorclient.systems.modules.Modules;
 import meteordevelopment.meteorclient.systems.modules.misc.NameProtect;
 import meteordevelopment.meteorclient.utils.Utils;
+import meteordevelopment.meteorclient.utils.entity.EntityIndex;
 import meteordevelopment.meteorclient.utils.entity.EntityUtils;
 import meteordevelopment.meteorclient.utils.misc.Names;
 import meteordevelopment.meteorclient.utils.player.PlayerUtils;
@@ -296,6 +296,7 @@ public class Nametags extends Module {
     private final double[] itemWidths = new double[6];
 
     private final List<Entity> entityList = new ArrayList<>();
+    private final List<Entity> candidates = new ArrayList<>();
 
     public Nametags() {
         super(Categories.Render, "nametags", "Displays customizable nametags above players, items and other entities.");
@@ -323,14 +324,15 @@ public class Nametags extends Module {
         boolean notThirdPerson = mc.options.getPerspective().isFirstPerson();
         Vec3d cameraPos = mc.gameRenderer.getCamera().getPos();
 
-        for (Entity entity : mc.world.getEntities()) {
+        EntityIndex.get(entities.get(), candidates);
+
+        for (Entity entity : candidates) {
             EntityType<?> type = entity.getType();
-            if (!entities.get().contains(type)) continue;
 
             if (type == EntityType.PLAYER) {
                 if ((ignoreSelf.get() || (freecamNotActive && notThirdPerson)) && entity == mc.player) continue;
                 if (EntityUtils.getGameMode((PlayerEntity) entity) == null && ignoreBots.get()) continue;
-                if (Friends.get().isFriend((PlayerEntity) entity) && ignoreFriends.get()) continue;
+                if (EntityIndex.isFriend(entity) && ignoreFriends.get()) continue;
             }
 
             if (!culling.get() || PlayerUtils.isWithinCamera(entity, maxCullRange.get())) {
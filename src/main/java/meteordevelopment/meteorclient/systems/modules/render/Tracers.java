@@ -10,10 +10,10 @@ import meteordevelopment.meteorclient.events.render.Render3DEvent;
 import meteordevelopment.meteorclient.renderer.Renderer2D;
 import meteordevelopment.meteorclient.settings.*;
 import meteordevelopment.meteorclient.systems.config.Config;
-import meteordevelopment.meteorclient.systems.friends.Friends;
 import meteordevelopment.meteorclient.systems.modules.Categories;
 import meteordevelopment.meteorclient.systems.modules.Module;
 import meteordevelopment.meteorclient.systems.modules.Modules;
+import meteordevelopment.meteorclient.utils.entity.EntityIndex;
 import meteordevelopment.meteorclient.utils.entity.EntityUtils;
 import meteordevelopment.meteorclient.utils.entity.Target;
 import meteordevelopment.meteorclient.utils.player.PlayerUtils;
@@ -31,6 +31,8 @@ import org.joml.Vector3d;
 
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
 
 public class Tracers extends Module {
@@ -210,6 +212,7 @@ public class Tracers extends Module {
         .build()
     );
 
+    private final List<Entity> entityList = new ArrayList<>();
     private int count;
     private final Instant initTimer = Instant.now();
 
@@ -218,14 +221,14 @@ public class Tracers extends Module {
     }
 
     private boolean shouldBeIgnored(Entity entity) {
-        return !PlayerUtils.isWithin(entity, maxDist.get()) || (!Modules.get().isActive(Freecam.class) && entity == mc.player) || !entities.get().contains(entity.getType()) || (ignoreSelf.get() && entity == mc.player) || (ignoreFriends.get() && entity instanceof PlayerEntity && Friends.get().isFriend((PlayerEntity) entity)) || (!showInvis.get() && entity.isInvisible()) | !EntityUtils.isInRenderDistance(entity);
+        return !PlayerUtils.isWithin(entity, maxDist.get()) || (!Modules.get().isActive(Freecam.class) && entity == mc.player) || !entities.get().contains(entity.getType()) || (ignoreSelf.get() && entity == mc.player) || (ignoreFriends.get() && entity instanceof PlayerEntity && EntityIndex.isFriend(entity)) || (!showInvis.get() && entity.isInvisible()) | !EntityUtils.isInRenderDistance(entity);
     }
 
     private Color getEntityColor(Entity entity) {
         Color color;
 
         if (distance.get()) {
-            if (friendOverride.get() && entity instanceof PlayerEntity && Friends.get().isFriend((PlayerEntity) entity)) {
+            if (friendOverride.get() && entity instanceof PlayerEntity && EntityIndex.isFriend(entity)) {
                 color = Config.get().friendColor.get();
             }
             else color = EntityUtils.getColorFromDistance(entity);
@@ -251,7 +254,9 @@ public class Tracers extends Module {
         if (mc.options.hudHidden || style.get() == TracerStyle.Offscreen) return;
         count = 0;
 
-        for (Entity entity : mc.world.getEntities()) {
+        EntityIndex.get(entities.get(), entityList);
+
+        for (Entity entity : entityList) {
             if (shouldBeIgnored(entity)) continue;
 
             Color color = getEntityColor(entity);
@@ -278,7 +283,9 @@ public class Tracers extends Module {
 
         Renderer2D.COLOR.begin();
 
-        for (Entity entity : mc.world.getEntities()) {
+        EntityIndex.get(entities.get(), entityList);
+
+        for (Entity entity : entityList) {
             if (shouldBeIgnored(entity)) continue;
 
             Color color = getEntityColor(entity);
@@ -11,7 +11,10 @@ import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
 import meteordevelopment.meteorclient.events.render.Render3DEvent;
 import meteordevelopment.meteorclient.events.world.BlockUpdateEvent;
 import meteordevelopment.meteorclient.events.world.ChunkDataEvent;
+import meteordevelopment.meteorclient.events.world.ChunkUnloadEvent;
 import meteordevelopment.meteorclient.events.world.TickEvent;
+import meteordevelopment.meteorclient.renderer.MeteorRenderPipelines;
+import meteordevelopment.meteorclient.renderer.Renderer3D;
 import meteordevelopment.meteorclient.renderer.ShapeMode;
 import meteordevelopment.meteorclient.settings.*;
 import meteordevelopment.meteorclient.systems.modules.Categories;
@@ -20,19 +23,20 @@ import meteordevelopment.meteorclient.utils.Utils;
 import meteordevelopment.meteorclient.utils.player.PlayerUtils;
 import meteordevelopment.meteorclient.utils.render.color.RainbowColors;
 import meteordevelopment.meteorclient.utils.render.color.SettingColor;
+import meteordevelopment.meteorclient.utils.world.BlockScanner;
 import meteordevelopment.meteorclient.utils.world.Dimension;
 import meteordevelopment.orbit.EventHandler;
 import net.minecraft.block.Block;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.ChunkPos;
 import net.minecraft.world.chunk.Chunk;
+import org.joml.Matrix4f;
 
+import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 public class BlockESP extends Module {
     private final SettingGroup sgGeneral = settings.getDefaultGroup();
@@ -81,8 +85,15 @@ public class BlockESP extends Module {
 
     private final Long2ObjectMap<ESPChunk> chunks = new Long2ObjectOpenHashMap<>();
     private final Set<ESPGroup> groups = new ReferenceOpenHashSet<>();
-    private final ExecutorService workerThread = Executors.newSingleThreadExecutor();
+    private final ESPWorkers workers = new ESPWorkers("BlockESP");
 
+    // Chunk meshes can only be freed on the render thread, chunks replaced by workers are closed in onRender
+    private final List<ESPChunk> toClose = new ArrayList<>();
+    private final Renderer3D meshBuilder = new Renderer3D(MeteorRenderPipelines.WORLD_COLORED_LINES, MeteorRenderPipelines.WORLD_COLORED);
+    private final Matrix4f chunkMatrix = new Matrix4f();
+    private int lastConfigHash;
+
+    private BlockScanner scanner;
     private Dimension lastDimension;
 
     public BlockESP() {
@@ -94,10 +105,14 @@ public class BlockESP extends Module {
     @Override
     public void onActivate() {
         synchronized (chunks) {
-            chunks.clear();
+            // Results of searches for the old block list or dimension are never published
+            workers.cancelAll();
+            clearChunks();
             groups.clear();
         }
 
+        scanner = new BlockScanner(blocks.get());
+
         for (Chunk chunk : Utils.chunks()) {
             searchChunk(chunk);
         }
@@ -108,11 +123,25 @@ public class BlockESP extends Module {
     @Override
     public void onDeactivate() {
         synchronized (chunks) {
-            chunks.clear();
+            workers.cancelAll();
+            clearChunks();
             groups.clear();
         }
     }
 
+    private void clearChunks() {
+        for (ESPChunk chunk : chunks.values()) chunk.close();
+        chunks.clear();
+
+        for (ESPChunk chunk : toClose) chunk.close();
+        toClose.clear();
+    }
+
+    private void putChunk(long key, ESPChunk chunk) {
+        ESPChunk old = chunks.put(key, chunk);
+        if (old != null && old != chunk) toClose.add(old);
+    }
+
     private void onTickRainbow() {
         if (!isActive()) return;
 
@@ -159,14 +188,25 @@ public class BlockESP extends Module {
         searchChunk(event.chunk());
     }
 
+    @EventHandler
+    private void onChunkUnload(ChunkUnloadEvent event) {
+        synchronized (chunks) {
+            workers.cancel(event.pos().toLong());
+        }
+    }
+
     private void searchChunk(Chunk chunk) {
-        workerThread.submit(() -> {
-            if (!isActive()) return;
-            ESPChunk schunk = ESPChunk.searchChunk(chunk, blocks.get());
+        BlockScanner scanner = this.scanner;
+
+        workers.submit(chunk.getPos().x, chunk.getPos().z, handle -> {
+            if (!isActive() || handle.isCancelled()) return;
+            ESPChunk schunk = ESPChunk.searchChunk(chunk, scanner);
 
             if (schunk.size() > 0) {
                 synchronized (chunks) {
-                    chunks.put(chunk.getPos().toLong(), schunk);
+                    if (handle.isCancelled()) return;
+
+                    putChunk(chunk.getPos().toLong(), schunk);
                     schunk.update();
 
                     // Update neighbour chunks
@@ -190,19 +230,21 @@ public class BlockESP extends Module {
         int chunkZ = bz >> 4;
         long key = ChunkPos.toLong(chunkX, chunkZ);
 
-        boolean added = blocks.get().contains(event.newState.getBlock()) && !blocks.get().contains(event.oldState.getBlock());
-        boolean removed = !added && !blocks.get().contains(event.newState.getBlock()) && blocks.get().contains(event.oldState.getBlock());
+        boolean added = scanner.matches(event.newState) && !scanner.matches(event.oldState);
+        boolean removed = !added && !scanner.matches(event.newState) && scanner.matches(event.oldState);
 
         if (added || removed) {
-            workerThread.submit(() -> {
+            workers.submit(chunkX, chunkZ, handle -> {
                 synchronized (chunks) {
+                    if (handle.isCancelled()) return;
+
                     ESPChunk chunk = chunks.get(key);
 
                     if (chunk == null) {
                         chunk = new ESPChunk(chunkX, chunkZ);
                         if (chunk.shouldBeDeleted()) return;
 
-                        chunks.put(key, chunk);
+                        putChunk(key, chunk);
                     }
 
                     blockPos.set(bx, by, bz);
@@ -237,20 +279,33 @@ public class BlockESP extends Module {
     @EventHandler
     private void onRender(Render3DEvent event) {
         synchronized (chunks) {
+            for (ESPChunk chunk : toClose) chunk.close();
+            toClose.clear();
+
+            int configHash = getConfigHash();
+            if (configHash != lastConfigHash) {
+                for (ESPChunk chunk : chunks.values()) chunk.markDirty();
+                lastConfigHash = configHash;
+            }
+
             for (Iterator<ESPChunk> it = chunks.values().iterator(); it.hasNext();) {
                 ESPChunk chunk = it.next();
 
                 if (chunk.shouldBeDeleted()) {
-                    workerThread.submit(() -> {
-                        for (ESPBlock block : chunk.blocks.values()) {
-                            block.group.remove(block, false);
-                            block.loaded = false;
+                    workers.cancel(ChunkPos.toLong(chunk.x, chunk.z));
+                    if (chunk.blocks != null) workers.submit(chunk.x, chunk.z, handle -> {
+                        synchronized (chunks) {
+                            for (ESPBlock block : chunk.blocks.values()) {
+                                block.group.remove(block, false);
+                                block.loaded = false;
+                            }
                         }
                     });
 
+                    chunk.close();
                     it.remove();
                 }
-                else chunk.render(event);
+                else chunk.render(event, meshBuilder, chunkMatrix);
             }
 
             if (tracers.get()) {
@@ -261,6 +316,27 @@ public class BlockESP extends Module {
         }
     }
 
+    /**
+     * Hash of everything baked into the chunk meshes, rainbow colours are skipped since those blocks are never baked.
+     */
+    private int getConfigHash() {
+        int hash = getConfigHash(defaultBlockConfig.get());
+
+        for (Map.Entry<Block, ESPBlockData> entry : blockConfigs.get().entrySet()) {
+            hash = hash * 31 + entry.getKey().hashCode();
+            hash = hash * 31 + getConfigHash(entry.getValue());
+        }
+
+        return hash;
+    }
+
+    private static int getConfigHash(ESPBlockData blockData) {
+        int hash = blockData.shapeMode.ordinal();
+        hash = hash * 31 + (blockData.lineColor.rainbow ? 1 : blockData.lineColor.getPacked());
+        hash = hash * 31 + (blockData.sideColor.rainbow ? 1 : blockData.sideColor.getPacked());
+        return hash;
+    }
+
     @Override
     public String getInfoString() {
         return "%s groups".formatted(groups.size());
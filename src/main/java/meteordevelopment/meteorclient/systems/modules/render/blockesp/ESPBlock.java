@@ -5,7 +5,7 @@
 
 package meteordevelopment.meteorclient.systems.modules.render.blockesp;
 
-import meteordevelopment.meteorclient.events.render.Render3DEvent;
+import meteordevelopment.meteorclient.renderer.Renderer3D;
 import meteordevelopment.meteorclient.renderer.ShapeMode;
 import meteordevelopment.meteorclient.systems.modules.Modules;
 import meteordevelopment.meteorclient.utils.render.color.Color;
@@ -168,7 +168,15 @@ public class ESPBlock {
         return state.getBlock() == mc.world.getBlockState(blockPos).getBlock();
     }
 
-    public void render(Render3DEvent event) {
+    /**
+     * Blocks using rainbow colours change every frame and are not baked into the chunk mesh.
+     */
+    public boolean isDynamic() {
+        ESPBlockData blockData = blockEsp.getBlockData(state.getBlock());
+        return blockData.lineColor.rainbow || blockData.sideColor.rainbow;
+    }
+
+    public void render(Renderer3D renderer) {
         double x1 = x;
         double y1 = y;
         double z1 = z;
@@ -194,60 +202,60 @@ public class ESPBlock {
         Color sideColor = blockData.sideColor;
 
         if (neighbours == 0) {
-            event.renderer.box(x1, y1, z1, x2, y2, z2, sideColor, lineColor, shapeMode, 0);
+            renderer.box(x1, y1, z1, x2, y2, z2, sideColor, lineColor, shapeMode, 0);
         }
         else {
             // Lines
             if (shapeMode.lines()) {
                 // Vertical, BA_LE
                 if (((neighbours & LE) != LE && (neighbours & BA) != BA) || ((neighbours & LE) == LE && (neighbours & BA) == BA && (neighbours & BA_LE) != BA_LE)) {
-                    event.renderer.line(x1, y1, z1, x1, y2, z1, lineColor);
+                    renderer.line(x1, y1, z1, x1, y2, z1, lineColor);
                 }
                 // Vertical, FO_LE
                 if (((neighbours & LE) != LE && (neighbours & FO) != FO) || ((neighbours & LE) == LE && (neighbours & FO) == FO && (neighbours & FO_LE) != FO_LE)) {
-                    event.renderer.line(x1, y1, z2, x1, y2, z2, lineColor);
+                    renderer.line(x1, y1, z2, x1, y2, z2, lineColor);
                 }
                 // Vertical, BA_RI
                 if (((neighbours & RI) != RI && (neighbours & BA) != BA) || ((neighbours & RI) == RI && (neighbours & BA) == BA && (neighbours & BA_RI) != BA_RI)) {
-                    event.renderer.line(x2, y1, z1, x2, y2, z1, lineColor);
+                    renderer.line(x2, y1, z1, x2, y2, z1, lineColor);
                 }
                 // Vertical, FO_RI
                 if (((neighbours & RI) != RI && (neighbours & FO) != FO) || ((neighbours & RI) == RI && (neighbours & FO) == FO && (neighbours & FO_RI) != FO_RI)) {
-                    event.renderer.line(x2, y1, z2, x2, y2, z2, lineColor);
+                    renderer.line(x2, y1, z2, x2, y2, z2, lineColor);
                 }
 
                 // Horizontal bottom, BA_LE - BA_RI
                 if (((neighbours & BA) != BA && (neighbours & BO) != BO) || ((neighbours & BA) != BA && (neighbours & BO_BA) == BO_BA)) {
-                    event.renderer.line(x1, y1, z1, x2, y1, z1, lineColor);
+                    renderer.line(x1, y1, z1, x2, y1, z1, lineColor);
                 }
                 // Horizontal bottom, FO_LE - FO_RI
                 if (((neighbours & FO) != FO && (neighbours & BO) != BO) || ((neighbours & FO) != FO && (neighbours & BO_FO) == BO_FO)) {
-                    event.renderer.line(x1, y1, z2, x2, y1, z2, lineColor);
+                    renderer.line(x1, y1, z2, x2, y1, z2, lineColor);
                 }
                 // Horizontal top, BA_LE - BA_RI
                 if (((neighbours & BA) != BA && (neighbours & TO) != TO) || ((neighbours & BA) != BA && (neighbours & TO_BA) == TO_BA)) {
-                    event.renderer.line(x1, y2, z1, x2, y2, z1, lineColor);
+                    renderer.line(x1, y2, z1, x2, y2, z1, lineColor);
                 }
                 // Horizontal top, FO_LE - FO_RI
                 if (((neighbours & FO) != FO && (neighbours & TO) != TO) || ((neighbours & FO) != FO && (neighbours & TO_FO) == TO_FO)) {
-                    event.renderer.line(x1, y2, z2, x2, y2, z2, lineColor);
+                    renderer.line(x1, y2, z2, x2, y2, z2, lineColor);
                 }
 
                 // Horizontal bottom, BA_LE - FO_LE
                 if (((neighbours & LE) != LE && (neighbours & BO) != BO) || ((neighbours & LE) != LE && (neighbours & BO_LE) == BO_LE)) {
-                    event.renderer.line(x1, y1, z1, x1, y1, z2, lineColor);
+                    renderer.line(x1, y1, z1, x1, y1, z2, lineColor);
                 }
                 // Horizontal bottom, BA_RI - FO_RI
                 if (((neighbours & RI) != RI && (neighbours & BO) != BO) || ((neighbours & RI) != RI && (neighbours & BO_RI) == BO_RI)) {
-                    event.renderer.line(x2, y1, z1, x2, y1, z2, lineColor);
+                    renderer.line(x2, y1, z1, x2, y1, z2, lineColor);
                 }
                 // Horizontal top, BA_LE - FO_LE
                 if (((neighbours & LE) != LE && (neighbours & TO) != TO) || ((neighbours & LE) != LE && (neighbours & TO_LE) == TO_LE)) {
-                    event.renderer.line(x1, y2, z1, x1, y2, z2, lineColor);
+                    renderer.line(x1, y2, z1, x1, y2, z2, lineColor);
                 }
                 // Horizontal top, BA_RI - FO_RI
                 if (((neighbours & RI) != RI && (neighbours & TO) != TO) || ((neighbours & RI) != RI && (neighbours & TO_RI) == TO_RI)) {
-                    event.renderer.line(x2, y2, z1, x2, y2, z2, lineColor);
+                    renderer.line(x2, y2, z1, x2, y2, z2, lineColor);
                 }
             }
 
@@ -255,27 +263,27 @@ public class ESPBlock {
             if (shapeMode.sides()) {
                 // Bottom
                 if ((neighbours & BO) != BO) {
-                    event.renderer.quadHorizontal(x1, y1, z1, x2, z2, sideColor);
+                    renderer.quadHorizontal(x1, y1, z1, x2, z2, sideColor);
                 }
                 // Top
                 if ((neighbours & TO) != TO) {
-                    event.renderer.quadHorizontal(x1, y2, z1, x2, z2, sideColor);
+                    renderer.quadHorizontal(x1, y2, z1, x2, z2, sideColor);
                 }
                 // Front
                 if ((neighbours & FO) != FO) {
-                    event.renderer.quadVertical(x1, y1, z2, x2, y2, z2, sideColor);
+                    renderer.quadVertical(x1, y1, z2, x2, y2, z2, sideColor);
                 }
                 // Back
                 if ((neighbours & BA) != BA) {
-                    event.renderer.quadVertical(x1, y1, z1, x2, y2, z1, sideColor);
+                    renderer.quadVertical(x1, y1, z1, x2, y2, z1, sideColor);
                 }
                 // Right
                 if ((neighbours & RI) != RI) {
-                    event.renderer.quadVertical(x2, y1, z1, x2, y2, z2, sideColor);
+                    renderer.quadVertical(x2, y1, z1, x2, y2, z2, sideColor);
                 }
                 // Left
                 if ((neighbours & LE) != LE) {
-                    event.renderer.quadVertical(x1, y1, z1, x1, y2, z2, sideColor);
+                    renderer.quadVertical(x1, y1, z1, x1, y2, z2, sideColor);
                 }
             }
         }
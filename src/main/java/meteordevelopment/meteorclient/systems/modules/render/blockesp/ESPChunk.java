@@ -8,13 +8,17 @@ package meteordevelopment.meteorclient.systems.modules.render.blockesp;
 import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
 import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
 import meteordevelopment.meteorclient.events.render.Render3DEvent;
-import net.minecraft.block.Block;
-import net.minecraft.block.BlockState;
+import meteordevelopment.meteorclient.renderer.MeshRenderer;
+import meteordevelopment.meteorclient.renderer.MeteorRenderPipelines;
+import meteordevelopment.meteorclient.renderer.Renderer3D;
+import meteordevelopment.meteorclient.renderer.RetainedMesh;
+import meteordevelopment.meteorclient.utils.world.BlockScanner;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.ChunkSectionPos;
-import net.minecraft.world.Heightmap;
 import net.minecraft.world.chunk.Chunk;
+import org.joml.Matrix4f;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import static meteordevelopment.meteorclient.MeteorClient.mc;
@@ -22,9 +26,15 @@ import static meteordevelopment.meteorclient.utils.Utils.getRenderDistance;
 
 public class ESPChunk {
 
-    private final int x, z;
+    public final int x, z;
     public Long2ObjectMap<ESPBlock> blocks;
 
+    // Blocks are baked into meshes relative to the chunk origin, rebuilt only when something changes
+    private final RetainedMesh lines = new RetainedMesh("Meteor BlockESP Lines");
+    private final RetainedMesh triangles = new RetainedMesh("Meteor BlockESP Triangles");
+    private final List<ESPBlock> dynamicBlocks = new ArrayList<>();
+    private boolean dirty = true;
+
     public ESPChunk(int x, int z) {
         this.x = x;
         this.z = z;
@@ -39,6 +49,7 @@ public class ESPChunk {
 
         if (blocks == null) blocks = new Long2ObjectOpenHashMap<>(64);
         blocks.put(ESPBlock.getKey(blockPos), block);
+        dirty = true;
 
         if (update) block.update();
     }
@@ -50,20 +61,27 @@ public class ESPChunk {
     public void remove(BlockPos blockPos) {
         if (blocks != null) {
             ESPBlock block = blocks.remove(ESPBlock.getKey(blockPos));
-            if (block != null) block.group.remove(block);
+            if (block != null) {
+                block.group.remove(block);
+                dirty = true;
+            }
         }
     }
 
     public void update() {
         if (blocks != null) {
             for (ESPBlock block : blocks.values()) block.update();
+            dirty = true;
         }
     }
 
     public void update(int x, int y, int z) {
         if (blocks != null) {
             ESPBlock block = blocks.get(ESPBlock.getKey(x, y, z));
-            if (block != null) block.update();
+            if (block != null) {
+                block.update();
+                dirty = true;
+            }
         }
     }
 
@@ -79,31 +97,73 @@ public class ESPChunk {
         return x > chunkX + viewDist || x < chunkX - viewDist || z > chunkZ + viewDist || z < chunkZ - viewDist;
     }
 
-    public void render(Render3DEvent event) {
-        if (blocks != null) {
-            for (ESPBlock block : blocks.values()) block.render(event);
+    public void markDirty() {
+        dirty = true;
+    }
+
+    /**
+     * Draws the cached meshes, rebuilding them first if the blocks or their config changed.
+     *
+     * @param builder Renderer used to rebuild the meshes
+     * @param matrix Reused matrix for the chunk translation
+     */
+    public void render(Render3DEvent event, Renderer3D builder, Matrix4f matrix) {
+        if (blocks == null) return;
+
+        if (dirty) rebuild(builder);
+
+        double originX = x * 16;
+        double originZ = z * 16;
+        matrix.set(event.matrices.peek().getPositionMatrix()).translate((float) (originX - event.offsetX), 0, (float) (originZ - event.offsetZ));
+
+        if (lines.getIndicesCount() > 0) {
+            MeshRenderer.begin()
+                .attachments(mc.getFramebuffer())
+                .pipeline(MeteorRenderPipelines.WORLD_COLORED_LINES)
+                .mesh(lines, matrix)
+                .end();
         }
+
+        if (triangles.getIndicesCount() > 0) {
+            MeshRenderer.begin()
+                .attachments(mc.getFramebuffer())
+                .pipeline(MeteorRenderPipelines.WORLD_COLORED)
+                .mesh(triangles, matrix)
+                .end();
+        }
+
+        for (ESPBlock block : dynamicBlocks) block.render(event.renderer);
     }
 
+    private void rebuild(Renderer3D builder) {
+        builder.begin(x * 16, z * 16);
+        dynamicBlocks.clear();
 
-    public static ESPChunk searchChunk(Chunk chunk, List<Block> blocks) {
-        ESPChunk schunk = new ESPChunk(chunk.getPos().x, chunk.getPos().z);
-        if (schunk.shouldBeDeleted()) return schunk;
+        for (ESPBlock block : blocks.values()) {
+            if (block.isDynamic()) dynamicBlocks.add(block);
+            else block.render(builder);
+        }
 
-        BlockPos.Mutable blockPos = new BlockPos.Mutable();
+        lines.upload(builder.lines);
+        triangles.upload(builder.triangles);
 
-        for (int x = chunk.getPos().getStartX(); x <= chunk.getPos().getEndX(); x++) {
-            for (int z = chunk.getPos().getStartZ(); z <= chunk.getPos().getEndZ(); z++) {
-                int height = chunk.getHeightmap(Heightmap.Type.WORLD_SURFACE).get(x - chunk.getPos().getStartX(), z - chunk.getPos().getStartZ());
+        dirty = false;
+    }
 
-                for (int y = mc.world.getBottomY(); y < height; y++) {
-                    blockPos.set(x, y, z);
-                    BlockState bs = chunk.getBlockState(blockPos);
+    /**
+     * Frees the GPU buffers, must be called on the render thread.
+     */
+    public void close() {
+        lines.close();
+        triangles.close();
+    }
 
-                    if (blocks.contains(bs.getBlock())) schunk.add(blockPos, false);
-                }
-            }
-        }
+    public static ESPChunk searchChunk(Chunk chunk, BlockScanner scanner) {
+        ESPChunk schunk = new ESPChunk(chunk.getPos().x, chunk.getPos().z);
+        if (schunk.shouldBeDeleted()) return schunk;
+
+        BlockPos.Mutable blockPos = new BlockPos.Mutable();
+        scanner.scan(chunk, pos -> schunk.add(blockPos.set(pos), false));
 
         return schunk;
     }
@@ -0,0 +1,144 @@
+/*
+ * This file is part of the Meteor Client distribution (https://github.com/MeteorDevelopment/meteor-client).
+ * Copyright (c) Meteor Development.
+ */
+
+package meteordevelopment.meteorclient.systems.modules.render.blockesp;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import meteordevelopment.meteorclient.MeteorClient;
+import net.minecraft.util.math.ChunkPos;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static meteordevelopment.meteorclient.MeteorClient.mc;
+
+/**
+ * Worker pool for chunk searches and block patches.
+ * <p>
+ * Every chunk gets its own {@link Handle}. Work submitted for the same chunk runs in submission order, different
+ * chunks run in parallel and the ones closest to the player when they were queued run first. Cancelling a handle
+ * drops its pending work and lets running work check {@link Handle#isCancelled()} before publishing results.
+ */
+public class ESPWorkers {
+    private final ThreadPoolExecutor executor;
+    private final Long2ObjectMap<Handle> handles = new Long2ObjectOpenHashMap<>();
+
+    public ESPWorkers(String name) {
+        int threads = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+        AtomicInteger threadNumber = new AtomicInteger(1);
+
+        executor = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS, new PriorityBlockingQueue<>(), task -> {
+            Thread thread = new Thread(task);
+            thread.setDaemon(true);
+            thread.setName(name + "-Worker-" + threadNumber.getAndIncrement());
+            return thread;
+        });
+
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    public void submit(int chunkX, int chunkZ, Consumer<Handle> task) {
+        long key = ChunkPos.toLong(chunkX, chunkZ);
+
+        synchronized (handles) {
+            Handle handle = handles.get(key);
+
+            if (handle == null) {
+                handle = new Handle(key, chunkX, chunkZ);
+                handles.put(key, handle);
+            }
+
+            handle.queue.add(task);
+
+            if (!handle.scheduled) {
+                handle.scheduled = true;
+                handle.priority = distanceToPlayer(chunkX, chunkZ);
+                executor.execute(handle);
+            }
+        }
+    }
+
+    public void cancel(long key) {
+        synchronized (handles) {
+            Handle handle = handles.remove(key);
+            if (handle != null) handle.cancel();
+        }
+    }
+
+    public void cancelAll() {
+        synchronized (handles) {
+            for (Handle handle : handles.values()) handle.cancel();
+            handles.clear();
+        }
+    }
+
+    private static int distanceToPlayer(int chunkX, int chunkZ) {
+        if (mc.player == null) return 0;
+
+        int dx = chunkX - mc.player.getChunkPos().x;
+        int dz = chunkZ - mc.player.getChunkPos().z;
+        return dx * dx + dz * dz;
+    }
+
+    public class Handle implements Runnable, Comparable<Handle> {
+        private final long key;
+        public final int chunkX, chunkZ;
+
+        private final Queue<Consumer<Handle>> queue = new ArrayDeque<>();
+        private boolean scheduled;
+        private int priority;
+
+        private volatile boolean cancelled;
+
+        private Handle(long key, int chunkX, int chunkZ) {
+            this.key = key;
+            this.chunkX = chunkX;
+            this.chunkZ = chunkZ;
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        private void cancel() {
+            cancelled = true;
+            queue.clear();
+        }
+
+        @Override
+        public void run() {
+            while (true) {
+                Consumer<Handle> task;
+
+                synchronized (handles) {
+                    task = cancelled ? null : queue.poll();
+
+                    if (task == null) {
+                        scheduled = false;
+                        if (handles.get(key) == this) handles.remove(key);
+                        return;
+                    }
+                }
+
+                try {
+                    task.accept(this);
+                } catch (Exception e) {
+                    MeteorClient.LOG.error("Error in chunk task at {}, {}", chunkX, chunkZ, e);
+                }
+            }
+        }
+
+        @Override
+        public int compareTo(Handle o) {
+            return Integer.compare(priority, o.priority);
+        }
+    }
+}
@@ -139,7 +139,7 @@ public class Sphere2dMarker extends BaseMarker {
         synchronized (blocks) {
             for (Block block : blocks) {
                 if (!limitRenderRange.get() || PlayerUtils.isWithin(block.x, block.y, block.z, renderRange.get())) {
-                    event.renderer.box(block.x, block.y, block.z, block.x + 1, block.y + 1, block.z + 1, sideColor.get(), lineColor.get(), shapeMode.get(), block.excludeDir);
+                    event.renderer.instancedBox(block.x, block.y, block.z, block.x + 1, block.y + 1, block.z + 1, sideColor.get(), lineColor.get(), shapeMode.get(), block.excludeDir);
                 }
             }
         }
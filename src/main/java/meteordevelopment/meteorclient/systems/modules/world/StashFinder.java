@@ -5,9 +5,6 @@
 
 package meteordevelopment.meteorclient.systems.modules.world;
 
-import com.google.common.reflect.TypeToken;
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
 import meteordevelopment.meteorclient.MeteorClient;
 import meteordevelopment.meteorclient.events.world.ChunkDataEvent;
 import meteordevelopment.meteorclient.gui.GuiTheme;
@@ -29,15 +26,13 @@ import net.minecraft.item.Items;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.ChunkPos;
 
-import java.io.*;
-import java.util.ArrayList;
-import java.util.Comparator;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
 import java.util.List;
 import java.util.Objects;
 
 public class StashFinder extends Module {
-    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
-
     private final SettingGroup sgGeneral = settings.getDefaultGroup();
 
     private final Setting<List<BlockEntityType<?>>> storageBlocks = sgGeneral.add(new StorageBlockListSetting.Builder()
@@ -80,7 +75,8 @@ public class StashFinder extends Module {
         .build()
     );
 
-    public List<Chunk> chunks = new ArrayList<>();
+    private StashStorage storage;
+    private File storageFolder;
 
     public StashFinder() {
         super(Categories.World, "stash-finder", "Searches loaded chunks for storage blocks. Saves to <your minecraft folder>/meteor-client");
@@ -88,7 +84,32 @@ public class StashFinder extends Module {
 
     @Override
     public void onActivate() {
-        load();
+        getStorage();
+    }
+
+    @Override
+    public void onDeactivate() {
+        if (storage != null) storage.close();
+
+        storage = null;
+        storageFolder = null;
+    }
+
+    /**
+     * @return Stashes of the current world, loaded when the world changed since the last call
+     */
+    public StashStorage getStorage() {
+        File folder = new File(new File(MeteorClient.FOLDER, "stashes"), Utils.getFileWorldName());
+
+        if (storage == null || !folder.equals(storageFolder)) {
+            if (storage != null) storage.close();
+
+            storage = new StashStorage(folder);
+            storage.load();
+            storageFolder = folder;
+        }
+
+        return storage;
     }
 
     @EventHandler
@@ -113,16 +134,15 @@ public class StashFinder extends Module {
         }
 
         if (chunk.getTotal() >= minimumStorageCount.get()) {
-            Chunk prevChunk = null;
-            int i = chunks.indexOf(chunk);
+            StashStorage storage = getStorage();
 
-            if (i < 0) chunks.add(chunk);
-            else prevChunk = chunks.set(i, chunk);
+            // Revisiting an unchanged stash neither writes to the log nor notifies again
+            Chunk prevChunk = storage.get(chunk.chunkPos);
+            if (chunk.countsEqual(prevChunk)) return;
 
-            saveJson();
-            saveCsv();
+            storage.put(chunk);
 
-            if (sendNotifications.get() && (!chunk.equals(prevChunk) || !chunk.countsEqual(prevChunk))) {
+            if (sendNotifications.get()) {
                 switch (notificationMode.get()) {
                     case Chat -> info("Found stash at (highlight)%s(default), (highlight)%s(default).", chunk.x, chunk.z);
                     case Toast -> mc.getToastManager().add(new MeteorToast(Items.CHEST, title, "Found Stash!"));
@@ -137,19 +157,16 @@ public class StashFinder extends Module {
 
     @Override
     public WWidget getWidget(GuiTheme theme) {
-        // Sort
-        chunks.sort(Comparator.comparingInt(value -> -value.getTotal()));
-
         WVerticalList list = theme.verticalList();
 
         // Clear
         WButton clear = list.add(theme.button("Clear")).widget();
 
         WTable table = new WTable();
-        if (!chunks.isEmpty()) list.add(table);
+        if (getStorage().size() > 0) list.add(table);
 
         clear.action = () -> {
-            chunks.clear();
+            getStorage().clear();
             table.clear();
         };
 
@@ -160,7 +177,7 @@ public class StashFinder extends Module {
     }
 
     private void fillTable(GuiTheme theme, WTable table) {
-        for (Chunk chunk : chunks) {
+        for (Chunk chunk : getStorage().sortedByTotal()) {
             table.add(theme.label("Pos: " + chunk.x + ", " + chunk.z));
             table.add(theme.label("Total: " + chunk.getTotal()));
 
@@ -172,12 +189,9 @@ public class StashFinder extends Module {
 
             WMinus delete = table.add(theme.minus()).widget();
             delete.action = () -> {
-                if (chunks.remove(chunk)) {
+                if (getStorage().remove(chunk)) {
                     table.clear();
                     fillTable(theme, table);
-
-                    saveJson();
-                    saveCsv();
                 }
             };
 
@@ -185,92 +199,9 @@ public class StashFinder extends Module {
         }
     }
 
-    private void load() {
-        boolean loaded = false;
-
-        // Try to load json
-        File file = getJsonFile();
-        if (file.exists()) {
-            try {
-                FileReader reader = new FileReader(file);
-                chunks = GSON.fromJson(reader, new TypeToken<List<Chunk>>() {}.getType());
-                reader.close();
-
-                for (Chunk chunk : chunks) chunk.calculatePos();
-
-                loaded = true;
-            } catch (Exception ignored) {
-                if (chunks == null) chunks = new ArrayList<>();
-            }
-        }
-
-        // Try to load csv
-        file = getCsvFile();
-        if (!loaded && file.exists()) {
-            try {
-                BufferedReader reader = new BufferedReader(new FileReader(file));
-                reader.readLine();
-
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    String[] values = line.split(" ");
-                    Chunk chunk = new Chunk(new ChunkPos(Integer.parseInt(values[0]), Integer.parseInt(values[1])));
-
-                    chunk.chests = Integer.parseInt(values[2]);
-                    chunk.shulkers = Integer.parseInt(values[3]);
-                    chunk.enderChests = Integer.parseInt(values[4]);
-                    chunk.furnaces = Integer.parseInt(values[5]);
-                    chunk.dispensersDroppers = Integer.parseInt(values[6]);
-                    chunk.hoppers = Integer.parseInt(values[7]);
-
-                    chunks.add(chunk);
-                }
-
-                reader.close();
-            } catch (Exception ignored) {
-                if (chunks == null) chunks = new ArrayList<>();
-            }
-        }
-    }
-
-    private void saveCsv() {
-        try {
-            File file = getCsvFile();
-            file.getParentFile().mkdirs();
-            Writer writer = new FileWriter(file);
-
-            writer.write("X,Z,Chests,Barrels,Shulkers,EnderChests,Furnaces,DispensersDroppers,Hoppers\n");
-            for (Chunk chunk : chunks) chunk.write(writer);
-
-            writer.close();
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
-    }
-
-    private void saveJson() {
-        try {
-            File file = getJsonFile();
-            file.getParentFile().mkdirs();
-            Writer writer = new FileWriter(file);
-            GSON.toJson(chunks, writer);
-            writer.close();
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
-    }
-
-    private File getJsonFile() {
-        return new File(new File(new File(MeteorClient.FOLDER, "stashes"), Utils.getFileWorldName()), "stashes.json");
-    }
-
-    private File getCsvFile() {
-        return new File(new File(new File(MeteorClient.FOLDER, "stashes"), Utils.getFileWorldName()), "stashes.csv");
-    }
-
     @Override
     public String getInfoString() {
-        return String.valueOf(chunks.size());
+        return storage == null ? "0" : String.valueOf(storage.size());
     }
 
     public enum Mode {
@@ -280,8 +211,6 @@ public class StashFinder extends Module {
     }
 
     public static class Chunk {
-        private static final StringBuilder sb = new StringBuilder();
-
         public ChunkPos chunkPos;
         public transient int x, z;
         public int chests, barrels, shulkers, enderChests, furnaces, dispensersDroppers, hoppers;
@@ -302,7 +231,8 @@ public class StashFinder extends Module {
         }
 
         public void write(Writer writer) throws IOException {
-            sb.setLength(0);
+            // Exports run off the client thread, so no shared builder
+            StringBuilder sb = new StringBuilder();
             sb.append(x).append(',').append(z).append(',');
             sb.append(chests).append(',').append(barrels).append(',').append(shulkers).append(',').append(enderChests).append(',').append(furnaces).append(',').append(dispensersDroppers).append(',').append(hoppers).append('\n');
             writer.write(sb.toString());
@@ -310,7 +240,7 @@ public class StashFinder extends Module {
 
         public boolean countsEqual(Chunk c) {
             if (c == null) return false;
-            return chests != c.chests || barrels != c.barrels || shulkers != c.shulkers || enderChests != c.enderChests || furnaces != c.furnaces || dispensersDroppers != c.dispensersDroppers || hoppers != c.hoppers;
+            return chests == c.chests && barrels == c.barrels && shulkers == c.shulkers && enderChests == c.enderChests && furnaces == c.furnaces && dispensersDroppers == c.dispensersDroppers && hoppers == c.hoppers;
         }
 
         @Override
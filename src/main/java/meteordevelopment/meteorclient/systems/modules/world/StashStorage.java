@@ -0,0 +1,463 @@
+/*
+ * This file is part of the Meteor Client distribution (https://github.com/MeteorDevelopment/meteor-client).
+ * Copyright (c) Meteor Development.
+ */
+
+package meteordevelopment.meteorclient.systems.modules.world;
+
+import com.google.common.reflect.TypeToken;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import meteordevelopment.meteorclient.MeteorClient;
+import meteordevelopment.meteorclient.systems.modules.world.StashFinder.Chunk;
+import meteordevelopment.meteorclient.utils.network.MeteorExecutor;
+import net.minecraft.util.math.ChunkPos;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Stashes found in one world, kept in a map keyed by the packed {@link ChunkPos} and bucketed into 32x32 chunk
+ * regions for radius queries.
+ * <p>
+ * Changes are appended to {@code stashes.log} as single records. Once the log holds considerably more records than
+ * there are stashes it is compacted on the {@link MeteorExecutor}, records appended meanwhile are carried over.
+ * The map is only modified on the client thread. JSON and CSV files are only written by {@link #exportJson()} and
+ * {@link #exportCsv()}, to names the import of the files of older versions never reads.
+ */
+public class StashStorage {
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+
+    private static final byte PUT = 0;
+    private static final byte REMOVE = 1;
+
+    private static final int REMOVE_SIZE = 1 + 2 * Integer.BYTES;
+    private static final int PUT_SIZE = REMOVE_SIZE + 7 * Integer.BYTES;
+
+    private static final int REGION_SHIFT = 5;
+    private static final int COMPACT_MIN_RECORDS = 256;
+
+    private static final Comparator<Chunk> BY_TOTAL = Comparator.comparingInt(chunk -> -chunk.getTotal());
+
+    private final File folder;
+
+    private final Long2ObjectMap<Chunk> chunks = new Long2ObjectOpenHashMap<>();
+    private final Long2ObjectMap<List<Chunk>> regions = new Long2ObjectOpenHashMap<>();
+
+    private final Object lock = new Object();
+    private DataOutputStream out;
+    private int records;
+    private int generation;
+    private boolean closed;
+    private volatile List<LogRecord> pending;
+
+    public StashStorage(File folder) {
+        this.folder = folder;
+    }
+
+    // Queries
+
+    public Chunk get(ChunkPos pos) {
+        return chunks.get(pos.toLong());
+    }
+
+    public Collection<Chunk> values() {
+        return chunks.values();
+    }
+
+    public int size() {
+        return chunks.size();
+    }
+
+    public List<Chunk> sortedByTotal() {
+        List<Chunk> sorted = new ArrayList<>(chunks.values());
+        sorted.sort(BY_TOTAL);
+        return sorted;
+    }
+
+    /**
+     * @return Stashes whose centre is within the radius around the block position, sorted by total
+     */
+    public List<Chunk> within(int x, int z, int radius) {
+        List<Chunk> found = new ArrayList<>();
+        long radiusSq = (long) radius * radius;
+
+        int minRegionX = ((x - radius) >> 4) >> REGION_SHIFT, maxRegionX = ((x + radius) >> 4) >> REGION_SHIFT;
+        int minRegionZ = ((z - radius) >> 4) >> REGION_SHIFT, maxRegionZ = ((z + radius) >> 4) >> REGION_SHIFT;
+
+        for (int rx = minRegionX; rx <= maxRegionX; rx++) {
+            for (int rz = minRegionZ; rz <= maxRegionZ; rz++) {
+                List<Chunk> region = regions.get(ChunkPos.toLong(rx, rz));
+                if (region == null) continue;
+
+                for (Chunk chunk : region) {
+                    long dx = chunk.x - x, dz = chunk.z - z;
+                    if (dx * dx + dz * dz <= radiusSq) found.add(chunk);
+                }
+            }
+        }
+
+        found.sort(BY_TOTAL);
+        return found;
+    }
+
+    // Modification
+
+    /**
+     * @return The previous stash in the same chunk
+     */
+    public Chunk put(Chunk chunk) {
+        Chunk prev = index(chunk);
+        append(new LogRecord(PUT, chunk));
+        return prev;
+    }
+
+    public boolean remove(Chunk chunk) {
+        if (unindex(chunk.chunkPos.toLong()) == null) return false;
+
+        append(new LogRecord(REMOVE, chunk));
+        return true;
+    }
+
+    public void clear() {
+        chunks.clear();
+        regions.clear();
+
+        synchronized (lock) {
+            generation++;
+            closeOutput();
+
+            // Truncated rather than deleted, a missing log means the legacy files were not imported yet
+            folder.mkdirs();
+            try (FileOutputStream ignored = new FileOutputStream(getLogFile())) {
+            } catch (IOException e) {
+                MeteorClient.LOG.error("Failed to clear stash log", e);
+            }
+
+            records = 0;
+            if (pending != null) pending.clear();
+        }
+    }
+
+    private Chunk index(Chunk chunk) {
+        Chunk prev = chunks.put(chunk.chunkPos.toLong(), chunk);
+
+        List<Chunk> region = regions.computeIfAbsent(regionKey(chunk.chunkPos), key -> new ArrayList<>());
+        if (prev != null) region.remove(prev);
+        region.add(chunk);
+
+        return prev;
+    }
+
+    private Chunk unindex(long key) {
+        Chunk prev = chunks.remove(key);
+
+        if (prev != null) {
+            long regionKey = regionKey(prev.chunkPos);
+            List<Chunk> region = regions.get(regionKey);
+
+            region.remove(prev);
+            if (region.isEmpty()) regions.remove(regionKey);
+        }
+
+        return prev;
+    }
+
+    private static long regionKey(ChunkPos pos) {
+        return ChunkPos.toLong(pos.x >> REGION_SHIFT, pos.z >> REGION_SHIFT);
+    }
+
+    // Log
+
+    public void load() {
+        File log = getLogFile();
+
+        if (log.exists()) {
+            try {
+                readLog(log);
+            } catch (IOException e) {
+                MeteorClient.LOG.error("Failed to read stash log", e);
+            }
+        }
+        else if (importLegacy()) {
+            // Start the log from a single snapshot of the imported stashes
+            try {
+                writeSnapshot(log, new ArrayList<>(chunks.values()));
+                records = chunks.size();
+            } catch (IOException e) {
+                MeteorClient.LOG.error("Failed to write stash log", e);
+            }
+        }
+    }
+
+    private void readLog(File file) throws IOException {
+        long validLength = 0;
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            while (true) {
+                int type = in.read();
+                if (type == -1) break;
+
+                ChunkPos pos = new ChunkPos(in.readInt(), in.readInt());
+
+                if (type == PUT) {
+                    Chunk chunk = new Chunk(pos);
+
+                    chunk.chests = in.readInt();
+                    chunk.barrels = in.readInt();
+                    chunk.shulkers = in.readInt();
+                    chunk.enderChests = in.readInt();
+                    chunk.furnaces = in.readInt();
+                    chunk.dispensersDroppers = in.readInt();
+                    chunk.hoppers = in.readInt();
+
+                    index(chunk);
+                    validLength += PUT_SIZE;
+                }
+                else if (type == REMOVE) {
+                    unindex(pos.toLong());
+                    validLength += REMOVE_SIZE;
+                }
+                else break;
+
+                records++;
+            }
+        } catch (EOFException ignored) {}
+
+        // Drop a record cut off by a crash so later appends stay readable
+        if (validLength < file.length()) {
+            try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+                raf.setLength(validLength);
+            }
+        }
+    }
+
+    private void append(LogRecord record) {
+        synchronized (lock) {
+            if (closed) return;
+
+            try {
+                if (out == null) {
+                    folder.mkdirs();
+                    out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(getLogFile(), true)));
+                }
+
+                record.write(out);
+                out.flush();
+
+                records++;
+                if (pending != null) pending.add(record);
+            } catch (IOException e) {
+                MeteorClient.LOG.error("Failed to write stash log", e);
+            }
+        }
+
+        if (pending == null && records > Math.max(COMPACT_MIN_RECORDS, chunks.size() * 2)) compact();
+    }
+
+    private void compact() {
+        List<Chunk> snapshot = new ArrayList<>(chunks.values());
+        int snapshotGeneration;
+
+        synchronized (lock) {
+            pending = new ArrayList<>();
+            snapshotGeneration = generation;
+        }
+
+        MeteorExecutor.execute(() -> {
+            File tmp = new File(folder, "stashes.log.tmp");
+
+            try {
+                writeSnapshot(tmp, snapshot);
+
+                synchronized (lock) {
+                    if (generation != snapshotGeneration || closed) {
+                        tmp.delete();
+                        return;
+                    }
+
+                    // Carry over everything appended while the snapshot was written
+                    try (DataOutputStream tmpOut = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp, true)))) {
+                        for (LogRecord record : pending) record.write(tmpOut);
+                    }
+
+                    closeOutput();
+                    Files.move(tmp.toPath(), getLogFile().toPath(), StandardCopyOption.REPLACE_EXISTING);
+
+                    records = snapshot.size() + pending.size();
+                }
+            } catch (IOException e) {
+                MeteorClient.LOG.error("Failed to compact stash log", e);
+            } finally {
+                synchronized (lock) {
+                    pending = null;
+                }
+            }
+        });
+    }
+
+    private static void writeSnapshot(File file, List<Chunk> snapshot) throws IOException {
+        file.getParentFile().mkdirs();
+
+        try (DataOutputStream stream = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+            for (Chunk chunk : snapshot) new LogRecord(PUT, chunk).write(stream);
+        }
+    }
+
+    public void close() {
+        synchronized (lock) {
+            closed = true;
+            closeOutput();
+        }
+    }
+
+    private void closeOutput() {
+        if (out == null) return;
+
+        try {
+            out.close();
+        } catch (IOException e) {
+            MeteorClient.LOG.error("Failed to close stash log", e);
+        }
+
+        out = null;
+    }
+
+    private File getLogFile() {
+        return new File(folder, "stashes.log");
+    }
+
+    // Export
+
+    public File getJsonFile() {
+        return new File(folder, "stashes-export.json");
+    }
+
+    public File getCsvFile() {
+        return new File(folder, "stashes-export.csv");
+    }
+
+    /**
+     * Writes all stashes, sorted by total, to {@code stashes-export.json} on the {@link MeteorExecutor}.
+     */
+    public CompletableFuture<File> exportJson() {
+        List<Chunk> snapshot = sortedByTotal();
+
+        return CompletableFuture.supplyAsync(() -> {
+            File file = getJsonFile();
+            file.getParentFile().mkdirs();
+
+            try (Writer writer = new BufferedWriter(new FileWriter(file))) {
+                GSON.toJson(snapshot, writer);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+
+            return file;
+        }, MeteorExecutor.executor);
+    }
+
+    /**
+     * Writes all stashes, sorted by total, to {@code stashes-export.csv} on the {@link MeteorExecutor}.
+     */
+    public CompletableFuture<File> exportCsv() {
+        List<Chunk> snapshot = sortedByTotal();
+
+        return CompletableFuture.supplyAsync(() -> {
+            File file = getCsvFile();
+            file.getParentFile().mkdirs();
+
+            try (Writer writer = new BufferedWriter(new FileWriter(file))) {
+                writer.write("X,Z,Chests,Barrels,Shulkers,EnderChests,Furnaces,DispensersDroppers,Hoppers\n");
+                for (Chunk chunk : snapshot) chunk.write(writer);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+
+            return file;
+        }, MeteorExecutor.executor);
+    }
+
+    /**
+     * Imports the JSON or CSV files written by older versions, which saved the full list on every find. Only called
+     * while there is no log, which exists from then on.
+     */
+    private boolean importLegacy() {
+        File file = new File(folder, "stashes.json");
+
+        if (file.exists()) {
+            try (Reader reader = new FileReader(file)) {
+                List<Chunk> list = GSON.fromJson(reader, new TypeToken<List<Chunk>>() {}.getType());
+
+                if (list != null) {
+                    for (Chunk chunk : list) {
+                        chunk.calculatePos();
+                        index(chunk);
+                    }
+
+                    return true;
+                }
+            } catch (Exception e) {
+                MeteorClient.LOG.error("Failed to import stashes.json", e);
+            }
+        }
+
+        file = new File(folder, "stashes.csv");
+
+        if (file.exists()) {
+            try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+                reader.readLine();
+
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    String[] values = line.split(",");
+
+                    // Exported coordinates are the block position of the chunk centre
+                    Chunk chunk = new Chunk(new ChunkPos(Integer.parseInt(values[0]) >> 4, Integer.parseInt(values[1]) >> 4));
+
+                    chunk.chests = Integer.parseInt(values[2]);
+                    chunk.barrels = Integer.parseInt(values[3]);
+                    chunk.shulkers = Integer.parseInt(values[4]);
+                    chunk.enderChests = Integer.parseInt(values[5]);
+                    chunk.furnaces = Integer.parseInt(values[6]);
+                    chunk.dispensersDroppers = Integer.parseInt(values[7]);
+                    chunk.hoppers = Integer.parseInt(values[8]);
+
+                    index(chunk);
+                }
+
+                return true;
+            } catch (Exception e) {
+                MeteorClient.LOG.error("Failed to import stashes.csv", e);
+            }
+        }
+
+        return false;
+    }
+
+    private record LogRecord(byte type, Chunk chunk) {
+        public void write(DataOutputStream stream) throws IOException {
+            stream.writeByte(type);
+            stream.writeInt(chunk.chunkPos.x);
+            stream.writeInt(chunk.chunkPos.z);
+
+            if (type == PUT) {
+                stream.writeInt(chunk.chests);
+                stream.writeInt(chunk.barrels);
+                stream.writeInt(chunk.shulkers);
+                stream.writeInt(chunk.enderChests);
+                stream.writeInt(chunk.furnaces);
+                stream.writeInt(chunk.dispensersDroppers);
+                stream.writeInt(chunk.hoppers);
+            }
+        }
+    }
+}
@@ -83,7 +83,8 @@ public class Utils {
     public static double frameTime;
     public static Screen screenToOpen;
 
-    private static final ProjectionMatrix2 matrix = new ProjectionMatrix2("meteor-projection-matrix", -10, 100, true);
+    // Created on first use, it allocates a GPU buffer which would make loading this class require a render context
+    private static ProjectionMatrix2 matrix;
 
     private Utils() {
     }
@@ -213,6 +214,7 @@ public class Utils {
     public static void unscaledProjection() {
         float width = mc.getWindow().getFramebufferWidth();
         float height = mc.getWindow().getFramebufferHeight();
+        ProjectionMatrix2 matrix = getProjectionMatrix();
 
         RenderSystem.setProjectionMatrix(matrix.set(width, height), ProjectionType.ORTHOGRAPHIC);
         RenderUtils.projection.set(((ProjectionMatrix2Accessor) matrix).callGetMatrix(width, height));
@@ -223,6 +225,7 @@ public class Utils {
     public static void scaledProjection() {
         float width = (float) (mc.getWindow().getFramebufferWidth() / mc.getWindow().getScaleFactor());
         float height = (float) (mc.getWindow().getFramebufferHeight() / mc.getWindow().getScaleFactor());
+        ProjectionMatrix2 matrix = getProjectionMatrix();
 
         RenderSystem.setProjectionMatrix(matrix.set(width, height), ProjectionType.PERSPECTIVE);
         RenderUtils.projection.set(((ProjectionMatrix2Accessor) matrix).callGetMatrix(width, height));
@@ -230,6 +233,11 @@ public class Utils {
         rendering3D = true;
     }
 
+    private static ProjectionMatrix2 getProjectionMatrix() {
+        if (matrix == null) matrix = new ProjectionMatrix2("meteor-projection-matrix", -10, 100, true);
+        return matrix;
+    }
+
     public static Vec3d vec3d(BlockPos pos) {
         return new Vec3d(pos.getX(), pos.getY(), pos.getZ());
     }
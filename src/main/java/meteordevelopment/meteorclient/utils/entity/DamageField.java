@@ -0,0 +1,168 @@
+/*
+ * This file is part of the Meteor Client distribution (https://github.com/MeteorDevelopment/meteor-client).
+ * Copyright (c) Meteor Development.
+ */
+
+package meteordevelopment.meteorclient.utils.entity;
+
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2FloatMap;
+import it.unimi.dsi.fastutil.objects.Object2FloatOpenHashMap;
+import meteordevelopment.meteorclient.MeteorClient;
+import meteordevelopment.meteorclient.events.entity.EntityRemovedEvent;
+import meteordevelopment.meteorclient.events.game.GameLeftEvent;
+import meteordevelopment.meteorclient.events.world.TickEvent;
+import meteordevelopment.meteorclient.utils.PreInit;
+import meteordevelopment.orbit.EventHandler;
+import meteordevelopment.orbit.EventPriority;
+import net.minecraft.entity.LivingEntity;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Box;
+import net.minecraft.util.math.Vec3d;
+
+/**
+ * Explosion damage shared between modules. Each target has a row of damages keyed by explosion kind and position, the
+ * row of {@code mc.player} being the self damage. Damages are computed with {@link DamageUtils} the first time they are
+ * requested and reused for the rest of the tick, so modules evaluating the same positions against the same targets
+ * only pay for it once.
+ * <p>
+ * All rows are dropped at the start of every tick and when blocks change, the row of an entity is dropped when it is
+ * removed. A row only holds damages for the position and bounding box its target had when they were computed, so
+ * targets moving during the tick or having their box offset for a prediction are evaluated again. Safe to query from
+ * multiple threads.
+ */
+public class DamageField {
+    private static final Int2ObjectMap<Row> ROWS = new Int2ObjectOpenHashMap<>();
+
+    private static int generation;
+
+    private DamageField() {
+    }
+
+    @PreInit
+    public static void init() {
+        MeteorClient.EVENT_BUS.subscribe(DamageField.class);
+    }
+
+    // Equipment of targets only changes between ticks
+    @EventHandler(priority = EventPriority.HIGHEST + 1000)
+    private static void onTick(TickEvent.Pre event) {
+        clear();
+    }
+
+    @EventHandler
+    private static void onEntityRemoved(EntityRemovedEvent event) {
+        synchronized (ROWS) {
+            ROWS.remove(event.entity.getId());
+        }
+    }
+
+    @EventHandler
+    private static void onGameLeft(GameLeftEvent event) {
+        clear();
+    }
+
+    private static void clear() {
+        synchronized (ROWS) {
+            ROWS.clear();
+        }
+    }
+
+    // Damage
+
+    /**
+     * @see DamageUtils#crystalDamage(LivingEntity, Vec3d, boolean, BlockPos)
+     */
+    public static float crystalDamage(LivingEntity target, Vec3d crystal, boolean predictMovement, BlockPos obsidianPos) {
+        return get(target, Kind.CrystalOverride, crystal, predictMovement, obsidianPos);
+    }
+
+    /**
+     * @see DamageUtils#crystalDamage(LivingEntity, Vec3d)
+     */
+    public static float crystalDamage(LivingEntity target, Vec3d crystal) {
+        return get(target, Kind.Crystal, crystal, false, null);
+    }
+
+    /**
+     * @see DamageUtils#bedDamage(LivingEntity, Vec3d)
+     */
+    public static float bedDamage(LivingEntity target, Vec3d bed) {
+        return get(target, Kind.Bed, bed, false, null);
+    }
+
+    /**
+     * @see DamageUtils#anchorDamage(LivingEntity, Vec3d)
+     */
+    public static float anchorDamage(LivingEntity target, Vec3d anchor) {
+        return get(target, Kind.Anchor, anchor, false, null);
+    }
+
+    private static float get(LivingEntity target, Kind kind, Vec3d pos, boolean predictMovement, BlockPos overridePos) {
+        if (target == null) return 0;
+
+        Column column = new Column(kind, pos.x, pos.y, pos.z, predictMovement, overridePos == null ? Long.MIN_VALUE : overridePos.asLong());
+        Row row = getRow(target);
+
+        Vec3d targetPos = target.getPos();
+        Box targetBox = target.getBoundingBox();
+
+        synchronized (row) {
+            if (!row.matches(targetPos, targetBox)) {
+                row.damages.clear();
+                row.pos = targetPos;
+                row.box = targetBox;
+            }
+
+            if (row.damages.containsKey(column)) return row.damages.getFloat(column);
+        }
+
+        float damage = switch (kind) {
+            case CrystalOverride -> DamageUtils.crystalDamage(target, pos, predictMovement, overridePos);
+            case Crystal -> DamageUtils.crystalDamage(target, pos);
+            case Bed -> DamageUtils.bedDamage(target, pos);
+            case Anchor -> DamageUtils.anchorDamage(target, pos);
+        };
+
+        synchronized (row) {
+            // The target could have moved again while this was computed
+            if (row.matches(targetPos, targetBox)) row.damages.put(column, damage);
+        }
+
+        return damage;
+    }
+
+    private static Row getRow(LivingEntity target) {
+        synchronized (ROWS) {
+            // Blocks changed since the rows were computed
+            int currentGeneration = ExposureRaycaster.getGeneration();
+
+            if (generation != currentGeneration) {
+                ROWS.clear();
+                generation = currentGeneration;
+            }
+
+            return ROWS.computeIfAbsent(target.getId(), id -> new Row());
+        }
+    }
+
+    private enum Kind {
+        CrystalOverride,
+        Crystal,
+        Bed,
+        Anchor
+    }
+
+    private static class Row {
+        public final Object2FloatMap<Column> damages = new Object2FloatOpenHashMap<>();
+        public Vec3d pos;
+        public Box box;
+
+        public boolean matches(Vec3d pos, Box box) {
+            return pos.equals(this.pos) && box.equals(this.box);
+        }
+    }
+
+    private record Column(Kind kind, double x, double y, double z, boolean predictMovement, long overridePos) {}
+}
@@ -58,16 +58,11 @@ public class DamageUtils {
     // Explosion damage
 
     /**
-     * It is recommended to use this {@link RaycastFactory} unless you implement custom behaviour, as soon:tm: it will be the
-     * target of optimizations to make it more performant.
+     * It is recommended to use this {@link RaycastFactory} unless you implement custom behaviour, exposure calculations
+     * using it run through {@link ExposureRaycaster} which does not allocate and caches ray results.
      * @see BlockView#raycast(RaycastContext)
      */
-    public static final RaycastFactory HIT_FACTORY = (context, blockPos) -> {
-        BlockState blockState = mc.world.getBlockState(blockPos);
-        if (blockState.getBlock().getBlastResistance() < 600) return null;
-
-        return blockState.getCollisionShape(mc.world, blockPos).raycast(context.start(), context.end(), blockPos);
-    };
+    public static final RaycastFactory HIT_FACTORY = (context, blockPos) -> hit(mc.world, context, blockPos, null, null);
 
     public static float crystalDamage(LivingEntity target, Vec3d targetPos, Box targetBox, Vec3d explosionPos, RaycastFactory raycastFactory) {
         return explosionDamage(target, targetPos, targetBox, explosionPos, 12f, raycastFactory);
@@ -90,7 +85,7 @@ public class DamageUtils {
         double modDistance = PlayerUtils.distance(targetPos.x, targetPos.y, targetPos.z, explosionPos.x, explosionPos.y, explosionPos.z);
         if (modDistance > power) return 0f;
 
-        double exposure = getExposure(explosionPos, targetBox, raycastFactory);
+        double exposure = getExposure(mc.world, explosionPos, targetBox, raycastFactory);
         double impact = (1 - (modDistance / power)) * exposure;
         float damage = (int) ((impact * impact + impact) / 2 * 7 * 12 + 1);
 
@@ -135,17 +130,12 @@ public class DamageUtils {
         return explosionDamage(target, position, box, explosionPos, power, raycastFactory);
     }
 
+    /**
+     * Exposure calculations using the returned {@link RaycastFactory} run through {@link ExposureRaycaster}, same as
+     * {@link #HIT_FACTORY}.
+     */
     public static RaycastFactory getOverridingHitFactory(BlockPos overridePos, BlockState overrideState) {
-        return (context, blockPos) -> {
-            BlockState blockState;
-            if (blockPos.equals(overridePos)) blockState = overrideState;
-            else {
-                blockState = mc.world.getBlockState(blockPos);
-                if (blockState.getBlock().getBlastResistance() < 600) return null;
-            }
-
-            return blockState.getCollisionShape(mc.world, blockPos).raycast(context.start(), context.end(), blockPos);
-        };
+        return new OverridingHitFactory(overridePos.toImmutable(), overrideState);
     }
 
     // Sword damage
@@ -350,9 +340,11 @@ public class DamageUtils {
     }
 
     /**
+     * @param world World {@link #HIT_FACTORY} and {@link #getOverridingHitFactory(BlockPos, BlockState)} are tested
+     *              against, other factories only see the world they capture themselves
      * @see net.minecraft.world.explosion.ExplosionImpl#calculateReceivedDamage(Vec3d, Entity)
      */
-    private static float getExposure(Vec3d source, Box box, RaycastFactory raycastFactory) {
+    public static float getExposure(BlockView world, Vec3d source, Box box, RaycastFactory raycastFactory) {
         double xDiff = box.maxX - box.minX;
         double yDiff = box.maxY - box.minY;
         double zDiff = box.maxZ - box.minZ;
@@ -379,12 +371,27 @@ public class DamageUtils {
             double endY = box.maxY;
             double endZ = box.maxZ + zOffset;
 
+            // Fast path for the built-in factories, same results without allocating a ray per sample
+            BlockPos overridePos = null;
+            BlockState overrideState = null;
+            boolean fast = raycastFactory == HIT_FACTORY;
+
+            if (raycastFactory instanceof OverridingHitFactory factory) {
+                overridePos = factory.overridePos();
+                overrideState = factory.overrideState();
+                fast = true;
+            }
+
             for (double x = startX; x <= endX; x += xStep) {
                 for (double y = startY; y <= endY; y += yStep) {
                     for (double z = startZ; z <= endZ; z += zStep) {
-                        Vec3d position = new Vec3d(x, y, z);
-
-                        if (raycast(new ExposureRaycastContext(position, source), raycastFactory) == null) misses++;
+                        if (fast) {
+                            if (!ExposureRaycaster.isBlocked(world, x, y, z, source, overridePos, overrideState)) misses++;
+                        }
+                        else {
+                            Vec3d position = new Vec3d(x, y, z);
+                            if (raycast(new ExposureRaycastContext(position, source), raycastFactory) == null) misses++;
+                        }
 
                         hits++;
                     }
@@ -403,8 +410,30 @@ public class DamageUtils {
         return BlockView.raycast(context.start, context.end, context, raycastFactory, ctx -> null);
     }
 
+    /**
+     * Hit test of {@link #HIT_FACTORY} and {@link #getOverridingHitFactory(BlockPos, BlockState)} against any world.
+     * @param overridePos Position whose state is replaced by {@code overrideState}, or {@code null}
+     */
+    public static BlockHitResult hit(BlockView world, ExposureRaycastContext context, BlockPos blockPos, @Nullable BlockPos overridePos, BlockState overrideState) {
+        BlockState blockState;
+        if (blockPos.equals(overridePos)) blockState = overrideState;
+        else {
+            blockState = world.getBlockState(blockPos);
+            if (blockState.getBlock().getBlastResistance() < 600) return null;
+        }
+
+        return blockState.getCollisionShape(world, blockPos).raycast(context.start(), context.end(), blockPos);
+    }
+
     public record ExposureRaycastContext(Vec3d start, Vec3d end) {}
 
     @FunctionalInterface
     public interface RaycastFactory extends BiFunction<ExposureRaycastContext, BlockPos, BlockHitResult> {}
+
+    private record OverridingHitFactory(BlockPos overridePos, BlockState overrideState) implements RaycastFactory {
+        @Override
+        public BlockHitResult apply(ExposureRaycastContext context, BlockPos blockPos) {
+            return hit(mc.world, context, blockPos, overridePos, overrideState);
+        }
+    }
 }
@@ -0,0 +1,260 @@
+/*
+ * This file is part of the Meteor Client distribution (https://github.com/MeteorDevelopment/meteor-client).
+ * Copyright (c) Meteor Development.
+ */
+
+package meteordevelopment.meteorclient.utils.entity;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Reference2ByteMap;
+import it.unimi.dsi.fastutil.objects.Reference2ByteOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectMap;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
+import meteordevelopment.meteorclient.MeteorClient;
+import meteordevelopment.meteorclient.events.entity.EntityAddedEvent;
+import meteordevelopment.meteorclient.events.entity.EntityRemovedEvent;
+import meteordevelopment.meteorclient.events.game.GameLeftEvent;
+import meteordevelopment.meteorclient.events.world.TickEvent;
+import meteordevelopment.meteorclient.systems.friends.Friends;
+import meteordevelopment.meteorclient.utils.PreInit;
+import meteordevelopment.orbit.EventHandler;
+import meteordevelopment.orbit.EventPriority;
+import net.minecraft.client.world.ClientWorld;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.EntityType;
+import net.minecraft.entity.SpawnGroup;
+import net.minecraft.entity.player.PlayerEntity;
+import net.minecraft.util.math.Box;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.MathHelper;
+
+import java.util.*;
+import java.util.function.Consumer;
+
+import static meteordevelopment.meteorclient.MeteorClient.mc;
+
+/**
+ * Index of the client world's entities, rebuilt once at the start of every tick and kept up to date with
+ * {@link EntityAddedEvent}s and {@link EntityRemovedEvent}s in between.
+ * <p>
+ * Entities are bucketed by {@link EntityType}, by {@link SpawnGroup} and into a uniform horizontal grid of
+ * {@link #CELL_SIZE} blocks for range queries. Range queries test exact distances against current positions, the grid
+ * is only used to skip far away entities. Returned lists must not be modified.
+ */
+public class EntityIndex {
+    public static final int CELL_SIZE = 16;
+    private static final int CELL_SHIFT = 4;
+
+    private static final byte FLAG_FRIEND = 1;
+    private static final byte FLAG_COMPUTED = 2;
+
+    private static final List<Entity> ALL = new ArrayList<>();
+    private static final List<PlayerEntity> PLAYERS = new ArrayList<>();
+    private static final Reference2ObjectMap<EntityType<?>, List<Entity>> BY_TYPE = new Reference2ObjectOpenHashMap<>();
+    private static final Map<SpawnGroup, List<Entity>> BY_GROUP = new EnumMap<>(SpawnGroup.class);
+    private static final Long2ObjectMap<List<Entity>> CELLS = new Long2ObjectOpenHashMap<>();
+    private static final Reference2ByteMap<Entity> FLAGS = new Reference2ByteOpenHashMap<>();
+
+    private static ClientWorld world;
+
+    private EntityIndex() {
+    }
+
+    @PreInit
+    public static void init() {
+        for (SpawnGroup group : SpawnGroup.values()) BY_GROUP.put(group, new ArrayList<>());
+
+        MeteorClient.EVENT_BUS.subscribe(EntityIndex.class);
+    }
+
+    // Runs before every module so they all see the same index during the tick
+    @EventHandler(priority = EventPriority.HIGHEST + 1000)
+    private static void onTick(TickEvent.Pre event) {
+        rebuild();
+    }
+
+    @EventHandler
+    private static void onEntityAdded(EntityAddedEvent event) {
+        if (world == null || world != mc.world) return;
+        add(event.entity);
+    }
+
+    @EventHandler
+    private static void onEntityRemoved(EntityRemovedEvent event) {
+        if (world == null || world != mc.world) return;
+        Entity entity = event.entity;
+
+        ALL.remove(entity);
+        if (entity instanceof PlayerEntity player) PLAYERS.remove(player);
+
+        List<Entity> type = BY_TYPE.get(entity.getType());
+        if (type != null) type.remove(entity);
+
+        BY_GROUP.get(entity.getType().getSpawnGroup()).remove(entity);
+
+        List<Entity> cell = CELLS.get(cellKey(entity.getBlockX() >> CELL_SHIFT, entity.getBlockZ() >> CELL_SHIFT));
+        if (cell != null) cell.remove(entity);
+
+        FLAGS.removeByte(entity);
+    }
+
+    @EventHandler
+    private static void onGameLeft(GameLeftEvent event) {
+        clear();
+        world = null;
+    }
+
+    private static void rebuild() {
+        clear();
+
+        world = mc.world;
+        if (world == null) return;
+
+        for (Entity entity : world.getEntities()) {
+            if (entity != null) add(entity);
+        }
+    }
+
+    private static void clear() {
+        ALL.clear();
+        PLAYERS.clear();
+        FLAGS.clear();
+
+        for (List<Entity> list : BY_GROUP.values()) list.clear();
+
+        // Buckets empty since the last rebuild are dropped, the others are reused
+        clearBuckets(BY_TYPE.values().iterator());
+        clearBuckets(CELLS.values().iterator());
+    }
+
+    private static void clearBuckets(Iterator<List<Entity>> it) {
+        while (it.hasNext()) {
+            List<Entity> list = it.next();
+
+            if (list.isEmpty()) it.remove();
+            else list.clear();
+        }
+    }
+
+    private static void add(Entity entity) {
+        ALL.add(entity);
+        if (entity instanceof PlayerEntity player) PLAYERS.add(player);
+
+        BY_TYPE.computeIfAbsent(entity.getType(), type -> new ArrayList<>()).add(entity);
+        BY_GROUP.get(entity.getType().getSpawnGroup()).add(entity);
+        CELLS.computeIfAbsent(cellKey(entity.getBlockX() >> CELL_SHIFT, entity.getBlockZ() >> CELL_SHIFT), key -> new ArrayList<>()).add(entity);
+    }
+
+    private static long cellKey(int cellX, int cellZ) {
+        return ChunkPos.toLong(cellX, cellZ);
+    }
+
+    // Queries
+
+    public static List<Entity> getAll() {
+        return ALL;
+    }
+
+    public static List<PlayerEntity> getPlayers() {
+        return PLAYERS;
+    }
+
+    public static List<Entity> get(EntityType<?> type) {
+        List<Entity> list = BY_TYPE.get(type);
+        return list == null ? List.of() : list;
+    }
+
+    public static List<Entity> get(SpawnGroup group) {
+        return BY_GROUP.get(group);
+    }
+
+    /**
+     * Collects all entities whose type is in the set, grouped by type.
+     */
+    public static void get(Set<EntityType<?>> types, List<Entity> list) {
+        list.clear();
+
+        for (Reference2ObjectMap.Entry<EntityType<?>, List<Entity>> entry : BY_TYPE.reference2ObjectEntrySet()) {
+            if (types.contains(entry.getKey())) list.addAll(entry.getValue());
+        }
+    }
+
+    /**
+     * Calls the consumer for every entity whose position is within the range of the given point.
+     */
+    public static void forEachInRange(double x, double y, double z, double range, Consumer<Entity> consumer) {
+        double rangeSq = range * range;
+
+        forEachInCells(x - range, z - range, x + range, z + range, entity -> {
+            if (entity.squaredDistanceTo(x, y, z) <= rangeSq) consumer.accept(entity);
+        });
+    }
+
+    /**
+     * Collects every entity whose position is within the range of the given point.
+     */
+    public static void getInRange(double x, double y, double z, double range, List<Entity> list) {
+        list.clear();
+        forEachInRange(x, y, z, range, list::add);
+    }
+
+    /**
+     * Calls the consumer for every entity whose bounding box intersects the box.
+     */
+    public static void forEachInBox(Box box, Consumer<Entity> consumer) {
+        forEachInCells(box.minX, box.minZ, box.maxX, box.maxZ, entity -> {
+            if (entity.getBoundingBox().intersects(box)) consumer.accept(entity);
+        });
+    }
+
+    private static void forEachInCells(double minX, double minZ, double maxX, double maxZ, Consumer<Entity> consumer) {
+
+        // Entities are bucketed by their position at the start of the tick, one extra cell covers movement since then
+        int minCellX = (MathHelper.floor(minX) >> CELL_SHIFT) - 1, maxCellX = (MathHelper.floor(maxX) >> CELL_SHIFT) + 1;
+        int minCellZ = (MathHelper.floor(minZ) >> CELL_SHIFT) - 1, maxCellZ = (MathHelper.floor(maxZ) >> CELL_SHIFT) + 1;
+
+        // A query covering more cells than there are buckets is cheaper as a plain sweep
+        if ((long) (maxCellX - minCellX + 1) * (maxCellZ - minCellZ + 1) > CELLS.size()) {
+            for (List<Entity> cell : CELLS.values()) {
+                for (Entity entity : cell) {
+                    // Removals look up the current cell, an entity that moved since the rebuild can stay in its old one
+                    if (!entity.isRemoved()) consumer.accept(entity);
+                }
+            }
+
+            return;
+        }
+
+        for (int cx = minCellX; cx <= maxCellX; cx++) {
+            for (int cz = minCellZ; cz <= maxCellZ; cz++) {
+                List<Entity> cell = CELLS.get(cellKey(cx, cz));
+                if (cell == null) continue;
+
+                for (Entity entity : cell) {
+                    if (!entity.isRemoved()) consumer.accept(entity);
+                }
+            }
+        }
+    }
+
+    // Flags
+
+    /**
+     * Same as {@link Friends#isFriend(PlayerEntity)}, cached for the rest of the tick.
+     */
+    public static boolean isFriend(Entity entity) {
+        if (!(entity instanceof PlayerEntity player)) return false;
+
+        byte flags = FLAGS.getByte(entity);
+
+        if ((flags & FLAG_COMPUTED) == 0) {
+            flags = FLAG_COMPUTED;
+            if (Friends.get().isFriend(player)) flags |= FLAG_FRIEND;
+
+            FLAGS.put(entity, flags);
+        }
+
+        return (flags & FLAG_FRIEND) != 0;
+    }
+}
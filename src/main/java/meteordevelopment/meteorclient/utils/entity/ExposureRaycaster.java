@@ -0,0 +1,358 @@
+/*
+ * This file is part of the Meteor Client distribution (https://github.com/MeteorDevelopment/meteor-client).
+ * Copyright (c) Meteor Development.
+ */
+
+package meteordevelopment.meteorclient.utils.entity;
+
+import it.unimi.dsi.fastutil.HashCommon;
+import meteordevelopment.meteorclient.MeteorClient;
+import meteordevelopment.meteorclient.events.game.GameLeftEvent;
+import meteordevelopment.meteorclient.events.world.BlockUpdateEvent;
+import meteordevelopment.meteorclient.events.world.ChunkDataEvent;
+import meteordevelopment.meteorclient.events.world.ChunkUnloadEvent;
+import meteordevelopment.meteorclient.utils.PreInit;
+import meteordevelopment.orbit.EventHandler;
+import net.minecraft.block.Block;
+import net.minecraft.block.BlockState;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Box;
+import net.minecraft.util.math.MathHelper;
+import net.minecraft.util.math.Vec3d;
+import net.minecraft.util.shape.VoxelShape;
+import net.minecraft.world.BlockView;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Allocation free replacement for running {@link BlockView#raycast} with {@link DamageUtils#HIT_FACTORY} or an
+ * overriding hit factory for every exposure sample point.
+ * <p>
+ * The voxel walk, {@link VoxelShape#raycast} and {@link Box#raycast} are reimplemented on primitive doubles with the
+ * exact same arithmetic, so the results are identical. Collision shapes are cached per block state and ray results
+ * are cached per thread, keyed by start, end and override. Any block update, chunk load or unload invalidates all
+ * cached rays, as does querying another world.
+ */
+public class ExposureRaycaster {
+    private static final double EPSILON = 1.0E-7;
+
+    private static final int CACHE_BITS = 14;
+    private static final int CACHE_MASK = (1 << CACHE_BITS) - 1;
+
+    // Shapes of states with dynamic bounds are never cached
+    private static final Shape DYNAMIC = new Shape(null, false, null);
+
+    private static volatile Shape[] shapes = new Shape[0];
+    private static volatile int generation = 1;
+
+    private static final ThreadLocal<RayCache> CACHE = ThreadLocal.withInitial(RayCache::new);
+    private static final ThreadLocal<BlockPos.Mutable> POS = ThreadLocal.withInitial(BlockPos.Mutable::new);
+
+    private ExposureRaycaster() {
+    }
+
+    @PreInit
+    public static void init() {
+        MeteorClient.EVENT_BUS.subscribe(ExposureRaycaster.class);
+    }
+
+    @EventHandler
+    private static void onBlockUpdate(BlockUpdateEvent event) {
+        generation++;
+    }
+
+    @EventHandler
+    private static void onChunkData(ChunkDataEvent event) {
+        generation++;
+    }
+
+    @EventHandler
+    private static void onChunkUnload(ChunkUnloadEvent event) {
+        generation++;
+    }
+
+    @EventHandler
+    private static void onGameLeft(GameLeftEvent event) {
+        generation++;
+    }
+
+    /**
+     * @return Counter incremented whenever blocks change, cached results computed under another generation are stale
+     */
+    public static int getGeneration() {
+        return generation;
+    }
+
+    /**
+     * @param world Blocks to raycast through, usually {@code mc.world}
+     * @param overridePos Position whose state is replaced by {@code overrideState}, or {@code null}
+     * @return Whether a blast resistant block is in the way, same as the hit factory returning a non null result
+     */
+    public static boolean isBlocked(BlockView world, double startX, double startY, double startZ, Vec3d end, BlockPos overridePos, BlockState overrideState) {
+        long override = overridePos == null ? Long.MIN_VALUE : overridePos.asLong();
+        int overrideId = overridePos == null ? -1 : Block.STATE_IDS.getRawId(overrideState);
+
+        RayCache cache = CACHE.get();
+        cache.setWorld(world);
+
+        int slot = cache.slot(startX, startY, startZ, end.x, end.y, end.z, override, overrideId);
+        if (cache.matches(slot, startX, startY, startZ, end.x, end.y, end.z, override, overrideId, generation)) return cache.results[slot];
+
+        int currentGeneration = generation;
+        boolean blocked = raycast(world, startX, startY, startZ, end, override, overrideState);
+
+        cache.put(slot, startX, startY, startZ, end.x, end.y, end.z, override, overrideId, currentGeneration, blocked);
+        return blocked;
+    }
+
+    /**
+     * @see BlockView#raycast
+     */
+    private static boolean raycast(BlockView world, double startX, double startY, double startZ, Vec3d end, long override, BlockState overrideState) {
+        if (startX == end.x && startY == end.y && startZ == end.z) return false;
+
+        double d = MathHelper.lerp(-EPSILON, end.x, startX);
+        double e = MathHelper.lerp(-EPSILON, end.y, startY);
+        double f = MathHelper.lerp(-EPSILON, end.z, startZ);
+        double g = MathHelper.lerp(-EPSILON, startX, end.x);
+        double h = MathHelper.lerp(-EPSILON, startY, end.y);
+        double i = MathHelper.lerp(-EPSILON, startZ, end.z);
+
+        int x = MathHelper.floor(g);
+        int y = MathHelper.floor(h);
+        int z = MathHelper.floor(i);
+
+        BlockPos.Mutable pos = POS.get();
+        if (hits(world, pos.set(x, y, z), startX, startY, startZ, end, override, overrideState)) return true;
+
+        double m = d - g;
+        double n = e - h;
+        double o = f - i;
+
+        int stepX = MathHelper.sign(m);
+        int stepY = MathHelper.sign(n);
+        int stepZ = MathHelper.sign(o);
+
+        double deltaX = stepX == 0 ? Double.MAX_VALUE : stepX / m;
+        double deltaY = stepY == 0 ? Double.MAX_VALUE : stepY / n;
+        double deltaZ = stepZ == 0 ? Double.MAX_VALUE : stepZ / o;
+
+        double tX = deltaX * (stepX > 0 ? 1 - MathHelper.fractionalPart(g) : MathHelper.fractionalPart(g));
+        double tY = deltaY * (stepY > 0 ? 1 - MathHelper.fractionalPart(h) : MathHelper.fractionalPart(h));
+        double tZ = deltaZ * (stepZ > 0 ? 1 - MathHelper.fractionalPart(i) : MathHelper.fractionalPart(i));
+
+        while (tX <= 1 || tY <= 1 || tZ <= 1) {
+            if (tX < tY) {
+                if (tX < tZ) {
+                    x += stepX;
+                    tX += deltaX;
+                } else {
+                    z += stepZ;
+                    tZ += deltaZ;
+                }
+            } else if (tY < tZ) {
+                y += stepY;
+                tY += deltaY;
+            } else {
+                z += stepZ;
+                tZ += deltaZ;
+            }
+
+            if (hits(world, pos.set(x, y, z), startX, startY, startZ, end, override, overrideState)) return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * @see DamageUtils#HIT_FACTORY
+     * @see DamageUtils#getOverridingHitFactory(BlockPos, BlockState)
+     */
+    private static boolean hits(BlockView world, BlockPos.Mutable pos, double startX, double startY, double startZ, Vec3d end, long override, BlockState overrideState) {
+        BlockState state;
+        Shape shape;
+
+        if (pos.asLong() == override) {
+            state = overrideState;
+            shape = getShape(world, state);
+        }
+        else {
+            state = world.getBlockState(pos);
+            shape = getShape(world, state);
+            if (!shape.resistant) return false;
+        }
+
+        if (shape == DYNAMIC) {
+            return state.getCollisionShape(world, pos).raycast(new Vec3d(startX, startY, startZ), end, pos) != null;
+        }
+
+        if (shape.boxes == null) {
+            return shape.voxelShape.raycast(new Vec3d(startX, startY, startZ), end, pos) != null;
+        }
+
+        return raycastShape(shape.boxes, pos, startX, startY, startZ, end);
+    }
+
+    /**
+     * {@link VoxelShape#raycast} for shapes made of a single box.
+     */
+    private static boolean raycastShape(double[] boxes, BlockPos pos, double startX, double startY, double startZ, Vec3d end) {
+        if (boxes.length == 0) return false;
+
+        double diffX = end.x - startX;
+        double diffY = end.y - startY;
+        double diffZ = end.z - startZ;
+        if (diffX * diffX + diffY * diffY + diffZ * diffZ < EPSILON) return false;
+
+        // Start inside the shape
+        double insideX = startX + diffX * 0.001 - pos.getX();
+        double insideY = startY + diffY * 0.001 - pos.getY();
+        double insideZ = startZ + diffZ * 0.001 - pos.getZ();
+
+        if (insideX >= boxes[0] && insideX < boxes[3] && insideY >= boxes[1] && insideY < boxes[4] && insideZ >= boxes[2] && insideZ < boxes[5]) return true;
+
+        // Box#raycast, any face hit means a non null result
+        double minX = boxes[0] + pos.getX(), minY = boxes[1] + pos.getY(), minZ = boxes[2] + pos.getZ();
+        double maxX = boxes[3] + pos.getX(), maxY = boxes[4] + pos.getY(), maxZ = boxes[5] + pos.getZ();
+
+        if (diffX > EPSILON) {
+            if (traceFace(diffX, diffY, diffZ, minX, minY, maxY, minZ, maxZ, startX, startY, startZ)) return true;
+        } else if (diffX < -EPSILON) {
+            if (traceFace(diffX, diffY, diffZ, maxX, minY, maxY, minZ, maxZ, startX, startY, startZ)) return true;
+        }
+
+        if (diffY > EPSILON) {
+            if (traceFace(diffY, diffZ, diffX, minY, minZ, maxZ, minX, maxX, startY, startZ, startX)) return true;
+        } else if (diffY < -EPSILON) {
+            if (traceFace(diffY, diffZ, diffX, maxY, minZ, maxZ, minX, maxX, startY, startZ, startX)) return true;
+        }
+
+        if (diffZ > EPSILON) {
+            return traceFace(diffZ, diffX, diffY, minZ, minX, maxX, minY, maxY, startZ, startX, startY);
+        } else if (diffZ < -EPSILON) {
+            return traceFace(diffZ, diffX, diffY, maxZ, minX, maxX, minY, maxY, startZ, startX, startY);
+        }
+
+        return false;
+    }
+
+    /**
+     * @see Box#traceCollisionSide
+     */
+    private static boolean traceFace(double deltaX, double deltaY, double deltaZ, double begin, double minX, double maxX, double minZ, double maxZ, double startX, double startY, double startZ) {
+        double d = (begin - startX) / deltaX;
+        double e = startY + d * deltaY;
+        double f = startZ + d * deltaZ;
+
+        return 0 < d && d < 1 && minX - EPSILON < e && e < maxX + EPSILON && minZ - EPSILON < f && f < maxZ + EPSILON;
+    }
+
+    private static Shape getShape(BlockView world, BlockState state) {
+        int id = Block.STATE_IDS.getRawId(state);
+        Shape[] shapes = ExposureRaycaster.shapes;
+
+        if (id < shapes.length) {
+            Shape shape = shapes[id];
+            if (shape != null) return shape;
+        }
+
+        return computeShape(world, state, id);
+    }
+
+    private static synchronized Shape computeShape(BlockView world, BlockState state, int id) {
+        Shape shape;
+
+        if (state.getBlock().hasDynamicBounds()) shape = DYNAMIC;
+        else {
+            // Collision shapes of blocks without dynamic bounds do not depend on the position
+            VoxelShape voxelShape = state.getCollisionShape(world, BlockPos.ORIGIN);
+            boolean resistant = state.getBlock().getBlastResistance() >= 600;
+
+            List<Box> boxes = voxelShape.getBoundingBoxes();
+
+            if (voxelShape.isEmpty()) shape = new Shape(voxelShape, resistant, new double[0]);
+            else if (boxes.size() == 1) {
+                Box box = boxes.getFirst();
+                shape = new Shape(voxelShape, resistant, new double[] { box.minX, box.minY, box.minZ, box.maxX, box.maxY, box.maxZ });
+            }
+            else shape = new Shape(voxelShape, resistant, null);
+        }
+
+        Shape[] shapes = ExposureRaycaster.shapes;
+        if (id >= shapes.length) {
+            Shape[] grown = new Shape[Block.STATE_IDS.size()];
+            System.arraycopy(shapes, 0, grown, 0, shapes.length);
+            shapes = grown;
+        }
+
+        shapes[id] = shape;
+        ExposureRaycaster.shapes = shapes;
+
+        return shape;
+    }
+
+    /**
+     * @param boxes Single box as {@code minX, minY, minZ, maxX, maxY, maxZ}, empty for empty shapes and {@code null}
+     *              for shapes made of multiple boxes which use {@link VoxelShape#raycast} directly
+     */
+    private record Shape(VoxelShape voxelShape, boolean resistant, double[] boxes) {}
+
+    /**
+     * Direct mapped cache of ray results, a colliding ray simply replaces the previous one.
+     */
+    private static class RayCache {
+        private final long[] keys = new long[(CACHE_MASK + 1) * 7];
+        private final int[] overrideIds = new int[CACHE_MASK + 1];
+        private final int[] generations = new int[CACHE_MASK + 1];
+        private final boolean[] results = new boolean[CACHE_MASK + 1];
+
+        private BlockView world;
+
+        public void setWorld(BlockView world) {
+            if (world == this.world) return;
+
+            // Generations start at 1, so no slot matches anymore
+            Arrays.fill(generations, 0);
+            this.world = world;
+        }
+
+        public int slot(double sx, double sy, double sz, double ex, double ey, double ez, long override, int overrideId) {
+            long hash = Double.doubleToRawLongBits(sx);
+            hash = hash * 31 + Double.doubleToRawLongBits(sy);
+            hash = hash * 31 + Double.doubleToRawLongBits(sz);
+            hash = hash * 31 + Double.doubleToRawLongBits(ex);
+            hash = hash * 31 + Double.doubleToRawLongBits(ey);
+            hash = hash * 31 + Double.doubleToRawLongBits(ez);
+            hash = hash * 31 + override;
+            hash = hash * 31 + overrideId;
+
+            return (int) (HashCommon.mix(hash) & CACHE_MASK);
+        }
+
+        public boolean matches(int slot, double sx, double sy, double sz, double ex, double ey, double ez, long override, int overrideId, int generation) {
+            int i = slot * 7;
+
+            return generations[slot] == generation
+                && keys[i] == Double.doubleToRawLongBits(sx) && keys[i + 1] == Double.doubleToRawLongBits(sy) && keys[i + 2] == Double.doubleToRawLongBits(sz)
+                && keys[i + 3] == Double.doubleToRawLongBits(ex) && keys[i + 4] == Double.doubleToRawLongBits(ey) && keys[i + 5] == Double.doubleToRawLongBits(ez)
+                && keys[i + 6] == override && overrideIds[slot] == overrideId;
+        }
+
+        public void put(int slot, double sx, double sy, double sz, double ex, double ey, double ez, long override, int overrideId, int generation, boolean result) {
+            int i = slot * 7;
+
+            keys[i] = Double.doubleToRawLongBits(sx);
+            keys[i + 1] = Double.doubleToRawLongBits(sy);
+            keys[i + 2] = Double.doubleToRawLongBits(sz);
+            keys[i + 3] = Double.doubleToRawLongBits(ex);
+            keys[i + 4] = Double.doubleToRawLongBits(ey);
+            keys[i + 5] = Double.doubleToRawLongBits(ez);
+            keys[i + 6] = override;
+
+            overrideIds[slot] = overrideId;
+            generations[slot] = generation;
+            results[slot] = result;
+        }
+    }
+}
@@ -12,6 +12,7 @@ import meteordevelopment.meteorclient.utils.entity.fakeplayer.FakePlayerManager;
 import meteordevelopment.meteorclient.utils.player.PlayerUtils;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.player.PlayerEntity;
+import net.minecraft.util.math.Box;
 import net.minecraft.world.GameMode;
 
 import javax.annotation.Nullable;
@@ -41,10 +42,28 @@ public class TargetUtils {
     public static void getList(List<Entity> targetList, Predicate<Entity> isGood, SortPriority sortPriority, int maxCount) {
         targetList.clear();
 
-        for (Entity entity : mc.world.getEntities()) {
-            if (entity != null && isGood.test(entity)) targetList.add(entity);
+        for (Entity entity : EntityIndex.getAll()) {
+            if (isGood.test(entity)) targetList.add(entity);
         }
 
+        addFakePlayersAndSort(targetList, isGood, sortPriority, maxCount);
+    }
+
+    /**
+     * Same as {@link #getList(List, Predicate, SortPriority, int)} but only tests entities whose bounding box
+     * intersects the area.
+     */
+    public static void getList(List<Entity> targetList, Box area, Predicate<Entity> isGood, SortPriority sortPriority, int maxCount) {
+        targetList.clear();
+
+        EntityIndex.forEachInBox(area, entity -> {
+            if (isGood.test(entity)) targetList.add(entity);
+        });
+
+        addFakePlayersAndSort(targetList, isGood, sortPriority, maxCount);
+    }
+
+    private static void addFakePlayersAndSort(List<Entity> targetList, Predicate<Entity> isGood, SortPriority sortPriority, int maxCount) {
         FakePlayerManager.forEach(fp -> {
             if (fp != null && isGood.test(fp)) targetList.add(fp);
         });
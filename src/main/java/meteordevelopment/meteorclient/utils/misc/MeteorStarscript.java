@@ -9,6 +9,10 @@ import baritone.api.BaritoneAPI;
 import baritone.api.pathing.goals.Goal;
 import baritone.api.process.IBaritoneProcess;
 import meteordevelopment.meteorclient.MeteorClient;
+import meteordevelopment.meteorclient.events.game.GameJoinedEvent;
+import meteordevelopment.meteorclient.events.game.GameLeftEvent;
+import meteordevelopment.meteorclient.events.meteor.ActiveModulesChangedEvent;
+import meteordevelopment.meteorclient.events.world.TickEvent;
 import meteordevelopment.meteorclient.mixin.ClientPlayerInteractionManagerAccessor;
 import meteordevelopment.meteorclient.mixin.MinecraftClientAccessor;
 import meteordevelopment.meteorclient.pathing.BaritoneUtils;
@@ -22,9 +26,11 @@ import meteordevelopment.meteorclient.utils.player.ChatUtils;
 import meteordevelopment.meteorclient.utils.player.PlayerUtils;
 import meteordevelopment.meteorclient.utils.world.Dimension;
 import meteordevelopment.meteorclient.utils.world.TickRate;
+import meteordevelopment.orbit.EventHandler;
 import net.minecraft.SharedConstants;
 import net.minecraft.block.BlockState;
 import net.minecraft.client.network.PlayerListEntry;
+import net.minecraft.client.world.ClientWorld;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.LivingEntity;
 import net.minecraft.entity.effect.StatusEffect;
@@ -53,6 +59,7 @@ import org.meteordev.starscript.Starscript;
 import org.meteordev.starscript.compiler.Compiler;
 import org.meteordev.starscript.compiler.Parser;
 import org.meteordev.starscript.utils.Error;
+import org.meteordev.starscript.utils.SFunction;
 import org.meteordev.starscript.utils.StarscriptError;
 import org.meteordev.starscript.value.Value;
 import org.meteordev.starscript.value.ValueMap;
@@ -60,9 +67,8 @@ import org.meteordev.starscript.value.ValueMap;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.FormatStyle;
-import java.util.Arrays;
-import java.util.List;
-import java.util.Optional;
+import java.util.*;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import static meteordevelopment.meteorclient.MeteorClient.mc;
@@ -73,8 +79,18 @@ public class MeteorStarscript {
     private static final BlockPos.Mutable BP = new BlockPos.Mutable();
     private static final StringBuilder SB = new StringBuilder();
 
+    private static final Map<String, Volatility> VOLATILITY = new HashMap<>();
+    // ValueMap uses identity equality, weak so maps built on every read are not kept around
+    private static final Map<ValueMap, Integer> TRACKED_MAPS = new WeakHashMap<>();
+
+    private static Dependencies recording;
+    private static int eventGeneration;
+    private static ClientWorld lastWorld;
+
     @PreInit(dependencies = PathManagers.class)
     public static void init() {
+        MeteorClient.EVENT_BUS.subscribe(MeteorStarscript.class);
+
         StandardLib.init(ss);
 
         // General
@@ -200,6 +216,171 @@ public class MeteorStarscript {
             .set("player_count", () -> Value.number(mc.getNetworkHandler() != null ? mc.getNetworkHandler().getPlayerList().size() : 0))
             .set("difficulty", () -> Value.string(mc.world != null ? mc.world.getDifficulty().getName() : ""))
         );
+
+        // Volatility, variables not declared here are assumed to change every tick
+        setVolatility(Volatility.Constant, "mc_version", "meteor.name", "meteor.version");
+        setVolatility(Volatility.Event, "meteor.modules", "meteor.active_modules", "meteor.is_module_active", "server._toString", "player._toString", "player.dimension", "player.opposite_dimension");
+    }
+
+    // Dependency tracking
+
+    /**
+     * Declares how often the variables at the given paths change, a path also covers everything nested under it.
+     * Variables changing on events must be followed by a call to {@link #invalidate()} when they do.
+     */
+    public static void setVolatility(Volatility volatility, String... paths) {
+        for (String path : paths) VOLATILITY.put(path, volatility);
+    }
+
+    /**
+     * Marks all {@link Volatility#Event} variables as changed.
+     */
+    public static void invalidate() {
+        eventGeneration++;
+    }
+
+    @EventHandler
+    private static void onGameJoined(GameJoinedEvent event) {
+        invalidate();
+    }
+
+    @EventHandler
+    private static void onGameLeft(GameLeftEvent event) {
+        invalidate();
+    }
+
+    @EventHandler
+    private static void onActiveModulesChanged(ActiveModulesChangedEvent event) {
+        invalidate();
+    }
+
+    // Dimension changes replace the world
+    @EventHandler
+    private static void onTick(TickEvent.Pre event) {
+        if (mc.world != lastWorld) {
+            lastWorld = mc.world;
+            invalidate();
+        }
+    }
+
+    /**
+     * Starts recording which variables scripts read until {@link #endTracking()}. Must be called on the client thread.
+     */
+    public static void beginTracking() {
+        // Catches variables registered by addons after init
+        track(ss.getGlobals(), "");
+
+        recording = new Dependencies(eventGeneration);
+    }
+
+    public static Dependencies endTracking() {
+        Dependencies dependencies = recording;
+        recording = null;
+
+        return dependencies;
+    }
+
+    private static void track(ValueMap map, String prefix) {
+        Integer tracked = TRACKED_MAPS.get(map);
+        if (tracked != null && tracked == map.keys().size()) return;
+
+        for (String key : map.keys()) {
+            Supplier<Value> supplier = map.getRaw(key);
+            if (!(supplier instanceof TrackedSupplier)) map.set(key, new TrackedSupplier(prefix + key, supplier));
+        }
+
+        TRACKED_MAPS.put(map, map.keys().size());
+    }
+
+    private static void read(String path) {
+        if (recording == null) return;
+
+        String key = path;
+        Volatility volatility;
+
+        while ((volatility = VOLATILITY.get(key)) == null) {
+            int i = key.lastIndexOf('.');
+            if (i == -1) break;
+
+            key = key.substring(0, i);
+        }
+
+        if (volatility == null) volatility = Volatility.PerTick;
+
+        switch (volatility) {
+            case PerTick -> recording.perTick = true;
+            case Event -> recording.event = true;
+        }
+    }
+
+    public enum Volatility {
+        /** Never changes while the game is running. */
+        Constant,
+        /** Only changes on events which call {@link #invalidate()}. */
+        Event,
+        /** Can change at any time. */
+        PerTick
+    }
+
+    /**
+     * Volatility of the variables read while tracking.
+     */
+    public static class Dependencies {
+        private final int eventGeneration;
+        private boolean perTick, event;
+
+        private Dependencies(int eventGeneration) {
+            this.eventGeneration = eventGeneration;
+        }
+
+        /**
+         * @return Whether evaluating the scripts again could give a different result
+         */
+        public boolean changed() {
+            return perTick || (event && eventGeneration != MeteorStarscript.eventGeneration);
+        }
+    }
+
+    private static class TrackedSupplier implements Supplier<Value> {
+        private final String path;
+        private final Supplier<Value> supplier;
+
+        private SFunction function;
+        private Value trackedFunction;
+
+        private TrackedSupplier(String path, Supplier<Value> supplier) {
+            this.path = path;
+            this.supplier = supplier;
+        }
+
+        @Override
+        public Value get() {
+            Value value = supplier.get();
+
+            // Maps are only containers, what's read from them is tracked instead
+            if (value.isMap()) {
+                track(value.getMap(), path + ".");
+                return value;
+            }
+
+            // Reading a function doesn't depend on anything, calling it does
+            if (value.isFunction()) {
+                if (value.getFunction() != function) {
+                    function = value.getFunction();
+                    SFunction original = function;
+
+                    trackedFunction = Value.function((ss, argCount) -> {
+                        read(path);
+                        return original.run(ss, argCount);
+                    });
+                }
+
+                return trackedFunction;
+            }
+
+            read(path);
+            return value;
+        }
     }
 
     // Helpers
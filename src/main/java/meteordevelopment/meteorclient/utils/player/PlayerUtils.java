@@ -12,6 +12,7 @@ import meteordevelopment.meteorclient.systems.friends.Friends;
 import meteordevelopment.meteorclient.systems.modules.Modules;
 import meteordevelopment.meteorclient.systems.modules.movement.NoFall;
 import meteordevelopment.meteorclient.utils.Utils;
+import meteordevelopment.meteorclient.utils.entity.DamageField;
 import meteordevelopment.meteorclient.utils.entity.DamageUtils;
 import meteordevelopment.meteorclient.utils.entity.EntityUtils;
 import meteordevelopment.meteorclient.utils.misc.text.TextUtils;
@@ -193,7 +194,7 @@ public class PlayerUtils {
             for (Entity entity : mc.world.getEntities()) {
                 // Check for end crystals
                 if (entity instanceof EndCrystalEntity) {
-                    float crystalDamage = DamageUtils.crystalDamage(mc.player, entity.getPos());
+                    float crystalDamage = DamageField.crystalDamage(mc.player, entity.getPos());
                     if (crystalDamage > damageTaken) damageTaken = crystalDamage;
                 }
                 // Check for players holding swords
@@ -210,7 +211,7 @@ public class PlayerUtils {
                     Vec3d pos = new Vec3d(bp.getX(), bp.getY(), bp.getZ());
 
                     if (blockEntity instanceof BedBlockEntity) {
-                        float explosionDamage = DamageUtils.bedDamage(mc.player, pos);
+                        float explosionDamage = DamageField.bedDamage(mc.player, pos);
                         if (explosionDamage > damageTaken) damageTaken = explosionDamage;
                     }
                 }
@@ -0,0 +1,114 @@
+/*
+ * This file is part of the Meteor Client distribution (https://github.com/MeteorDevelopment/meteor-client).
+ * Copyright (c) Meteor Development.
+ */
+
+package meteordevelopment.meteorclient.utils.render;
+
+import meteordevelopment.meteorclient.MeteorClient;
+import meteordevelopment.meteorclient.renderer.text.FontInfo;
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.nbt.NbtElement;
+import net.minecraft.nbt.NbtIo;
+import net.minecraft.nbt.NbtList;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+
+/**
+ * Font files found in the system font directories, saved so launches only need to parse fonts that were added or
+ * changed since. Entries are keyed by absolute path and are valid as long as the size and modification time of the
+ * file match, files that are not usable fonts are stored without info so they are not parsed again either.
+ */
+public class FontIndex {
+    private static final File FILE = new File(MeteorClient.FOLDER, "font-index.nbt");
+    private static final int VERSION = 1;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    public static FontIndex load() {
+        FontIndex index = new FontIndex();
+        if (!FILE.exists()) return index;
+
+        try {
+            NbtCompound tag = NbtIo.read(FILE.toPath());
+            if (tag == null || tag.getInt("version", 0) != VERSION) return index;
+
+            for (NbtElement element : tag.getListOrEmpty("fonts")) {
+                if (!(element instanceof NbtCompound fontTag)) continue;
+
+                FontInfo info = null;
+                if (fontTag.contains("family")) {
+                    info = new FontInfo(fontTag.getString("family", ""), FontInfo.Type.fromString(fontTag.getString("type", "")));
+                }
+
+                index.entries.put(fontTag.getString("path", ""), new Entry(fontTag.getLong("size", -1), fontTag.getLong("modified", -1), info));
+            }
+        } catch (IOException e) {
+            MeteorClient.LOG.error("Failed to load font index", e);
+        }
+
+        return index;
+    }
+
+    public void save() {
+        NbtList fontsTag = new NbtList();
+
+        entries.forEach((path, entry) -> {
+            NbtCompound fontTag = new NbtCompound();
+
+            fontTag.putString("path", path);
+            fontTag.putLong("size", entry.size);
+            fontTag.putLong("modified", entry.modified);
+
+            if (entry.info != null) {
+                fontTag.putString("family", entry.info.family());
+                fontTag.putString("type", entry.info.type().toString());
+            }
+
+            fontsTag.add(fontTag);
+        });
+
+        NbtCompound tag = new NbtCompound();
+        tag.putInt("version", VERSION);
+        tag.put("fonts", fontsTag);
+
+        try {
+            NbtIo.write(tag, FILE.toPath());
+        } catch (IOException e) {
+            MeteorClient.LOG.error("Failed to save font index", e);
+        }
+    }
+
+    public boolean isEmpty() {
+        return entries.isEmpty();
+    }
+
+    /**
+     * @return The indexed info of the file, or {@code null} if the file changed since it was indexed
+     */
+    public Entry get(File file) {
+        Entry entry = entries.get(file.getAbsolutePath());
+        if (entry == null || entry.size != file.length() || entry.modified != file.lastModified()) return null;
+
+        return entry;
+    }
+
+    public void put(File file, FontInfo info) {
+        entries.put(file.getAbsolutePath(), new Entry(file.length(), file.lastModified(), info));
+    }
+
+    /**
+     * Calls the consumer for every indexed font without checking whether the files changed.
+     */
+    public void forEach(BiConsumer<File, FontInfo> consumer) {
+        entries.forEach((path, entry) -> {
+            if (entry.info != null) consumer.accept(new File(path), entry.info);
+        });
+    }
+
+    public record Entry(long size, long modified, FontInfo info) {}
+}
@@ -20,9 +20,11 @@ import java.io.FileNotFoundException;
 import java.io.InputStream;
 import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.stream.IntStream;
 
 public class FontUtils {
     private FontUtils() {
@@ -105,34 +107,58 @@ public class FontUtils {
         }
     }
 
-    public static void loadSystem(List<FontFamily> fontList, File dir) {
+    /**
+     * Loads all fonts from the system font directories. Only files that are not in the previous index or changed since
+     * are parsed, in parallel.
+     * @return Index of all font files found
+     */
+    public static FontIndex loadSystem(List<FontFamily> fontList, FontIndex previous) {
+        List<File> files = new ArrayList<>();
+        for (String path : getSearchPaths()) collectFiles(new File(path), files);
+
+        FontInfo[] infos = new FontInfo[files.size()];
+        IntStream.range(0, infos.length).parallel().forEach(i -> {
+            FontIndex.Entry entry = previous.get(files.get(i));
+            infos[i] = entry != null ? entry.info() : getSysFontInfo(files.get(i));
+        });
+
+        FontIndex index = new FontIndex();
+
+        for (int i = 0; i < infos.length; i++) {
+            index.put(files.get(i), infos[i]);
+            if (infos[i] != null) addSystemFont(fontList, files.get(i), infos[i]);
+        }
+
+        return index;
+    }
+
+    /**
+     * Loads the fonts of the index without checking whether their files changed.
+     */
+    public static void loadIndexed(List<FontFamily> fontList, FontIndex index) {
+        index.forEach((file, info) -> addSystemFont(fontList, file, info));
+    }
+
+    private static void collectFiles(File dir, List<File> files) {
         if (!dir.exists() || !dir.isDirectory()) return;
 
-        File[] files = dir.listFiles((file) -> (file.isFile() && file.getName().endsWith(".ttf") || file.isDirectory()));
-        if (files == null) return;
-
-        for (File file : files) {
-            if (file.isDirectory()) {
-                loadSystem(fontList, file);
-                continue;
-            }
-
-            FontInfo fontInfo = FontUtils.getSysFontInfo(file);
-            if (fontInfo == null) continue;
-
-            boolean isBuiltin = false;
-            for (String builtinFont : Fonts.BUILTIN_FONTS) {
-                if (builtinFont.equals(fontInfo.family())) {
-                    isBuiltin = true;
-                    break;
-                }
-            }
-            if (isBuiltin) continue;
-
-            FontFace fontFace = new SystemFontFace(fontInfo, file.toPath());
-            if (!addFont(fontList, fontFace)) {
-                MeteorClient.LOG.warn("Failed to load system font {}", fontFace);
-            }
+        File[] children = dir.listFiles((file) -> (file.isFile() && file.getName().endsWith(".ttf") || file.isDirectory()));
+        if (children == null) return;
+
+        for (File file : children) {
+            if (file.isDirectory()) collectFiles(file, files);
+            else files.add(file);
+        }
+    }
+
+    private static void addSystemFont(List<FontFamily> fontList, File file, FontInfo fontInfo) {
+        for (String builtinFont : Fonts.BUILTIN_FONTS) {
+            if (builtinFont.equals(fontInfo.family())) return;
+        }
+
+        FontFace fontFace = new SystemFontFace(fontInfo, file.toPath());
+        if (!addFont(fontList, fontFace)) {
+            MeteorClient.LOG.warn("Failed to load system font {}", fontFace);
         }
     }
 
@@ -141,7 +167,7 @@ public class FontUtils {
 
         FontInfo info = font.info;
 
-        FontFamily family = Fonts.getFamily(info.family());
+        FontFamily family = getFamily(fontList, info.family());
         if (family == null) {
             family = new FontFamily(info.family());
             fontList.add(family);
@@ -152,6 +178,14 @@ public class FontUtils {
         return family.addFont(font);
     }
 
+    private static FontFamily getFamily(List<FontFamily> fontList, String name) {
+        for (FontFamily family : fontList) {
+            if (family.getName().equalsIgnoreCase(name)) return family;
+        }
+
+        return null;
+    }
+
     public static InputStream stream(String builtin) {
         return FontUtils.class.getResourceAsStream("/assets/" + MeteorClient.MOD_ID + "/fonts/" + builtin + ".ttf");
     }
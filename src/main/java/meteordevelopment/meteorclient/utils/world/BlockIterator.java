@@ -5,15 +5,23 @@
 
 package meteordevelopment.meteorclient.utils.world;
 
+import it.unimi.dsi.fastutil.objects.Reference2ObjectMap;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
 import meteordevelopment.meteorclient.MeteorClient;
+import meteordevelopment.meteorclient.events.world.BlockUpdateEvent;
+import meteordevelopment.meteorclient.events.world.ChunkDataEvent;
+import meteordevelopment.meteorclient.events.world.ChunkUnloadEvent;
 import meteordevelopment.meteorclient.events.world.TickEvent;
 import meteordevelopment.meteorclient.utils.PreInit;
 import meteordevelopment.meteorclient.utils.Utils;
 import meteordevelopment.meteorclient.utils.misc.Pool;
 import meteordevelopment.orbit.EventHandler;
 import meteordevelopment.orbit.EventPriority;
+import net.minecraft.block.Block;
 import net.minecraft.block.BlockState;
+import net.minecraft.client.world.ClientWorld;
 import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.chunk.Chunk;
 
 import java.util.ArrayList;
 import java.util.Iterator;
@@ -22,9 +30,20 @@ import java.util.function.BiConsumer;
 
 import static meteordevelopment.meteorclient.MeteorClient.mc;
 
+/**
+ * Iterates the blocks around the player once per tick for every registered callback.
+ * <p>
+ * Block states are read from a snapshot of the cube around the player, stored as global block state ids. The
+ * snapshot is indexed modulo its size, so when the player moves only the slices entering the cube are read from the
+ * world, and single blocks are patched from {@link BlockUpdateEvent}s. Every callback only walks its own radius.
+ */
 public class BlockIterator {
+    private static final int BUDGET_CHECK_INTERVAL = 64;
+
     private static final Pool<Callback> callbackPool = new Pool<>(Callback::new);
     private static final List<Callback> callbacks = new ArrayList<>();
+    private static final List<Callback> lowPriorityCallbacks = new ArrayList<>();
+    private static final Reference2ObjectMap<Object, Cursor> cursors = new Reference2ObjectOpenHashMap<>();
 
     private static final List<Runnable> afterCallbacks = new ArrayList<>();
 
@@ -33,6 +52,13 @@ public class BlockIterator {
 
     private static boolean disableCurrent;
 
+    // Snapshot
+    private static ClientWorld world;
+    private static int[] states;
+    private static int sizeH, sizeV;
+    private static int originX, originY, originZ;
+    private static boolean valid;
+
     private BlockIterator() {
     }
 
@@ -49,29 +75,11 @@ public class BlockIterator {
         int py = mc.player.getBlockY();
         int pz = mc.player.getBlockZ();
 
-        for (int x = px - hRadius; x <= px + hRadius; x++) {
-            for (int z = pz - hRadius; z <= pz + hRadius; z++) {
-                for (int y = Math.max(mc.world.getBottomY(), py - vRadius); y <= py + vRadius; y++) {
-                    if (y > mc.world.getHeight()) break;
-
-                    blockPos.set(x, y, z);
-                    BlockState blockState = mc.world.getBlockState(blockPos);
-
-                    int dx = Math.abs(x - px);
-                    int dy = Math.abs(y - py);
-                    int dz = Math.abs(z - pz);
+        if (!callbacks.isEmpty() || !lowPriorityCallbacks.isEmpty()) {
+            updateSnapshot(px, py, pz);
 
-                    for (Iterator<Callback> it = callbacks.iterator(); it.hasNext(); ) {
-                        Callback callback = it.next();
-
-                        if (dx <= callback.hRadius && dy <= callback.vRadius && dz <= callback.hRadius) {
-                            disableCurrent = false;
-                            callback.function.accept(blockPos, blockState);
-                            if (disableCurrent) it.remove();
-                        }
-                    }
-                }
-            }
+            for (Callback callback : callbacks) iterate(callback, px, py, pz, 0, Long.MAX_VALUE);
+            for (Callback callback : lowPriorityCallbacks) iterateLowPriority(callback, px, py, pz);
         }
 
         hRadius = 0;
@@ -80,11 +88,112 @@ public class BlockIterator {
         for (Callback callback : callbacks) callbackPool.free(callback);
         callbacks.clear();
 
+        // Forget sweeps of owners that stopped registering
+        for (Iterator<Cursor> it = cursors.values().iterator(); it.hasNext(); ) {
+            Cursor cursor = it.next();
+
+            if (!cursor.registered) it.remove();
+            else cursor.registered = false;
+        }
+
+        for (Callback callback : lowPriorityCallbacks) callbackPool.free(callback);
+        lowPriorityCallbacks.clear();
+
         for (Runnable callback : afterCallbacks) callback.run();
         afterCallbacks.clear();
     }
 
+    private static void iterateLowPriority(Callback callback, int px, int py, int pz) {
+        Cursor cursor = cursors.get(callback.owner);
+        long deadline = System.nanoTime() + callback.budget;
+
+        cursor.index = iterate(callback, px, py, pz, cursor.index, deadline);
+
+        if (cursor.index == -1) {
+            cursor.index = 0;
+            if (callback.onComplete != null) afterCallbacks.add(callback.onComplete);
+        }
+    }
+
+    /**
+     * Walks the callback's box starting at the given position in iteration order.
+     *
+     * @return The position to continue from or {@code -1} when the whole box was walked
+     */
+    private static int iterate(Callback callback, int px, int py, int pz, int start, long deadline) {
+        int minY = Math.max(mc.world.getBottomY(), py - callback.vRadius);
+        int maxY = Math.min(mc.world.getTopYInclusive(), py + callback.vRadius);
+        if (maxY < minY) return -1;
+
+        int size = callback.hRadius * 2 + 1;
+        int height = maxY - minY + 1;
+        int total = size * size * height;
+
+        for (int i = start; i < total; i++) {
+            if (deadline != Long.MAX_VALUE && (i - start) % BUDGET_CHECK_INTERVAL == 0 && i != start && System.nanoTime() > deadline) {
+                return i;
+            }
+
+            // Same order as before, x then z then y
+            int x = px - callback.hRadius + i / (size * height);
+            int z = pz - callback.hRadius + (i / height) % size;
+            int y = minY + i % height;
+
+            blockPos.set(x, y, z);
+
+            disableCurrent = false;
+            callback.function.accept(blockPos, getState(x, y, z));
+            if (disableCurrent) return -1;
+        }
+
+        return -1;
+    }
+
     public static void register(int horizontalRadius, int verticalRadius, BiConsumer<BlockPos, BlockState> function) {
+        callbacks.add(createCallback(horizontalRadius, verticalRadius, function));
+    }
+
+    /**
+     * Registers a low priority callback which runs after all other callbacks and stops once it used up its time
+     * budget for the tick. Registering again with the same owner on the next tick continues where it stopped, so a
+     * full sweep of the box can span several ticks while the player moves.
+     *
+     * @param owner Identifies the sweep across ticks, usually the module
+     * @param budget Maximum time spent per tick in nanoseconds
+     * @param onRestart Runs right away when the sweep has to start over from the beginning because the radius or world
+     *                  changed, anything collected during the unfinished sweep should be discarded
+     * @param onComplete Runs together with the {@link #after(Runnable)} callbacks once the whole box was walked
+     */
+    public static void register(Object owner, int horizontalRadius, int verticalRadius, long budget, BiConsumer<BlockPos, BlockState> function, Runnable onRestart, Runnable onComplete) {
+        Callback callback = createCallback(horizontalRadius, verticalRadius, function);
+
+        callback.owner = owner;
+        callback.budget = budget;
+        callback.onComplete = onComplete;
+
+        Cursor cursor = cursors.get(owner);
+        if (cursor == null) {
+            cursor = new Cursor();
+            cursors.put(owner, cursor);
+        }
+
+        // A changed radius or world makes the saved position meaningless
+        if (cursor.hRadius != horizontalRadius || cursor.vRadius != verticalRadius || cursor.world != mc.world) {
+            boolean started = cursor.index != 0;
+
+            cursor.index = 0;
+            cursor.hRadius = horizontalRadius;
+            cursor.vRadius = verticalRadius;
+            cursor.world = mc.world;
+
+            if (started) onRestart.run();
+        }
+
+        cursor.registered = true;
+        lowPriorityCallbacks.add(callback);
+    }
+
+    private static Callback createCallback(int horizontalRadius, int verticalRadius, BiConsumer<BlockPos, BlockState> function) {
         hRadius = Math.max(hRadius, horizontalRadius);
         vRadius = Math.max(vRadius, verticalRadius);
 
@@ -93,8 +202,11 @@ public class BlockIterator {
         callback.function = function;
         callback.hRadius = horizontalRadius;
         callback.vRadius = verticalRadius;
+        callback.owner = null;
+        callback.budget = Long.MAX_VALUE;
+        callback.onComplete = null;
 
-        callbacks.add(callback);
+        return callback;
     }
 
     public static void disableCurrent() {
@@ -105,8 +217,126 @@ public class BlockIterator {
         afterCallbacks.add(callback);
     }
 
+    // Snapshot
+
+    private static void updateSnapshot(int px, int py, int pz) {
+        int newSizeH = hRadius * 2 + 1;
+        int newSizeV = vRadius * 2 + 1;
+
+        if (!valid || world != mc.world || newSizeH != sizeH || newSizeV != sizeV) {
+            if (newSizeH != sizeH || newSizeV != sizeV || states == null) {
+                sizeH = newSizeH;
+                sizeV = newSizeV;
+                states = new int[sizeH * sizeH * sizeV];
+            }
+
+            world = mc.world;
+            setOrigin(px, py, pz);
+            refresh(px - hRadius, py - vRadius, pz - hRadius, px + hRadius, py + vRadius, pz + hRadius);
+            valid = true;
+            return;
+        }
+
+        int dx = px - originX;
+        int dy = py - originY;
+        int dz = pz - originZ;
+        if (dx == 0 && dy == 0 && dz == 0) return;
+
+        int oldX = originX, oldY = originY, oldZ = originZ;
+        setOrigin(px, py, pz);
+
+        if (Math.abs(dx) >= sizeH || Math.abs(dy) >= sizeV || Math.abs(dz) >= sizeH) {
+            refresh(px - hRadius, py - vRadius, pz - hRadius, px + hRadius, py + vRadius, pz + hRadius);
+            return;
+        }
+
+        // Only the slices that entered the cube, cells still inside it map to the same index
+        if (dx > 0) refresh(oldX + hRadius + 1, py - vRadius, pz - hRadius, px + hRadius, py + vRadius, pz + hRadius);
+        else if (dx < 0) refresh(px - hRadius, py - vRadius, pz - hRadius, oldX - hRadius - 1, py + vRadius, pz + hRadius);
+
+        if (dy > 0) refresh(px - hRadius, oldY + vRadius + 1, pz - hRadius, px + hRadius, py + vRadius, pz + hRadius);
+        else if (dy < 0) refresh(px - hRadius, py - vRadius, pz - hRadius, px + hRadius, oldY - vRadius - 1, pz + hRadius);
+
+        if (dz > 0) refresh(px - hRadius, py - vRadius, oldZ + hRadius + 1, px + hRadius, py + vRadius, pz + hRadius);
+        else if (dz < 0) refresh(px - hRadius, py - vRadius, pz - hRadius, px + hRadius, py + vRadius, oldZ - hRadius - 1);
+    }
+
+    private static void setOrigin(int x, int y, int z) {
+        originX = x;
+        originY = y;
+        originZ = z;
+    }
+
+    private static void refresh(int x1, int y1, int z1, int x2, int y2, int z2) {
+        for (int x = x1; x <= x2; x++) {
+            for (int z = z1; z <= z2; z++) {
+                Chunk chunk = world.getChunk(x >> 4, z >> 4);
+
+                for (int y = y1; y <= y2; y++) {
+                    blockPos.set(x, y, z);
+                    states[index(x, y, z)] = Block.STATE_IDS.getRawId(chunk.getBlockState(blockPos));
+                }
+            }
+        }
+    }
+
+    private static BlockState getState(int x, int y, int z) {
+        return Block.STATE_IDS.get(states[index(x, y, z)]);
+    }
+
+    private static boolean contains(int x, int y, int z) {
+        int hr = sizeH / 2, vr = sizeV / 2;
+        return Math.abs(x - originX) <= hr && Math.abs(y - originY) <= vr && Math.abs(z - originZ) <= hr;
+    }
+
+    private static int index(int x, int y, int z) {
+        return (Math.floorMod(x, sizeH) * sizeH + Math.floorMod(z, sizeH)) * sizeV + Math.floorMod(y, sizeV);
+    }
+
+    @EventHandler
+    private static void onBlockUpdate(BlockUpdateEvent event) {
+        if (!valid || world != mc.world) return;
+
+        int x = event.pos.getX(), y = event.pos.getY(), z = event.pos.getZ();
+        if (contains(x, y, z)) states[index(x, y, z)] = Block.STATE_IDS.getRawId(event.newState);
+    }
+
+    @EventHandler
+    private static void onChunkData(ChunkDataEvent event) {
+        refreshChunk(event.chunk().getPos().getStartX(), event.chunk().getPos().getStartZ());
+    }
+
+    @EventHandler
+    private static void onChunkUnload(ChunkUnloadEvent event) {
+        refreshChunk(event.pos().getStartX(), event.pos().getStartZ());
+    }
+
+    private static void refreshChunk(int startX, int startZ) {
+        if (!valid || world != mc.world) return;
+
+        int hr = sizeH / 2, vr = sizeV / 2;
+
+        int x1 = Math.max(startX, originX - hr);
+        int z1 = Math.max(startZ, originZ - hr);
+        int x2 = Math.min(startX + 15, originX + hr);
+        int z2 = Math.min(startZ + 15, originZ + hr);
+
+        if (x1 <= x2 && z1 <= z2) refresh(x1, originY - vr, z1, x2, originY + vr, z2);
+    }
+
     private static class Callback {
         public BiConsumer<BlockPos, BlockState> function;
         public int hRadius, vRadius;
+
+        public Object owner;
+        public long budget;
+        public Runnable onComplete;
+    }
+
+    private static class Cursor {
+        public int index;
+        public int hRadius, vRadius;
+        public ClientWorld world;
+        public boolean registered;
     }
 }
@@ -0,0 +1,144 @@
+/*
+ * This file is part of the Meteor Client distribution (https://github.com/MeteorDevelopment/meteor-client).
+ * Copyright (c) Meteor Development.
+ */
+
+package meteordevelopment.meteorclient.utils.world;
+
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongList;
+import net.minecraft.block.Block;
+import net.minecraft.block.BlockState;
+import net.minecraft.util.math.BlockBox;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkSectionPos;
+import net.minecraft.world.World;
+import net.minecraft.world.chunk.*;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.function.LongConsumer;
+
+/**
+ * Finds blocks in chunks by reading the palette of every {@link ChunkSection} first.
+ * <p>
+ * A section whose palette contains none of the target states is skipped without looking at its blocks, and the
+ * remaining sections are walked directly over their packed palette indices instead of calling
+ * {@link Chunk#getBlockState(BlockPos)} for every position. Matches are reported as {@link BlockPos#asLong()}.
+ * <p>
+ * Instances are immutable and can be shared between threads, create a new one when the target blocks change.
+ */
+public class BlockScanner {
+    private final BitSet targetStates = new BitSet(Block.STATE_IDS.size());
+    private final boolean empty;
+
+    public BlockScanner(Collection<Block> blocks) {
+        for (Block block : blocks) {
+            for (BlockState state : block.getStateManager().getStates()) {
+                targetStates.set(Block.STATE_IDS.getRawId(state));
+            }
+        }
+
+        empty = targetStates.isEmpty();
+    }
+
+    public boolean matches(BlockState state) {
+        return targetStates.get(Block.STATE_IDS.getRawId(state));
+    }
+
+    /**
+     * Scans the whole chunk.
+     */
+    public void scan(Chunk chunk, LongConsumer consumer) {
+        scan(chunk, null, consumer);
+    }
+
+    public LongList scan(Chunk chunk) {
+        LongArrayList matches = new LongArrayList();
+        scan(chunk, matches::add);
+        return matches;
+    }
+
+    /**
+     * Scans all loaded chunks intersecting the box, only reporting positions inside it.
+     */
+    public void scan(World world, BlockBox box, LongConsumer consumer) {
+        for (int cx = box.getMinX() >> 4; cx <= box.getMaxX() >> 4; cx++) {
+            for (int cz = box.getMinZ() >> 4; cz <= box.getMaxZ() >> 4; cz++) {
+                Chunk chunk = world.getChunk(cx, cz, ChunkStatus.FULL, false);
+                if (chunk != null) scan(chunk, box, consumer);
+            }
+        }
+    }
+
+    /**
+     * Scans a single section whose lowest corner is at the given block position.
+     */
+    public void scan(ChunkSection section, int startX, int startY, int startZ, LongConsumer consumer) {
+        if (!empty && !section.isEmpty()) scan(section, startX, startY, startZ, null, consumer);
+    }
+
+    private void scan(Chunk chunk, BlockBox box, LongConsumer consumer) {
+        if (empty) return;
+
+        ChunkSection[] sections = chunk.getSectionArray();
+        int startX = chunk.getPos().getStartX();
+        int startZ = chunk.getPos().getStartZ();
+
+        for (int i = 0; i < sections.length; i++) {
+            ChunkSection section = sections[i];
+            if (section == null || section.isEmpty()) continue;
+
+            int startY = ChunkSectionPos.getBlockCoord(chunk.sectionIndexToCoord(i));
+            if (box != null && (startY > box.getMaxY() || startY + 15 < box.getMinY())) continue;
+
+            scan(section, startX, startY, startZ, box, consumer);
+        }
+    }
+
+    private void scan(ChunkSection section, int startX, int startY, int startZ, BlockBox box, LongConsumer consumer) {
+        // Read palette and storage together, the container can swap them at any time
+        PalettedContainer.Data<BlockState> data = section.getBlockStateContainer().data;
+        Palette<BlockState> palette = data.palette();
+        PaletteStorage storage = data.storage();
+
+        if (palette instanceof IdListPalette) {
+            // Global palette, storage values are raw state ids
+            walk(storage, null, startX, startY, startZ, box, consumer);
+            return;
+        }
+
+        int size = palette.getSize();
+        boolean[] matching = null;
+
+        for (int id = 0; id < size; id++) {
+            if (matches(palette.get(id))) {
+                if (matching == null) matching = new boolean[size];
+                matching[id] = true;
+            }
+        }
+
+        if (matching != null) walk(storage, matching, startX, startY, startZ, box, consumer);
+    }
+
+    private void walk(PaletteStorage storage, boolean[] matching, int startX, int startY, int startZ, BlockBox box, LongConsumer consumer) {
+        int[] index = { 0 };
+
+        storage.forEach(value -> {
+            int i = index[0]++;
+
+            if (matching != null ? value < matching.length && matching[value] : targetStates.get(value)) {
+                // Block state containers are indexed as (y << 8) | (z << 4) | x
+                int x = startX + (i & 15);
+                int y = startY + (i >> 8);
+                int z = startZ + ((i >> 4) & 15);
+
+                if (box == null || contains(box, x, y, z)) consumer.accept(BlockPos.asLong(x, y, z));
+            }
+        });
+    }
+
+    private static boolean contains(BlockBox box, int x, int y, int z) {
+        return x >= box.getMinX() && x <= box.getMaxX() && y >= box.getMinY() && y <= box.getMaxY() && z >= box.getMinZ() && z <= box.getMaxZ();
+    }
+}
@@ -0,0 +1,49 @@
+#version 330 core
+
+layout (location = 0) in vec4 pos;
+layout (location = 1) in vec4 color;
+
+layout (std140) uniform MeshData {
+    mat4 u_Proj;
+    mat4 u_ModelView;
+};
+
+uniform samplerBuffer u_Instances;
+
+out vec4 v_Color;
+
+uint fetchByte(int texel, int channel) {
+    return uint(round(texelFetch(u_Instances, texel)[channel] * 255.0));
+}
+
+float fetchFloat(int texel) {
+    uvec4 b = uvec4(round(texelFetch(u_Instances, texel) * 255.0));
+    return uintBitsToFloat(b.r | (b.g << 8u) | (b.b << 16u) | (b.a << 24u));
+}
+
+void main() {
+    int base = gl_InstanceID * 9;
+
+    // Red holds the faces this vertex belongs to, green is 1 for lines and 0 for sides
+    uint faces = uint(round(color.r * 255.0));
+    bool line = color.g > 0.5;
+
+    uint exclude = fetchByte(base + 8, 0);
+    uint modes = fetchByte(base + 8, 1);
+
+    // Lines are hidden when any of their two adjacent faces is excluded, same as Renderer3D.boxLines()
+    bool hidden = (modes & (line ? 1u : 2u)) == 0u || (faces & exclude) != 0u;
+
+    if (hidden) {
+        gl_Position = vec4(2.0, 2.0, 2.0, 1.0);
+        v_Color = vec4(0.0);
+        return;
+    }
+
+    vec3 origin = vec3(fetchFloat(base), fetchFloat(base + 1), fetchFloat(base + 2));
+    vec3 size = vec3(fetchFloat(base + 3), fetchFloat(base + 4), fetchFloat(base + 5));
+
+    gl_Position = u_Proj * u_ModelView * vec4(origin + pos.xyz * size, 1.0);
+
+    v_Color = texelFetch(u_Instances, base + (line ? 7 : 6));
+}
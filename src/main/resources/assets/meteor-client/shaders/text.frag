@@ -7,6 +7,13 @@ uniform sampler2D u_Texture;
 in vec2 v_TexCoord;
 in vec4 v_Color;
 
+// Distance field value of glyph edges, see GlyphAtlas
+const float EDGE = 128.0 / 255.0;
+
 void main() {
-    color = vec4(1.0, 1.0, 1.0, texture(u_Texture, v_TexCoord).r) * v_Color;
+    // Texture coordinates are in atlas pixels so they stay valid when the atlas grows
+    float distance = texture(u_Texture, v_TexCoord / vec2(textureSize(u_Texture, 0))).r;
+    float width = max(fwidth(distance), 0.0001);
+
+    color = vec4(1.0, 1.0, 1.0, smoothstep(EDGE - width, EDGE + width, distance)) * v_Color;
 }
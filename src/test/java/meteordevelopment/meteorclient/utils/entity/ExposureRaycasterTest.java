@@ -0,0 +1,205 @@
+/*
+ * This file is part of the Meteor Client distribution (https://github.com/MeteorDevelopment/meteor-client).
+ * Copyright (c) Meteor Development.
+ */
+
+package meteordevelopment.meteorclient.utils.entity;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.Bootstrap;
+import net.minecraft.SharedConstants;
+import net.minecraft.block.BlockState;
+import net.minecraft.block.Blocks;
+import net.minecraft.block.entity.BlockEntity;
+import net.minecraft.fluid.FluidState;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Vec3d;
+import net.minecraft.world.BlockView;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * {@link ExposureRaycaster} has to give exactly the same results as {@link BlockView#raycast} with
+ * {@link DamageUtils#HIT_FACTORY}, or an overriding hit factory, which it replaces.
+ */
+public class ExposureRaycasterTest {
+    private static final int SIZE = 8;
+
+    @BeforeAll
+    public static void bootstrap() {
+        SharedConstants.createGameVersion();
+        Bootstrap.initialize();
+    }
+
+    @Test
+    public void fullBlocks() {
+        TestWorld world = randomWorld(1, Blocks.OBSIDIAN.getDefaultState(), Blocks.BEDROCK.getDefaultState(), Blocks.STONE.getDefaultState());
+        assertEquivalent(world, randomRays(2, 2000), null, null);
+    }
+
+    @Test
+    public void partialShapes() {
+        TestWorld world = randomWorld(3,
+            // Single boxes
+            Blocks.ENCHANTING_TABLE.getDefaultState(),
+            Blocks.ENDER_CHEST.getDefaultState(),
+            // Multiple boxes
+            Blocks.ANVIL.getDefaultState(),
+            // Not blast resistant, ignored
+            Blocks.STONE_SLAB.getDefaultState()
+        );
+
+        assertEquivalent(world, randomRays(4, 2000), null, null);
+    }
+
+    @Test
+    public void boundaryAlignedRays() {
+        TestWorld world = randomWorld(5, Blocks.OBSIDIAN.getDefaultState(), Blocks.ENCHANTING_TABLE.getDefaultState(), Blocks.ENDER_CHEST.getDefaultState());
+        List<Vec3d[]> rays = new ArrayList<>();
+
+        // Block edges and the faces of the partial shapes, 0.75 is the top of enchanting tables and 0.875 of ender chests
+        double[] offsets = { 0, 0.0625, 0.5, 0.75, 0.875, 0.9375 };
+        Random random = new Random(6);
+
+        for (int i = 0; i < 2000; i++) {
+            Vec3d start = alignedPoint(random, offsets);
+            Vec3d end = alignedPoint(random, offsets);
+
+            // Axis aligned rays along a block boundary
+            if (i % 4 == 0) end = new Vec3d(start.x, start.y, end.z);
+
+            rays.add(new Vec3d[] { start, end });
+        }
+
+        assertEquivalent(world, rays, null, null);
+    }
+
+    @Test
+    public void raysStartingInsideBlocks() {
+        TestWorld world = new TestWorld();
+
+        world.set(2, 2, 2, Blocks.OBSIDIAN.getDefaultState());
+        world.set(5, 2, 2, Blocks.ENDER_CHEST.getDefaultState());
+        world.set(2, 2, 5, Blocks.ANVIL.getDefaultState());
+
+        List<Vec3d[]> rays = new ArrayList<>();
+        Random random = new Random(7);
+
+        for (BlockPos pos : List.of(new BlockPos(2, 2, 2), new BlockPos(5, 2, 2), new BlockPos(2, 2, 5))) {
+            for (int i = 0; i < 200; i++) {
+                Vec3d start = new Vec3d(pos.getX() + random.nextDouble(), pos.getY() + random.nextDouble(), pos.getZ() + random.nextDouble());
+                rays.add(new Vec3d[] { start, randomPoint(random) });
+            }
+        }
+
+        assertEquivalent(world, rays, null, null);
+    }
+
+    @Test
+    public void overrides() {
+        TestWorld world = randomWorld(8, Blocks.OBSIDIAN.getDefaultState(), Blocks.ENDER_CHEST.getDefaultState());
+        List<Vec3d[]> rays = randomRays(9, 500);
+
+        // Air replacing a resistant block, and a resistant or partial block placed into air
+        assertEquivalent(world, rays, new BlockPos(3, 3, 3), Blocks.AIR.getDefaultState());
+        assertEquivalent(world, rays, new BlockPos(4, 4, 4), Blocks.OBSIDIAN.getDefaultState());
+        assertEquivalent(world, rays, new BlockPos(4, 3, 4), Blocks.ENCHANTING_TABLE.getDefaultState());
+    }
+
+    // Helpers
+
+    private static void assertEquivalent(TestWorld world, List<Vec3d[]> rays, @Nullable BlockPos overridePos, @Nullable BlockState overrideState) {
+        for (Vec3d[] ray : rays) {
+            Vec3d start = ray[0], end = ray[1];
+
+            boolean expected = BlockView.raycast(start, end, new DamageUtils.ExposureRaycastContext(start, end),
+                (context, blockPos) -> DamageUtils.hit(world, context, blockPos, overridePos, overrideState),
+                context -> null
+            ) != null;
+
+            // Twice, the second result comes from the cache
+            for (int i = 0; i < 2; i++) {
+                boolean actual = ExposureRaycaster.isBlocked(world, start.x, start.y, start.z, end, overridePos, overrideState);
+                assertEquals(expected, actual, () -> "Ray from " + start + " to " + end + " with override " + overridePos + " " + overrideState);
+            }
+        }
+    }
+
+    private static TestWorld randomWorld(long seed, BlockState... states) {
+        TestWorld world = new TestWorld();
+        Random random = new Random(seed);
+
+        for (int x = 0; x < SIZE; x++) {
+            for (int y = 0; y < SIZE; y++) {
+                for (int z = 0; z < SIZE; z++) {
+                    if (random.nextInt(3) == 0) world.set(x, y, z, states[random.nextInt(states.length)]);
+                }
+            }
+        }
+
+        return world;
+    }
+
+    private static List<Vec3d[]> randomRays(long seed, int count) {
+        List<Vec3d[]> rays = new ArrayList<>(count);
+        Random random = new Random(seed);
+
+        for (int i = 0; i < count; i++) rays.add(new Vec3d[] { randomPoint(random), randomPoint(random) });
+
+        return rays;
+    }
+
+    private static Vec3d randomPoint(Random random) {
+        return new Vec3d(random.nextDouble() * (SIZE + 2) - 1, random.nextDouble() * (SIZE + 2) - 1, random.nextDouble() * (SIZE + 2) - 1);
+    }
+
+    private static Vec3d alignedPoint(Random random, double[] offsets) {
+        return new Vec3d(
+            random.nextInt(SIZE) + offsets[random.nextInt(offsets.length)],
+            random.nextInt(SIZE) + offsets[random.nextInt(offsets.length)],
+            random.nextInt(SIZE) + offsets[random.nextInt(offsets.length)]
+        );
+    }
+
+    private static class TestWorld implements BlockView {
+        private final Long2ObjectMap<BlockState> states = new Long2ObjectOpenHashMap<>();
+
+        public void set(int x, int y, int z, BlockState state) {
+            states.put(BlockPos.asLong(x, y, z), state);
+        }
+
+        @Override
+        public BlockState getBlockState(BlockPos pos) {
+            BlockState state = states.get(pos.asLong());
+            return state != null ? state : Blocks.AIR.getDefaultState();
+        }
+
+        @Override
+        public FluidState getFluidState(BlockPos pos) {
+            return getBlockState(pos).getFluidState();
+        }
+
+        @Override
+        public @Nullable BlockEntity getBlockEntity(BlockPos pos) {
+            return null;
+        }
+
+        @Override
+        public int getHeight() {
+            return 384;
+        }
+
+        @Override
+        public int getBottomY() {
+            return -64;
+        }
+    }
+}